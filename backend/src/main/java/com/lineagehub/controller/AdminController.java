@@ -0,0 +1,115 @@
+package com.lineagehub.controller;
+
+import com.lineagehub.dto.response.ComponentReportResponse;
+import com.lineagehub.dto.response.IntegrityReportResponse;
+import com.lineagehub.dto.response.MessageResponse;
+import com.lineagehub.graph.IntegrityScanner;
+import com.lineagehub.service.ComponentService;
+import com.lineagehub.service.GenerationService;
+import com.lineagehub.service.IntegrityScanService;
+import com.lineagehub.service.MemberClosureService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin")
+@RequiredArgsConstructor
+@Tag(name = "Admin", description = "Maintenance endpoints (Super Admin only)")
+@SecurityRequirement(name = "bearerAuth")
+public class AdminController {
+
+    private final MemberClosureService memberClosureService;
+    private final GenerationService generationService;
+    private final IntegrityScanService integrityScanService;
+    private final ComponentService componentService;
+
+    @PostMapping("/closure/rebuild")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(summary = "Rebuild bảng closure", description = "Tính lại toàn bộ bảng member_closure từ bảng relationships")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Thành công"),
+            @ApiResponse(responseCode = "403", description = "Không có quyền")
+    })
+    public ResponseEntity<MessageResponse> rebuildClosure() {
+        int rows = memberClosureService.rebuild();
+        return ResponseEntity.ok(MessageResponse.builder()
+                .message(String.format("Đã rebuild bảng closure (%d dòng)", rows))
+                .build());
+    }
+
+    @PostMapping("/generations/recompute")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(summary = "Tính lại đời", description = "Tính lại đời của toàn bộ thành viên từ quan hệ cha mẹ - con")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Thành công"),
+            @ApiResponse(responseCode = "403", description = "Không có quyền")
+    })
+    public ResponseEntity<MessageResponse> recomputeGenerations() {
+        int updated = generationService.recomputeAll();
+        return ResponseEntity.ok(MessageResponse.builder()
+                .message(String.format("Đã cập nhật đời của %d thành viên", updated))
+                .build());
+    }
+
+    @PostMapping("/integrity-scan")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(summary = "Kiểm tra toàn vẹn dữ liệu", description = "Bắt đầu kiểm tra toàn bộ quan hệ gia phả ở chế độ chạy nền")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Đã bắt đầu kiểm tra"),
+            @ApiResponse(responseCode = "403", description = "Không có quyền"),
+            @ApiResponse(responseCode = "409", description = "Đang có lượt kiểm tra chưa hoàn tất")
+    })
+    public ResponseEntity<MessageResponse> startIntegrityScan() {
+        integrityScanService.startScan();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(MessageResponse.builder()
+                .message("Đã bắt đầu kiểm tra dữ liệu")
+                .build());
+    }
+
+    @GetMapping("/integrity-scan")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(summary = "Báo cáo kiểm tra dữ liệu", description = "Lấy kết quả lượt kiểm tra gần nhất, phân trang danh sách bất thường")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Thành công"),
+            @ApiResponse(responseCode = "403", description = "Không có quyền")
+    })
+    public ResponseEntity<IntegrityReportResponse> getIntegrityReport(
+            @Parameter(description = "Lọc theo loại bất thường")
+            @RequestParam(required = false) IntegrityScanner.AnomalyType type,
+            @Parameter(description = "Số trang (bắt đầu từ 0)")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Số bất thường mỗi trang (tối đa 500)")
+            @RequestParam(defaultValue = "50") int size) {
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.max(size, 1));
+        return ResponseEntity.ok(integrityScanService.getReport(type, pageable));
+    }
+
+    @GetMapping("/components")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(summary = "Các cụm gia phả rời nhau", description = "Liệt kê các cụm thành viên liên thông (theo quan hệ cha mẹ - con và vợ chồng) kèm kích thước và các thủy tổ (thành viên không có cha mẹ), cụm lớn nhất trước")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Thành công"),
+            @ApiResponse(responseCode = "403", description = "Không có quyền")
+    })
+    public ResponseEntity<ComponentReportResponse> getComponents(
+            @Parameter(description = "Chỉ lấy các cụm có tối đa bấy nhiêu thành viên (tìm mảnh rời)")
+            @RequestParam(required = false) Integer maxSize,
+            @Parameter(description = "Số trang (bắt đầu từ 0)")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Số cụm mỗi trang (tối đa 500)")
+            @RequestParam(defaultValue = "50") int size) {
+        Pageable pageable = PageRequest.of(Math.max(page, 0), Math.max(size, 1));
+        return ResponseEntity.ok(componentService.getReport(maxSize, pageable));
+    }
+}
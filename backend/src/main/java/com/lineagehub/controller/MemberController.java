@@ -2,9 +2,14 @@ package com.lineagehub.controller;
 
 import com.lineagehub.dto.request.CreateMemberRequest;
 import com.lineagehub.dto.request.UpdateMemberRequest;
+import com.lineagehub.dto.response.MemberCollateralsResponse;
 import com.lineagehub.dto.response.MemberDetailResponse;
+import com.lineagehub.dto.response.MemberEditorsResponse;
+import com.lineagehub.dto.response.MemberFamilyResponse;
+import com.lineagehub.dto.response.MemberNeighborhoodResponse;
 import com.lineagehub.dto.response.MemberResponse;
 import com.lineagehub.dto.response.MessageResponse;
+import com.lineagehub.dto.response.SubtreeResponse;
 import com.lineagehub.entity.enums.Gender;
 import com.lineagehub.security.CustomUserDetails;
 import com.lineagehub.service.MemberService;
@@ -54,6 +59,8 @@ public class MemberController {
             @RequestParam(required = false) Boolean isBloodRelative,
             @Parameter(description = "Filter theo còn sống/đã mất")
             @RequestParam(required = false) Boolean isDeceased,
+            @Parameter(description = "Chỉ lấy thành viên mà người dùng hiện tại có quyền sửa")
+            @RequestParam(defaultValue = "false") boolean editableOnly,
             @Parameter(description = "Số trang (0-indexed)")
             @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Số items trên mỗi trang")
@@ -68,7 +75,7 @@ public class MemberController {
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
         
         Page<MemberResponse> members = memberService.getMembers(
-                search, generation, gender, isBloodRelative, isDeceased, pageable, currentUser.getId());
+                search, generation, gender, isBloodRelative, isDeceased, editableOnly, pageable, currentUser.getId());
         
         return ResponseEntity.ok(members);
     }
@@ -87,6 +94,89 @@ public class MemberController {
         return ResponseEntity.ok(member);
     }
 
+    @GetMapping("/{id}/subtree")
+    @Operation(summary = "Lấy subtree của member", description = "Lấy các thành viên trong subtree kèm độ sâu, phân trang bằng continuation token")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Thành công"),
+            @ApiResponse(responseCode = "400", description = "Continuation token không hợp lệ"),
+            @ApiResponse(responseCode = "404", description = "Member không tồn tại"),
+            @ApiResponse(responseCode = "401", description = "Chưa đăng nhập")
+    })
+    public ResponseEntity<SubtreeResponse> getSubtree(
+            @Parameter(description = "ID của member") @PathVariable UUID id,
+            @Parameter(description = "Số đời tối đa")
+            @RequestParam(defaultValue = "10") int maxDepth,
+            @Parameter(description = "Bao gồm vợ/chồng")
+            @RequestParam(defaultValue = "true") boolean includeSpouses,
+            @Parameter(description = "Số thành viên tối đa mỗi trang (tối đa 2000)")
+            @RequestParam(defaultValue = "500") int limit,
+            @Parameter(description = "Token lấy trang tiếp theo (từ response trước)")
+            @RequestParam(required = false) String continuationToken) {
+        SubtreeResponse subtree = memberService.getSubtree(id, maxDepth, includeSpouses, limit, continuationToken);
+        return ResponseEntity.ok(subtree);
+    }
+
+    @GetMapping("/{id}/family")
+    @Operation(summary = "Mở rộng node trên cây", description = "Lấy con (phân trang) và vợ/chồng của member, kèm số con và số vợ/chồng của từng người")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Thành công"),
+            @ApiResponse(responseCode = "404", description = "Member không tồn tại"),
+            @ApiResponse(responseCode = "401", description = "Chưa đăng nhập")
+    })
+    public ResponseEntity<MemberFamilyResponse> getFamily(
+            @Parameter(description = "ID của member") @PathVariable UUID id,
+            @Parameter(description = "Số con bỏ qua")
+            @RequestParam(defaultValue = "0") int offset,
+            @Parameter(description = "Số con tối đa mỗi trang (tối đa 500)")
+            @RequestParam(defaultValue = "50") int limit) {
+        MemberFamilyResponse family = memberService.getFamily(id, offset, limit);
+        return ResponseEntity.ok(family);
+    }
+
+    @GetMapping("/{id}/neighborhood")
+    @Operation(summary = "Lân cận của member", description = "Lấy các thành viên trong vòng N bước quan hệ (cha mẹ, con, vợ/chồng) quanh member cùng các cạnh giữa họ, để điều hướng trên cây không cần tải lại")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Thành công"),
+            @ApiResponse(responseCode = "404", description = "Member không tồn tại"),
+            @ApiResponse(responseCode = "401", description = "Chưa đăng nhập")
+    })
+    public ResponseEntity<MemberNeighborhoodResponse> getNeighborhood(
+            @Parameter(description = "ID của member") @PathVariable UUID id,
+            @Parameter(description = "Số bước quan hệ tối đa (1 - 4)")
+            @RequestParam(defaultValue = "2") int radius,
+            @Parameter(description = "Số thành viên tối đa (tối đa 1000)")
+            @RequestParam(defaultValue = "200") int maxNodes) {
+        MemberNeighborhoodResponse neighborhood = memberService.getNeighborhood(id, radius, maxNodes);
+        return ResponseEntity.ok(neighborhood);
+    }
+
+    @GetMapping("/{id}/collaterals")
+    @Operation(summary = "Anh chị em và anh chị em họ", description = "Lấy anh chị em ruột, anh chị em cùng cha khác mẹ/cùng mẹ khác cha, anh chị em con chú con bác (họ đời thứ nhất) và họ đời thứ hai của member")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Thành công"),
+            @ApiResponse(responseCode = "404", description = "Member không tồn tại"),
+            @ApiResponse(responseCode = "401", description = "Chưa đăng nhập")
+    })
+    public ResponseEntity<MemberCollateralsResponse> getCollaterals(
+            @Parameter(description = "ID của member") @PathVariable UUID id) {
+        MemberCollateralsResponse collaterals = memberService.getCollaterals(id);
+        return ResponseEntity.ok(collaterals);
+    }
+
+    @GetMapping("/{id}/editors")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(summary = "Ai có quyền sửa thành viên", description = "Lấy các BRANCH_ADMIN có member trong subtree được quản lý, kèm các member gốc tương ứng")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Thành công"),
+            @ApiResponse(responseCode = "404", description = "Member không tồn tại"),
+            @ApiResponse(responseCode = "403", description = "Không có quyền")
+    })
+    public ResponseEntity<MemberEditorsResponse> getEditors(
+            @Parameter(description = "ID của member") @PathVariable UUID id) {
+        MemberEditorsResponse editors = memberService.getEditors(id);
+        return ResponseEntity.ok(editors);
+    }
+
     @PostMapping
     @PreAuthorize("hasAnyRole('SUPER_ADMIN', 'BRANCH_ADMIN')")
     @Operation(summary = "Tạo thành viên mới", description = "Tạo một thành viên mới trong gia phả")
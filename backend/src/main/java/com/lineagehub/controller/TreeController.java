@@ -0,0 +1,198 @@
+package com.lineagehub.controller;
+
+import com.lineagehub.dto.request.KinshipBatchRequest;
+import com.lineagehub.dto.request.MemberQueryRequest;
+import com.lineagehub.dto.response.BranchSizeResponse;
+import com.lineagehub.dto.response.CommonAncestorResponse;
+import com.lineagehub.dto.response.KinshipCoefficientResponse;
+import com.lineagehub.dto.response.MemberQueryResponse;
+import com.lineagehub.dto.response.PedigreeResponse;
+import com.lineagehub.dto.response.TreePathResponse;
+import com.lineagehub.security.CustomUserDetails;
+import com.lineagehub.service.TreeService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/tree")
+@RequiredArgsConstructor
+@Tag(name = "Tree", description = "Family tree visualization endpoints")
+@SecurityRequirement(name = "bearerAuth")
+public class TreeController {
+
+    private final TreeService treeService;
+
+    @GetMapping
+    @Operation(summary = "Lấy dữ liệu cây gia phả", description = "Lấy nodes và edges của cây gia phả (toàn bộ hoặc từ một thành viên gốc)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Thành công"),
+            @ApiResponse(responseCode = "401", description = "Chưa đăng nhập"),
+            @ApiResponse(responseCode = "404", description = "Member không tồn tại")
+    })
+    public ResponseEntity<StreamingResponseBody> getTree(
+            @Parameter(description = "ID thành viên gốc (mặc định: toàn bộ cây)")
+            @RequestParam(required = false) UUID rootMemberId,
+            @Parameter(description = "Số đời tối đa tính từ thành viên gốc")
+            @RequestParam(defaultValue = "10") int depth,
+            @Parameter(description = "ID thành viên làm mốc xưng hô (mặc định: thành viên liên kết với user hiện tại)")
+            @RequestParam(required = false) UUID egoMemberId,
+            @AuthenticationPrincipal CustomUserDetails currentUser) {
+
+        // Resolved before streaming so that a missing member still maps to 404
+        TreeService.TreeSelection selection = treeService.selectTree(rootMemberId, depth, egoMemberId, currentUser.getId());
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> treeService.writeTree(selection, out));
+    }
+
+    @GetMapping("/window")
+    @Operation(summary = "Lấy cây theo khoảng thế hệ", description = "Lấy nodes và edges trong một khoảng thế hệ (và khoảng cột bố cục nếu có), kèm stub cho các quan hệ nằm ngoài khung nhìn")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Thành công"),
+            @ApiResponse(responseCode = "400", description = "Khoảng thế hệ không hợp lệ"),
+            @ApiResponse(responseCode = "401", description = "Chưa đăng nhập")
+    })
+    public ResponseEntity<StreamingResponseBody> getTreeWindow(
+            @Parameter(description = "Thế hệ đầu tiên")
+            @RequestParam int fromGeneration,
+            @Parameter(description = "Thế hệ cuối cùng")
+            @RequestParam int toGeneration,
+            @Parameter(description = "Cột bố cục nhỏ nhất (mặc định: không giới hạn)")
+            @RequestParam(required = false) Integer minColumn,
+            @Parameter(description = "Cột bố cục lớn nhất (mặc định: không giới hạn)")
+            @RequestParam(required = false) Integer maxColumn,
+            @Parameter(description = "ID thành viên làm mốc xưng hô (mặc định: thành viên liên kết với user hiện tại)")
+            @RequestParam(required = false) UUID egoMemberId,
+            @AuthenticationPrincipal CustomUserDetails currentUser) {
+
+        TreeService.TreeSelection selection = treeService.selectWindow(
+                fromGeneration, toGeneration, minColumn, maxColumn, egoMemberId, currentUser.getId());
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> treeService.writeTree(selection, out));
+    }
+
+    @GetMapping("/path")
+    @Operation(summary = "Lấy đường đi giữa 2 thành viên", description = "Tìm đường quan hệ ngắn nhất (cha mẹ, con, vợ chồng) giữa hai thành viên")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Thành công"),
+            @ApiResponse(responseCode = "401", description = "Chưa đăng nhập"),
+            @ApiResponse(responseCode = "404", description = "Member không tồn tại")
+    })
+    public ResponseEntity<TreePathResponse> getPath(
+            @Parameter(description = "Member bắt đầu")
+            @RequestParam UUID fromId,
+            @Parameter(description = "Member kết thúc")
+            @RequestParam UUID toId,
+            @Parameter(description = "Số bậc quan hệ tối đa")
+            @RequestParam(defaultValue = "30") int maxDepth) {
+
+        return ResponseEntity.ok(treeService.findPath(fromId, toId, maxDepth));
+    }
+
+    @GetMapping("/common-ancestor")
+    @Operation(summary = "Tìm tổ tiên chung gần nhất", description = "Tìm tổ tiên chung gần nhất theo dòng máu của hai thành viên")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Thành công"),
+            @ApiResponse(responseCode = "401", description = "Chưa đăng nhập"),
+            @ApiResponse(responseCode = "404", description = "Member không tồn tại")
+    })
+    public ResponseEntity<CommonAncestorResponse> getCommonAncestor(
+            @Parameter(description = "Member thứ nhất")
+            @RequestParam UUID memberId1,
+            @Parameter(description = "Member thứ hai")
+            @RequestParam UUID memberId2) {
+
+        return ResponseEntity.ok(treeService.findCommonAncestor(memberId1, memberId2));
+    }
+
+    @GetMapping("/kinship")
+    @Operation(summary = "Tính hệ số thân tộc", description = "Tính hệ số thân tộc (kinship coefficient) của hai thành viên theo quan hệ cha mẹ - con, có tính đến tổ tiên trùng lặp")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Thành công"),
+            @ApiResponse(responseCode = "401", description = "Chưa đăng nhập"),
+            @ApiResponse(responseCode = "404", description = "Member không tồn tại")
+    })
+    public ResponseEntity<KinshipCoefficientResponse> getKinshipCoefficient(
+            @Parameter(description = "Member thứ nhất")
+            @RequestParam UUID memberId1,
+            @Parameter(description = "Member thứ hai")
+            @RequestParam UUID memberId2) {
+
+        return ResponseEntity.ok(treeService.getKinshipCoefficient(memberId1, memberId2));
+    }
+
+    @PostMapping("/kinship/batch")
+    @Operation(summary = "Tính hệ số thân tộc hàng loạt", description = "Tính hệ số thân tộc cho nhiều cặp thành viên (tối đa 1000 cặp), kết quả theo thứ tự yêu cầu")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Thành công"),
+            @ApiResponse(responseCode = "400", description = "Dữ liệu không hợp lệ"),
+            @ApiResponse(responseCode = "401", description = "Chưa đăng nhập"),
+            @ApiResponse(responseCode = "404", description = "Member không tồn tại")
+    })
+    public ResponseEntity<List<KinshipCoefficientResponse>> getKinshipCoefficients(
+            @Valid @RequestBody KinshipBatchRequest request) {
+
+        return ResponseEntity.ok(treeService.getKinshipCoefficients(request.getPairs()));
+    }
+
+    @PostMapping("/query")
+    @Operation(summary = "Truy vấn thành viên theo cây", description = "Lọc thành viên theo điểm bắt đầu, hướng duyệt (tổ tiên, hậu duệ, vợ/chồng), khoảng độ sâu và điều kiện (giới tính, còn sống, đời, nhánh, năm sinh, số cha mẹ/con), thực hiện trên đồ thị trong bộ nhớ")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Thành công"),
+            @ApiResponse(responseCode = "400", description = "Dữ liệu không hợp lệ"),
+            @ApiResponse(responseCode = "401", description = "Chưa đăng nhập"),
+            @ApiResponse(responseCode = "404", description = "Member không tồn tại"),
+            @ApiResponse(responseCode = "409", description = "Thiếu thành viên bắt đầu hoặc khoảng độ sâu không hợp lệ")
+    })
+    public ResponseEntity<MemberQueryResponse> queryMembers(@Valid @RequestBody MemberQueryRequest request) {
+        return ResponseEntity.ok(treeService.queryMembers(request));
+    }
+
+    @GetMapping("/pedigree")
+    @Operation(summary = "Lấy phả hệ tổ tiên", description = "Lấy tổ tiên của một thành viên đến N đời (kèm vợ/chồng) để vẽ biểu đồ phả hệ")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Thành công"),
+            @ApiResponse(responseCode = "401", description = "Chưa đăng nhập"),
+            @ApiResponse(responseCode = "404", description = "Member không tồn tại")
+    })
+    public ResponseEntity<PedigreeResponse> getPedigree(
+            @Parameter(description = "ID thành viên")
+            @RequestParam UUID memberId,
+            @Parameter(description = "Số đời tổ tiên (tối đa 30)")
+            @RequestParam(defaultValue = "5") int generations,
+            @Parameter(description = "Bao gồm vợ/chồng của tổ tiên")
+            @RequestParam(defaultValue = "true") boolean includeSpouses) {
+
+        return ResponseEntity.ok(treeService.getPedigree(memberId, generations, includeSpouses));
+    }
+
+    @GetMapping("/largest-branches")
+    @Operation(summary = "Các nhánh lớn nhất", description = "Lấy các thành viên có nhiều hậu duệ nhất")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Thành công"),
+            @ApiResponse(responseCode = "401", description = "Chưa đăng nhập")
+    })
+    public ResponseEntity<List<BranchSizeResponse>> getLargestBranches(
+            @Parameter(description = "Số nhánh trả về (tối đa 100)")
+            @RequestParam(defaultValue = "10") int limit) {
+
+        return ResponseEntity.ok(treeService.getLargestBranches(limit));
+    }
+}
@@ -1,5 +1,6 @@
 package com.lineagehub.controller;
 
+import com.lineagehub.dto.request.LinkUserMemberRequest;
 import com.lineagehub.dto.response.MessageResponse;
 import com.lineagehub.dto.response.UserResponse;
 import com.lineagehub.entity.enums.UserStatus;
@@ -114,6 +115,22 @@ public class UserController {
         return ResponseEntity.ok(user);
     }
 
+    @PutMapping("/{id}/member")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    @Operation(summary = "Liên kết user với thành viên", description = "Gắn tài khoản với hồ sơ thành viên của chính người đó trong cây (memberId = null để gỡ liên kết)")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Liên kết thành công"),
+            @ApiResponse(responseCode = "404", description = "User hoặc member không tồn tại"),
+            @ApiResponse(responseCode = "409", description = "Thành viên đã được liên kết với tài khoản khác"),
+            @ApiResponse(responseCode = "403", description = "Không có quyền")
+    })
+    public ResponseEntity<UserResponse> linkMember(
+            @Parameter(description = "ID của user") @PathVariable UUID id,
+            @RequestBody LinkUserMemberRequest request) {
+        UserResponse user = userService.linkMember(id, request.getMemberId());
+        return ResponseEntity.ok(user);
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('SUPER_ADMIN')")
     @Operation(summary = "Xóa user", description = "Xóa user khỏi hệ thống")
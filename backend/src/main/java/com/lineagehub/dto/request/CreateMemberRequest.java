@@ -47,8 +47,6 @@ public class CreateMemberRequest {
     
     private String notes;
     
-    private Integer generation;
-    
     private List<UUID> parentIds;  // Max 2 (father + mother)
     
     private List<UUID> spouseIds;
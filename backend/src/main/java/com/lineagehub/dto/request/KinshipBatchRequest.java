@@ -0,0 +1,23 @@
+package com.lineagehub.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KinshipBatchRequest {
+
+    @NotEmpty(message = "Danh sách cặp thành viên không được rỗng")
+    @Size(max = 1000, message = "Tối đa 1000 cặp thành viên mỗi lần")
+    @Valid
+    private List<MemberPairRequest> pairs;
+}
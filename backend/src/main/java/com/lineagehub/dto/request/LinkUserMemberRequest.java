@@ -0,0 +1,17 @@
+package com.lineagehub.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LinkUserMemberRequest {
+    
+    private UUID memberId;  // null to remove the link
+}
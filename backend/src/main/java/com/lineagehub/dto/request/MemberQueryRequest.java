@@ -0,0 +1,67 @@
+package com.lineagehub.dto.request;
+
+import com.lineagehub.entity.enums.Gender;
+import com.lineagehub.graph.MemberQuery;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberQueryRequest {
+
+    @Size(max = 1000, message = "Tối đa 1000 thành viên bắt đầu")
+    private List<UUID> startMemberIds;  // Empty: every member (direction NONE only)
+
+    private MemberQuery.Direction direction;  // Default NONE
+
+    @Min(value = 0, message = "Độ sâu phải >= 0")
+    @Max(value = MemberQuery.MAX_DEPTH, message = "Độ sâu tối đa là 500")
+    private Integer minDepth;  // Default 0 for NONE, 1 otherwise
+
+    @Min(value = 0, message = "Độ sâu phải >= 0")
+    @Max(value = MemberQuery.MAX_DEPTH, message = "Độ sâu tối đa là 500")
+    private Integer maxDepth;  // Default 500 (0 for NONE)
+
+    // Predicates, null = no filter
+    private Gender gender;
+    private Boolean isDeceased;
+    private Boolean isBloodRelative;
+
+    @Min(value = 1, message = "Đời phải >= 1")
+    @Max(value = 1000, message = "Đời tối đa là 1000")
+    private Integer minGeneration;
+
+    @Min(value = 1, message = "Đời phải >= 1")
+    @Max(value = 1000, message = "Đời tối đa là 1000")
+    private Integer maxGeneration;
+
+    private String branchName;  // Case-insensitive
+
+    @Min(value = MemberQuery.MIN_BIRTH_YEAR, message = "Năm sinh phải >= 1")
+    @Max(value = MemberQuery.MAX_BIRTH_YEAR, message = "Năm sinh tối đa là 9999")
+    private Integer bornFrom;   // Birth year, inclusive
+
+    @Min(value = MemberQuery.MIN_BIRTH_YEAR, message = "Năm sinh phải >= 1")
+    @Max(value = MemberQuery.MAX_BIRTH_YEAR, message = "Năm sinh tối đa là 9999")
+    private Integer bornTo;
+
+    private Integer minParents;
+    private Integer maxParents;
+    private Integer minChildren;
+    private Integer maxChildren;
+    private Boolean isMarried;
+
+    @Min(value = 1, message = "Giới hạn phải >= 1")
+    @Max(value = 5000, message = "Giới hạn tối đa là 5000")
+    private Integer limit;  // Default 500
+}
@@ -44,6 +44,4 @@ public class UpdateMemberRequest {
     private String email;
     
     private String notes;
-    
-    private Integer generation;
 }
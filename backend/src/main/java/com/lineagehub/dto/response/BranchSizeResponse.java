@@ -0,0 +1,17 @@
+package com.lineagehub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BranchSizeResponse {
+    private MemberSummaryResponse member;
+    private Integer descendantCount;
+    private Integer livingDescendantCount;
+    private Integer maxDescendantDepth;
+}
@@ -0,0 +1,25 @@
+package com.lineagehub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CollateralMemberResponse {
+    private UUID id;
+    private String fullName;
+    private String gender;
+    private Integer birthYear;
+    private Integer deathYear;
+    private Boolean isBloodRelative;
+    private Boolean isDeceased;
+    private String avatarUrl;
+    private List<UUID> commonAncestorIds;   // Shared parents (siblings), grandparents or great-grandparents (cousins)
+}
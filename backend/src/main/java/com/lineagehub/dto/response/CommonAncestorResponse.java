@@ -0,0 +1,16 @@
+package com.lineagehub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommonAncestorResponse {
+    private MemberSummaryResponse ancestor;     // null if the members have no common ancestor
+    private Integer generationsFromFirst;
+    private Integer generationsFromSecond;
+}
@@ -0,0 +1,23 @@
+package com.lineagehub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComponentReportResponse {
+    private Integer componentCount;
+    private Integer largestComponent;
+    private Integer isolatedMembers;            // Members without any relationship
+    private List<ComponentResponse> components;
+    private Integer page;
+    private Integer size;
+    private Long totalElements;
+    private Integer totalPages;
+}
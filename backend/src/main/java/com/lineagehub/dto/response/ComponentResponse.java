@@ -0,0 +1,20 @@
+package com.lineagehub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComponentResponse {
+    private UUID componentId;                   // Smallest member id in the component
+    private Integer size;
+    private Integer founderCount;               // Members without parents
+    private List<MemberSummaryResponse> founders;   // Blood relatives first, then earliest born (at most 10)
+}
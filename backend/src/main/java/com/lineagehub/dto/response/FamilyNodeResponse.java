@@ -0,0 +1,26 @@
+package com.lineagehub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FamilyNodeResponse {
+    private UUID id;
+    private String fullName;
+    private String gender;
+    private Integer birthYear;
+    private Integer deathYear;
+    private Boolean isBloodRelative;
+    private Boolean isDeceased;
+    private String avatarUrl;
+    private UUID relationshipId;
+    private Long childCount;
+    private Long spouseCount;
+}
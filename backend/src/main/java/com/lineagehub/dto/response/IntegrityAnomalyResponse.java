@@ -0,0 +1,20 @@
+package com.lineagehub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IntegrityAnomalyResponse {
+    private String type;
+    private String message;
+    private List<MemberSummaryResponse> members;  // Checked member first
+    private UUID relationshipId;                  // Offending row, if any
+}
@@ -0,0 +1,31 @@
+package com.lineagehub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IntegrityReportResponse {
+    private String status;              // IDLE, RUNNING, COMPLETED, FAILED
+    private Instant startedAt;
+    private Instant finishedAt;
+    private Long durationMs;
+    private Integer memberCount;
+    private Integer relationshipCount;
+    private Integer componentCount;
+    private Integer largestComponent;
+    private Map<String, Long> anomalyCounts;
+    private List<IntegrityAnomalyResponse> anomalies;
+    private Integer page;
+    private Integer size;
+    private Long totalElements;
+    private Integer totalPages;
+}
@@ -0,0 +1,20 @@
+package com.lineagehub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KinshipCoefficientResponse {
+    private UUID memberId1;
+    private UUID memberId2;
+    private Double kinshipCoefficient;          // probability that alleles drawn from each member are identical by descent
+    private Double relationshipCoefficient;     // 2 x kinship coefficient (0.5 for siblings, 0.125 for first cousins)
+    private Boolean relatedByBlood;             // kinship coefficient > 0
+}
@@ -0,0 +1,21 @@
+package com.lineagehub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberCollateralsResponse {
+    private UUID memberId;
+    private List<CollateralMemberResponse> fullSiblings;    // Same parents
+    private List<CollateralMemberResponse> halfSiblings;    // At least one parent in common, not all
+    private List<CollateralMemberResponse> firstCousins;    // Common grandparent, no common parent
+    private List<CollateralMemberResponse> secondCousins;   // Common great-grandparent, no common grandparent
+}
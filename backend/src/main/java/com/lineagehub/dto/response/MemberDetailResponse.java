@@ -31,6 +31,11 @@ public class MemberDetailResponse {
     private String notes;
     private Integer generation;
     private Boolean isDeceased;
+    private Integer descendantCount;        // Distinct descendants (excluding the member)
+    private Integer livingDescendantCount;
+    private Integer maxDescendantDepth;     // Generations below the member
+    private String relationToMe;            // Kinship term as seen from the current user's member, if linked
+    private Integer relationDistance;       // Parent, child and spouse steps of that relation
     private Boolean canEdit;
     private MemberRelationshipsResponse relationships;
     private Instant createdAt;
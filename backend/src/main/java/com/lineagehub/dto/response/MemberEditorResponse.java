@@ -0,0 +1,21 @@
+package com.lineagehub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberEditorResponse {
+    private UUID userId;
+    private String fullName;
+    private String email;
+    private String status;
+    private List<UUID> managedMemberIds;    // Managed members whose subtree contains the member
+}
@@ -0,0 +1,18 @@
+package com.lineagehub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberEditorsResponse {
+    private UUID memberId;
+    private List<MemberEditorResponse> branchAdmins;    // SUPER_ADMINs can edit every member and are not listed
+}
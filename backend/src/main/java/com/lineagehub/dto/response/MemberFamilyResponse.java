@@ -0,0 +1,22 @@
+package com.lineagehub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberFamilyResponse {
+    private UUID memberId;
+    private List<FamilyNodeResponse> spouses;   // Only on the first page (offset = 0)
+    private List<FamilyNodeResponse> children;
+    private Long totalChildren;
+    private Integer offset;
+    private Boolean hasMore;
+}
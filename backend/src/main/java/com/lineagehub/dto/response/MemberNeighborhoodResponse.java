@@ -0,0 +1,22 @@
+package com.lineagehub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberNeighborhoodResponse {
+    private UUID memberId;
+    private Integer radius;
+    private Boolean truncated;                     // true when maxNodes cut the traversal short
+    private List<NeighborMemberResponse> members;  // Closest first, the center member at index 0
+    private List<int[]> parentChildEdges;          // [parent index, child index] into members
+    private List<int[]> spouseEdges;               // [index, index] into members, each pair once
+}
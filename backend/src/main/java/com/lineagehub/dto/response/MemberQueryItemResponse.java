@@ -0,0 +1,26 @@
+package com.lineagehub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberQueryItemResponse {
+    private UUID id;
+    private String fullName;
+    private String gender;
+    private Integer birthYear;
+    private Integer deathYear;
+    private Integer generation;
+    private String branchName;
+    private Boolean isBloodRelative;
+    private Boolean isDeceased;
+    private String avatarUrl;
+    private Integer depth;  // Steps from the nearest start member (0 without start members)
+}
@@ -0,0 +1,18 @@
+package com.lineagehub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MemberQueryResponse {
+    private Integer totalMatches;
+    private Boolean truncated;  // true when totalMatches exceeds the limit
+    private List<MemberQueryItemResponse> members;
+}
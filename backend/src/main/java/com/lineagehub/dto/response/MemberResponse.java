@@ -30,6 +30,11 @@ public class MemberResponse {
     private String avatarUrl;
     private Integer generation;
     private Boolean isDeceased;
+    private Integer descendantCount;        // Distinct descendants (excluding the member)
+    private Integer livingDescendantCount;
+    private Integer maxDescendantDepth;     // Generations below the member
+    private String relationToMe;            // Kinship term as seen from the current user's member, if linked
+    private Integer relationDistance;       // Parent, child and spouse steps of that relation
     private Boolean canEdit;  // Whether current user can edit this member
     private Instant createdAt;
     private Instant updatedAt;
@@ -0,0 +1,26 @@
+package com.lineagehub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NeighborMemberResponse {
+    private UUID id;
+    private String fullName;
+    private String gender;
+    private Integer birthYear;
+    private Integer deathYear;
+    private Integer generation;
+    private Boolean isBloodRelative;
+    private Boolean isDeceased;
+    private String avatarUrl;
+    private Integer distance;         // Parent, child and spouse steps from the center member
+    private Integer hiddenRelatives;  // Parents, children and spouses not in the response (expand from here)
+}
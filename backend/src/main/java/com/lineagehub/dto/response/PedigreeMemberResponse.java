@@ -0,0 +1,26 @@
+package com.lineagehub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PedigreeMemberResponse {
+    private UUID id;
+    private String fullName;
+    private String gender;
+    private Integer birthYear;
+    private Integer deathYear;
+    private Boolean isDeceased;
+    private String avatarUrl;
+    private Integer level;              // 0 = root member, 1 = parents, 2 = grandparents...
+    private List<UUID> parentIds;       // Only parents included in the response
+    private List<UUID> spouseIds;       // Only spouses included in the response
+}
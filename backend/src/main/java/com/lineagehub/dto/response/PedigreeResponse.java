@@ -0,0 +1,19 @@
+package com.lineagehub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PedigreeResponse {
+    private UUID rootMemberId;
+    private Integer generations;
+    private List<PedigreeMemberResponse> members;
+}
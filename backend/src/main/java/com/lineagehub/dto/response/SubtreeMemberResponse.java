@@ -0,0 +1,19 @@
+package com.lineagehub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubtreeMemberResponse {
+    private UUID id;
+    private String fullName;
+    private String gender;
+    private Integer depth;
+}
@@ -0,0 +1,20 @@
+package com.lineagehub.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubtreeResponse {
+    private MemberSummaryResponse rootMember;
+    private List<SubtreeMemberResponse> members;
+    private Long totalMembers;
+    private Integer maxDepth;
+    private String continuationToken;  // null on the last page
+}
@@ -19,6 +19,7 @@ public class UserResponse {
     private String email;
     private String fullName;
     private UserStatus status;
+    private UUID memberId;      // Member record of the user, null if not linked
     private List<UserRoleResponse> roles;
     private Instant createdAt;
     private Instant updatedAt;
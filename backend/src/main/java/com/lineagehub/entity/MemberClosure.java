@@ -0,0 +1,24 @@
+package com.lineagehub.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Ancestor/descendant pair of the PARENT_CHILD graph.
+ * depth = shortest number of generations from ancestor to descendant (0 for the member itself).
+ */
+@Entity
+@Table(name = "member_closure")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MemberClosure {
+    
+    @EmbeddedId
+    private MemberClosureId id;
+    
+    @Column(nullable = false)
+    private Integer depth;
+}
@@ -0,0 +1,23 @@
+package com.lineagehub.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.*;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Embeddable
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class MemberClosureId implements Serializable {
+    
+    @Column(name = "ancestor_id", nullable = false)
+    private UUID ancestorId;
+    
+    @Column(name = "descendant_id", nullable = false)
+    private UUID descendantId;
+}
@@ -44,6 +44,10 @@ public class User {
     @Column(name = "updated_at")
     private Instant updatedAt;
     
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "member_id")
+    private Member member;  // The user's own record in the tree, if linked
+    
     // Relationships
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @Builder.Default
@@ -80,6 +84,10 @@ public class User {
             .collect(Collectors.toList());
     }
     
+    public UUID getMemberId() {
+        return member != null ? member.getId() : null;
+    }
+    
     public boolean isActive() {
         return status == UserStatus.ACTIVE;
     }
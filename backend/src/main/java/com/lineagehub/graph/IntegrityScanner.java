@@ -0,0 +1,385 @@
+package com.lineagehub.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Checks the invariants of a raw relationship graph (rows as stored, duplicates and one-directional
+ * SPOUSE rows included). Members are dense ids 0..n-1 and relationship rows are edge indices.
+ * Connected components are found with union-find and checked in parallel on a fork-join pool;
+ * very large components are further split by member ranges for the per-member checks.
+ * Immutable once built, so tasks share the arrays without locking.
+ */
+public final class IntegrityScanner {
+
+    /**
+     * Value of an unknown birth day or generation
+     */
+    public static final int NONE = Integer.MIN_VALUE;
+
+    private static final int MAX_PARENTS = 2;
+    private static final int SEQUENTIAL_THRESHOLD = 4096;
+    private static final int MAX_CYCLE_MEMBERS = 100;
+
+    public enum AnomalyType {
+        TOO_MANY_PARENTS,
+        ONE_WAY_SPOUSE,
+        PARENT_CHILD_CYCLE,
+        CHILD_BORN_BEFORE_PARENT,
+        GENERATION_MISMATCH
+    }
+
+    /**
+     * One anomaly. members lists the dense ids involved (the checked member first), edge is the
+     * offending row or -1; values carry the numbers shown in the report (counts, generations...).
+     */
+    public record Finding(AnomalyType type, int[] members, int edge, int value1, int value2) {
+    }
+
+    public record Result(List<Finding> findings, int componentCount, int largestComponent) {
+    }
+
+    private final int memberCount;
+    private final int[] birthDays;
+    private final int[] generations;
+    private final boolean[] bloodRelative;
+    private final int[] edgeFrom;
+    private final int[] edgeTo;
+
+    // Compressed adjacency: edges of member u are edges[start[u]..start[u + 1])
+    private final int[] parentStart;
+    private final int[] parentEdges;
+    private final int[] childStart;
+    private final int[] childEdges;
+    private final int[] spouseStart;
+    private final int[] spouseEdges;
+
+    /**
+     * @param birthDays   epoch day of birth per member, or NONE
+     * @param generations   generation per member, or NONE
+     * @param bloodRelative blood-relative flag per member (in-laws false)
+     * @param spouse        true for SPOUSE rows, false for PARENT_CHILD rows (from = parent)
+     */
+    public IntegrityScanner(int memberCount, int[] birthDays, int[] generations, boolean[] bloodRelative,
+                            int[] edgeFrom, int[] edgeTo, boolean[] spouse) {
+        this.memberCount = memberCount;
+        this.birthDays = birthDays;
+        this.generations = generations;
+        this.bloodRelative = bloodRelative;
+        this.edgeFrom = edgeFrom;
+        this.edgeTo = edgeTo;
+
+        parentStart = new int[memberCount + 1];
+        childStart = new int[memberCount + 1];
+        spouseStart = new int[memberCount + 1];
+        for (int e = 0; e < edgeFrom.length; e++) {
+            if (spouse[e]) {
+                spouseStart[edgeFrom[e] + 1]++;
+            } else {
+                parentStart[edgeTo[e] + 1]++;
+                childStart[edgeFrom[e] + 1]++;
+            }
+        }
+        for (int u = 0; u < memberCount; u++) {
+            parentStart[u + 1] += parentStart[u];
+            childStart[u + 1] += childStart[u];
+            spouseStart[u + 1] += spouseStart[u];
+        }
+
+        parentEdges = new int[parentStart[memberCount]];
+        childEdges = new int[childStart[memberCount]];
+        spouseEdges = new int[spouseStart[memberCount]];
+        int[] parentFill = Arrays.copyOf(parentStart, memberCount);
+        int[] childFill = Arrays.copyOf(childStart, memberCount);
+        int[] spouseFill = Arrays.copyOf(spouseStart, memberCount);
+        for (int e = 0; e < edgeFrom.length; e++) {
+            if (spouse[e]) {
+                spouseEdges[spouseFill[edgeFrom[e]]++] = e;
+            } else {
+                parentEdges[parentFill[edgeTo[e]]++] = e;
+                childEdges[childFill[edgeFrom[e]]++] = e;
+            }
+        }
+    }
+
+    public Result scan(ForkJoinPool pool) {
+        // Components over all edges; members without any relationship cannot break an invariant
+        UnionFind sets = new UnionFind(memberCount);
+        for (int e = 0; e < edgeFrom.length; e++) {
+            sets.union(edgeFrom[e], edgeTo[e]);
+        }
+
+        int[] componentOf = new int[memberCount];
+        Arrays.fill(componentOf, -1);
+        int componentCount = 0;
+        int[] componentSizes = new int[memberCount + 1];
+        for (int u = 0; u < memberCount; u++) {
+            if (hasEdges(u)) {
+                int root = sets.find(u);
+                if (componentOf[root] < 0) {
+                    componentOf[root] = componentCount++;
+                }
+                componentSizes[componentOf[root] + 1]++;
+            }
+        }
+
+        // Members grouped by component: members[start[c]..start[c + 1])
+        int[] start = Arrays.copyOf(componentSizes, componentCount + 1);
+        int largest = 0;
+        for (int c = 0; c < componentCount; c++) {
+            largest = Math.max(largest, start[c + 1]);
+            start[c + 1] += start[c];
+        }
+        int[] members = new int[start[componentCount]];
+        int[] fill = Arrays.copyOf(start, componentCount);
+        for (int u = 0; u < memberCount; u++) {
+            if (hasEdges(u)) {
+                members[fill[componentOf[sets.find(u)]]++] = u;
+            }
+        }
+
+        // Scratch for cycle detection, indexed by member: components are disjoint so tasks never share a slot
+        int[] pending = new int[memberCount];
+        List<Finding> findings = pool.invoke(new ComponentsTask(members, start, 0, componentCount, pending));
+        return new Result(findings, componentCount, largest);
+    }
+
+    // ===== Checks =====
+
+    private void checkMember(int u, List<Finding> out) {
+        int parentCount = parentStart[u + 1] - parentStart[u];
+        if (parentCount > MAX_PARENTS) {
+            int[] involved = new int[parentCount + 1];
+            involved[0] = u;
+            for (int k = 0; k < parentCount; k++) {
+                involved[k + 1] = edgeFrom[parentEdges[parentStart[u] + k]];
+            }
+            out.add(new Finding(AnomalyType.TOO_MANY_PARENTS, involved, -1, parentCount, MAX_PARENTS));
+        }
+
+        for (int k = parentStart[u]; k < parentStart[u + 1]; k++) {
+            int e = parentEdges[k];
+            int parent = edgeFrom[e];
+            if (birthDays[u] != NONE && birthDays[parent] != NONE && birthDays[u] < birthDays[parent]) {
+                out.add(new Finding(AnomalyType.CHILD_BORN_BEFORE_PARENT, new int[]{u, parent}, e,
+                        birthDays[u], birthDays[parent]));
+            }
+        }
+        if (generations[u] != NONE) {
+            checkGeneration(u, out);
+        }
+
+        for (int k = spouseStart[u]; k < spouseStart[u + 1]; k++) {
+            int e = spouseEdges[k];
+            if (!hasSpouseRow(edgeTo[e], u)) {
+                out.add(new Finding(AnomalyType.ONE_WAY_SPOUSE, new int[]{u, edgeTo[e]}, e, 0, 0));
+            }
+        }
+    }
+
+    /**
+     * Generations follow the lineage parent (see GenerationService): a blood-relative parent, or any parent
+     * when none is one. The row order here is not the graph's, so the generation is consistent when it is one
+     * below any such parent; otherwise the mismatch is reported against the first of them.
+     */
+    private void checkGeneration(int u, List<Finding> out) {
+        boolean hasBloodParent = false;
+        for (int k = parentStart[u]; k < parentStart[u + 1]; k++) {
+            hasBloodParent |= bloodRelative[edgeFrom[parentEdges[k]]];
+        }
+
+        int mismatch = -1;
+        for (int k = parentStart[u]; k < parentStart[u + 1]; k++) {
+            int e = parentEdges[k];
+            int parent = edgeFrom[e];
+            if (hasBloodParent && !bloodRelative[parent] || generations[parent] == NONE) {
+                continue;
+            }
+            if (generations[u] == generations[parent] + 1) {
+                return;
+            }
+            if (mismatch < 0) {
+                mismatch = e;
+            }
+        }
+        if (mismatch >= 0) {
+            int parent = edgeFrom[mismatch];
+            out.add(new Finding(AnomalyType.GENERATION_MISMATCH, new int[]{u, parent}, mismatch,
+                    generations[u], generations[parent]));
+        }
+    }
+
+    private boolean hasSpouseRow(int from, int to) {
+        for (int k = spouseStart[from]; k < spouseStart[from + 1]; k++) {
+            if (edgeTo[spouseEdges[k]] == to) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Members of a component that lie on (or between) PARENT_CHILD cycles: what remains after repeatedly
+     * removing members without parents, then members without children
+     */
+    private void checkCycles(int[] members, int from, int to, int[] pending, List<Finding> out) {
+        int[] queue = new int[to - from];
+        int tail = 0;
+        for (int i = from; i < to; i++) {
+            int u = members[i];
+            pending[u] = parentStart[u + 1] - parentStart[u];
+            if (pending[u] == 0) {
+                queue[tail++] = u;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int u = queue[head];
+            for (int k = childStart[u]; k < childStart[u + 1]; k++) {
+                int child = edgeTo[childEdges[k]];
+                if (--pending[child] == 0) {
+                    queue[tail++] = child;
+                }
+            }
+        }
+        if (tail == to - from) {
+            return;
+        }
+
+        // Remaining members (pending > 0) are marked negative; then members that only lead out of the
+        // cycles are trimmed. pending = -(1 + children still remaining), 0 once trimmed.
+        int remaining = to - from - tail;
+        for (int i = from; i < to; i++) {
+            if (pending[members[i]] > 0) {
+                pending[members[i]] = -1;
+            }
+        }
+        tail = 0;
+        for (int i = from; i < to; i++) {
+            int u = members[i];
+            if (pending[u] < 0) {
+                for (int k = childStart[u]; k < childStart[u + 1]; k++) {
+                    if (pending[edgeTo[childEdges[k]]] < 0) {
+                        pending[u]--;
+                    }
+                }
+                if (pending[u] == -1) {
+                    queue[tail++] = u;
+                }
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int u = queue[head];
+            pending[u] = 0;
+            remaining--;
+            for (int k = parentStart[u]; k < parentStart[u + 1]; k++) {
+                int parent = edgeFrom[parentEdges[k]];
+                if (pending[parent] < -1 && ++pending[parent] == -1) {
+                    queue[tail++] = parent;
+                }
+            }
+        }
+
+        int[] involved = new int[Math.min(remaining, MAX_CYCLE_MEMBERS)];
+        int count = 0;
+        for (int i = from; i < to && count < involved.length; i++) {
+            if (pending[members[i]] < 0) {
+                involved[count++] = members[i];
+            }
+        }
+        out.add(new Finding(AnomalyType.PARENT_CHILD_CYCLE, involved, -1, remaining, 0));
+    }
+
+    private boolean hasEdges(int u) {
+        return parentStart[u + 1] > parentStart[u]
+                || childStart[u + 1] > childStart[u]
+                || spouseStart[u + 1] > spouseStart[u];
+    }
+
+    // ===== Tasks =====
+
+    /**
+     * Components [from, to): split in halves until a range is small or a single component
+     */
+    private final class ComponentsTask extends RecursiveTask<List<Finding>> {
+        private final int[] members;
+        private final int[] start;
+        private final int from;
+        private final int to;
+        private final int[] pending;
+
+        ComponentsTask(int[] members, int[] start, int from, int to, int[] pending) {
+            this.members = members;
+            this.start = start;
+            this.from = from;
+            this.to = to;
+            this.pending = pending;
+        }
+
+        @Override
+        protected List<Finding> compute() {
+            int size = start[to] - start[from];
+            if (to - from > 1 && size > SEQUENTIAL_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                ComponentsTask left = new ComponentsTask(members, start, from, mid, pending);
+                left.fork();
+                List<Finding> result = new ArrayList<>(new ComponentsTask(members, start, mid, to, pending).compute());
+                result.addAll(left.join());
+                return result;
+            }
+
+            List<Finding> result = new ArrayList<>();
+            if (size > SEQUENTIAL_THRESHOLD) {
+                // One large component: per-member checks in parallel, cycles in this thread
+                MembersTask checks = new MembersTask(members, start[from], start[to]);
+                checks.fork();
+                checkCycles(members, start[from], start[to], pending, result);
+                result.addAll(checks.join());
+                return result;
+            }
+
+            for (int c = from; c < to; c++) {
+                for (int i = start[c]; i < start[c + 1]; i++) {
+                    checkMember(members[i], result);
+                }
+                checkCycles(members, start[c], start[c + 1], pending, result);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Per-member checks over members[from, to)
+     */
+    private final class MembersTask extends RecursiveTask<List<Finding>> {
+        private final int[] members;
+        private final int from;
+        private final int to;
+
+        MembersTask(int[] members, int from, int to) {
+            this.members = members;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<Finding> compute() {
+            if (to - from > SEQUENTIAL_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                MembersTask left = new MembersTask(members, from, mid);
+                left.fork();
+                List<Finding> result = new ArrayList<>(new MembersTask(members, mid, to).compute());
+                result.addAll(left.join());
+                return result;
+            }
+
+            List<Finding> result = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                checkMember(members[i], result);
+            }
+            return result;
+        }
+    }
+}
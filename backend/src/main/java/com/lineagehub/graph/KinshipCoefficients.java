@@ -0,0 +1,172 @@
+package com.lineagehub.graph;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Kinship coefficients over the PARENT_CHILD edges of a KinshipGraph: the probability that an allele
+ * drawn at random from each of two members is identical by descent.
+ * Uses the recursion over a topological order (a member's parents come before it):
+ * phi(a, a) = (1 + phi(father, mother)) / 2, and for a != b with a later in the order,
+ * phi(a, b) = (phi(father of a, b) + phi(mother of a, b)) / 2, a missing parent contributing 0.
+ * Every pair is expanded once and memoized, so shared ancestors (pedigree collapse) are counted exactly
+ * without enumerating paths. Only the first two parents of a member are used.
+ * Bound to the graph version it was built from; coefficient() is safe for concurrent readers holding
+ * the graph read lock. The shared memo stops growing past MAX_MEMO_ENTRIES pairs.
+ */
+public final class KinshipCoefficients {
+
+    private static final int MAX_MEMO_ENTRIES = 2_000_000;
+
+    private final KinshipGraph graph;
+    private final int[] rank;
+    private final Map<Long, Double> memo = new ConcurrentHashMap<>();
+
+    public KinshipCoefficients(KinshipGraph graph) {
+        this.graph = graph;
+        this.rank = topologicalRanks(graph);
+    }
+
+    /**
+     * Kinship coefficient of two members (0.5 for a member with itself when not inbred),
+     * or 0 if either is not in the graph
+     */
+    public double coefficient(int a, int b) {
+        if (!graph.contains(a) || !graph.contains(b)) {
+            return 0;
+        }
+        Double known = memo.get(key(a, b));
+        if (known != null) {
+            return known;
+        }
+
+        // Depth-first over pairs with an explicit stack: a pair is computed once its dependencies are.
+        // New values go to a local map first so concurrent callers never see a partial computation.
+        Map<Long, Double> computed = new HashMap<>();
+        ArrayDeque<long[]> stack = new ArrayDeque<>();
+        stack.push(new long[]{a, b});
+        while (!stack.isEmpty()) {
+            long[] top = stack.peek();
+            int x = (int) top[0];
+            int y = (int) top[1];
+            if (lookup(x, y, computed) != null) {
+                stack.pop();
+                continue;
+            }
+
+            int[] dependencies = dependencies(x, y);
+            boolean ready = true;
+            for (int i = 0; i < dependencies.length; i += 2) {
+                if (dependencies[i] >= 0 && dependencies[i + 1] >= 0
+                        && lookup(dependencies[i], dependencies[i + 1], computed) == null) {
+                    stack.push(new long[]{dependencies[i], dependencies[i + 1]});
+                    ready = false;
+                }
+            }
+            if (!ready) {
+                continue;
+            }
+
+            stack.pop();
+            computed.put(key(x, y), combine(x, y, dependencies, computed));
+        }
+
+        double result = computed.get(key(a, b));
+        if (memo.size() + computed.size() <= MAX_MEMO_ENTRIES) {
+            memo.putAll(computed);
+        }
+        return result;
+    }
+
+    /**
+     * Size of the shared memo, for logging
+     */
+    public int memoSize() {
+        return memo.size();
+    }
+
+    private Double lookup(int x, int y, Map<Long, Double> computed) {
+        long pairKey = key(x, y);
+        Double value = memo.get(pairKey);
+        return value != null ? value : computed.get(pairKey);
+    }
+
+    /**
+     * Pairs (flattened) that phi(x, y) is computed from; -1 marks a missing parent
+     */
+    private int[] dependencies(int x, int y) {
+        if (x == y) {
+            return new int[]{parent(x, 0), parent(x, 1)};
+        }
+        // Expand the member that comes later in the order: it cannot be an ancestor of the other
+        int later = rank[x] > rank[y] || (rank[x] == rank[y] && x > y) ? x : y;
+        int other = later == x ? y : x;
+        return new int[]{parent(later, 0), other, parent(later, 1), other};
+    }
+
+    private double combine(int x, int y, int[] dependencies, Map<Long, Double> computed) {
+        if (x == y) {
+            double parentsKinship = dependencies[0] >= 0 && dependencies[1] >= 0
+                    ? lookup(dependencies[0], dependencies[1], computed)
+                    : 0;
+            return (1 + parentsKinship) / 2;
+        }
+
+        double sum = 0;
+        for (int i = 0; i < dependencies.length; i += 2) {
+            if (dependencies[i] >= 0) {
+                sum += lookup(dependencies[i], dependencies[i + 1], computed);
+            }
+        }
+        return sum / 2;
+    }
+
+    private int parent(int node, int k) {
+        if (rank[node] < 0) {
+            return -1;
+        }
+        return k < graph.parentCount(node) ? graph.parentAt(node, k) : -1;
+    }
+
+    private static long key(int a, int b) {
+        int low = Math.min(a, b);
+        int high = Math.max(a, b);
+        return ((long) high << 32) | (low & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Position of every member in a parents-first order (Kahn's algorithm)
+     */
+    private static int[] topologicalRanks(KinshipGraph g) {
+        int n = g.capacity();
+        int[] rank = new int[n];
+        Arrays.fill(rank, -1);
+        int[] pending = new int[n];
+        int[] queue = new int[Math.max(16, n)];
+        int tail = 0;
+        for (int node = 0; node < n; node++) {
+            if (g.contains(node)) {
+                pending[node] = g.parentCount(node);
+                if (pending[node] == 0) {
+                    queue[tail++] = node;
+                }
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int node = queue[head];
+            rank[node] = head;
+            for (int k = 0, c = g.childCount(node); k < c; k++) {
+                int child = g.childAt(node, k);
+                if (--pending[child] == 0) {
+                    queue[tail++] = child;
+                }
+            }
+        }
+        // Members on or below a PARENT_CHILD cycle (rejected on write, possible in imported data) keep
+        // rank -1 and are treated as founders, so the recursion always terminates
+        return rank;
+    }
+}
@@ -0,0 +1,798 @@
+package com.lineagehub.graph;
+
+import com.lineagehub.entity.enums.Gender;
+
+import java.util.*;
+
+/**
+ * In-memory kinship graph.
+ * Members are mapped to dense int ids, parent/child/spouse adjacency is kept in primitive arrays.
+ * Not thread-safe: access is guarded by KinshipGraphService.
+ */
+public class KinshipGraph {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * Birth day of a member without a known birth date
+     */
+    public static final int UNKNOWN_BIRTH_DAY = Integer.MIN_VALUE;
+
+    /**
+     * Generation of a member without a stored generation
+     */
+    public static final int UNKNOWN_GENERATION = Integer.MIN_VALUE;
+
+    /**
+     * Branch code of a member without a branch name
+     */
+    public static final int NO_BRANCH = 0;
+
+    // Rough JVM sizes (64-bit, compressed oops) used for footprint estimation
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int REFERENCE_BYTES = 4;
+    private static final int UUID_BYTES = 32;
+    private static final int HASH_ENTRY_BYTES = 32;
+
+    private final Map<UUID, Integer> indexById = new HashMap<>();
+    private UUID[] ids = new UUID[INITIAL_CAPACITY];
+    private final BitSet present = new BitSet();
+    private final BitSet bloodRelative = new BitSet();
+    private final BitSet deceased = new BitSet();
+    private Gender[] genders = new Gender[INITIAL_CAPACITY];
+    private int[] birthDays = new int[INITIAL_CAPACITY];
+    private int[] generations = new int[INITIAL_CAPACITY];
+    // Branch names are interned: branches[node] is an index into branchNames (NO_BRANCH for none)
+    private int[] branches = new int[INITIAL_CAPACITY];
+    private final List<String> branchNames = new ArrayList<>(List.of(""));
+    private final Map<String, Integer> branchCodes = new HashMap<>();
+    private int size;
+
+    private final Adjacency parents = new Adjacency();
+    private final Adjacency children = new Adjacency();
+    private final Adjacency spouses = new Adjacency();
+
+    private int parentChildEdges;
+    private int spouseEdges;
+
+    // Built on demand by buildLineageIndex(), then kept up to date by the mutators
+    private LineageIndex lineage;
+
+    // ===== Node management =====
+
+    /**
+     * Get dense id of a member, or -1 if the member is not in the graph
+     */
+    public int indexOf(UUID memberId) {
+        Integer index = indexById.get(memberId);
+        return index != null ? index : -1;
+    }
+
+    public UUID idOf(int node) {
+        return ids[node];
+    }
+
+    public boolean contains(int node) {
+        return node >= 0 && present.get(node);
+    }
+
+    /**
+     * Upper bound (exclusive) of dense ids, including removed slots
+     */
+    public int capacity() {
+        return size;
+    }
+
+    public int memberCount() {
+        return present.cardinality();
+    }
+
+    /**
+     * Dense ids of all members currently in the graph
+     */
+    public BitSet memberNodes() {
+        return (BitSet) present.clone();
+    }
+
+    /**
+     * Add member if absent and return its dense id
+     */
+    public int addMember(UUID memberId) {
+        Integer existing = indexById.get(memberId);
+        if (existing != null) {
+            return existing;
+        }
+
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            genders = Arrays.copyOf(genders, size * 2);
+            birthDays = Arrays.copyOf(birthDays, size * 2);
+            generations = Arrays.copyOf(generations, size * 2);
+            branches = Arrays.copyOf(branches, size * 2);
+        }
+
+        int node = size++;
+        ids[node] = memberId;
+        birthDays[node] = UNKNOWN_BIRTH_DAY;
+        generations[node] = UNKNOWN_GENERATION;
+        indexById.put(memberId, node);
+        present.set(node);
+        bloodRelative.set(node);
+        if (lineage != null) {
+            lineage.onMemberAdded(node);
+        }
+        return node;
+    }
+
+    /**
+     * Members are blood relatives unless marked otherwise (in-laws)
+     */
+    public void setBloodRelative(UUID memberId, boolean value) {
+        int node = addMember(memberId);
+        if (bloodRelative.get(node) == value) {
+            return;
+        }
+
+        bloodRelative.set(node, value);
+        if (lineage != null) {
+            for (int child : children.toArray(node)) {
+                lineage.onParentsChanged(child);
+            }
+        }
+    }
+
+    public boolean isBloodRelative(int node) {
+        return bloodRelative.get(node);
+    }
+
+    public void setDeceased(UUID memberId, boolean value) {
+        deceased.set(addMember(memberId), value);
+    }
+
+    public boolean isDeceased(int node) {
+        return deceased.get(node);
+    }
+
+    public void setGender(UUID memberId, Gender gender) {
+        genders[addMember(memberId)] = gender;
+    }
+
+    /**
+     * Gender of a member, or null if unknown
+     */
+    public Gender gender(int node) {
+        return genders[node];
+    }
+
+    /**
+     * @param epochDay birth date as epoch day, or UNKNOWN_BIRTH_DAY
+     */
+    public void setBirthDay(UUID memberId, int epochDay) {
+        birthDays[addMember(memberId)] = epochDay;
+    }
+
+    /**
+     * Birth date of a member as epoch day, or UNKNOWN_BIRTH_DAY
+     */
+    public int birthDay(int node) {
+        return birthDays[node];
+    }
+
+    public void setGeneration(UUID memberId, Integer generation) {
+        generations[addMember(memberId)] = generation != null ? generation : UNKNOWN_GENERATION;
+    }
+
+    /**
+     * Stored generation of a member, or UNKNOWN_GENERATION
+     */
+    public int generation(int node) {
+        return generations[node];
+    }
+
+    public void setBranchName(UUID memberId, String branchName) {
+        int node = addMember(memberId);
+        if (branchName == null || branchName.isBlank()) {
+            branches[node] = NO_BRANCH;
+            return;
+        }
+        branches[node] = branchCodes.computeIfAbsent(normalizeBranchName(branchName), key -> {
+            branchNames.add(branchName.trim());
+            return branchNames.size() - 1;
+        });
+    }
+
+    /**
+     * Branch code of a member, NO_BRANCH if it has no branch name
+     */
+    public int branch(int node) {
+        return branches[node];
+    }
+
+    /**
+     * Code of a branch name (case-insensitive), or -1 if no member has it
+     */
+    public int branchCode(String branchName) {
+        Integer code = branchCodes.get(normalizeBranchName(branchName));
+        return code != null ? code : -1;
+    }
+
+    private static String normalizeBranchName(String branchName) {
+        return branchName.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Remove member and all of its edges. The dense id is not reused.
+     */
+    public void removeMember(UUID memberId) {
+        int node = indexOf(memberId);
+        if (node < 0) {
+            return;
+        }
+
+        for (int parent : parents.toArray(node)) {
+            removeParentChild(parent, node);
+        }
+        for (int child : children.toArray(node)) {
+            removeParentChild(node, child);
+        }
+        for (int spouse : spouses.toArray(node)) {
+            removeSpouse(node, spouse);
+        }
+
+        indexById.remove(memberId);
+        present.clear(node);
+        deceased.clear(node);
+        genders[node] = null;
+        birthDays[node] = UNKNOWN_BIRTH_DAY;
+    }
+
+    // ===== Edge management =====
+
+    public boolean addParentChild(UUID parentId, UUID childId) {
+        int parent = addMember(parentId);
+        int child = addMember(childId);
+        if (children.contains(parent, child)) {
+            return false;
+        }
+
+        children.add(parent, child);
+        parents.add(child, parent);
+        parentChildEdges++;
+        if (lineage != null) {
+            lineage.onParentsChanged(child);
+        }
+        return true;
+    }
+
+    public boolean removeParentChild(UUID parentId, UUID childId) {
+        int parent = indexOf(parentId);
+        int child = indexOf(childId);
+        return parent >= 0 && child >= 0 && removeParentChild(parent, child);
+    }
+
+    private boolean removeParentChild(int parent, int child) {
+        if (!children.remove(parent, child)) {
+            return false;
+        }
+
+        parents.remove(child, parent);
+        parentChildEdges--;
+        if (lineage != null) {
+            lineage.onParentsChanged(child);
+        }
+        return true;
+    }
+
+    /**
+     * Spouse edges are stored in both directions
+     */
+    public boolean addSpouse(UUID memberId, UUID spouseId) {
+        int member = addMember(memberId);
+        int spouse = addMember(spouseId);
+        if (spouses.contains(member, spouse)) {
+            return false;
+        }
+
+        spouses.add(member, spouse);
+        spouses.add(spouse, member);
+        spouseEdges++;
+        return true;
+    }
+
+    public boolean removeSpouse(UUID memberId, UUID spouseId) {
+        int member = indexOf(memberId);
+        int spouse = indexOf(spouseId);
+        return member >= 0 && spouse >= 0 && removeSpouse(member, spouse);
+    }
+
+    private boolean removeSpouse(int member, int spouse) {
+        if (!spouses.remove(member, spouse)) {
+            return false;
+        }
+
+        spouses.remove(spouse, member);
+        spouseEdges--;
+        return true;
+    }
+
+    // ===== Adjacency access =====
+
+    public int parentCount(int node) {
+        return parents.count(node);
+    }
+
+    public int parentAt(int node, int k) {
+        return parents.get(node, k);
+    }
+
+    public int childCount(int node) {
+        return children.count(node);
+    }
+
+    public int childAt(int node, int k) {
+        return children.get(node, k);
+    }
+
+    public int spouseCount(int node) {
+        return spouses.count(node);
+    }
+
+    public int spouseAt(int node, int k) {
+        return spouses.get(node, k);
+    }
+
+    /**
+     * Kind of the edge going from one member to an adjacent one (see KinshipTerms), or 0 if not adjacent
+     */
+    public char step(int from, int to) {
+        if (parents.contains(from, to)) {
+            return KinshipTerms.UP;
+        }
+        if (children.contains(from, to)) {
+            return KinshipTerms.DOWN;
+        }
+        if (spouses.contains(from, to)) {
+            return KinshipTerms.SPOUSE;
+        }
+        return 0;
+    }
+
+    public int getParentChildEdgeCount() {
+        return parentChildEdges;
+    }
+
+    public int getSpouseEdgeCount() {
+        return spouseEdges;
+    }
+
+    // ===== Traversals =====
+
+    /**
+     * Subtree of a member: the root, all descendants, and spouses of every member reached.
+     * Spouses are included but their own children are not traversed.
+     */
+    public BitSet subtree(int root) {
+        return subtree(root, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Subtree of a member limited to maxDepth generations below the root
+     */
+    public BitSet subtree(int root, int maxDepth) {
+        BitSet result = new BitSet(size);
+        if (!contains(root)) {
+            return result;
+        }
+
+        BitSet queued = new BitSet(size);
+        int[] queue = new int[Math.max(16, size)];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = root;
+        queued.set(root);
+
+        int depth = 0;
+        int levelEnd = tail;
+        while (head < tail) {
+            if (head == levelEnd) {
+                depth++;
+                levelEnd = tail;
+            }
+            int current = queue[head++];
+            result.set(current);
+
+            if (depth < maxDepth) {
+                for (int k = 0, n = children.count(current); k < n; k++) {
+                    int child = children.get(current, k);
+                    if (!queued.get(child)) {
+                        queued.set(child);
+                        queue[tail++] = child;
+                    }
+                }
+            }
+
+            for (int k = 0, n = spouses.count(current); k < n; k++) {
+                result.set(spouses.get(current, k));
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Descendants of a member (including the root) up to maxDepth generations below it
+     */
+    public BitSet descendants(int root, int maxDepth) {
+        BitSet result = new BitSet(size);
+        if (!contains(root)) {
+            return result;
+        }
+
+        int[] frontier = {root};
+        int frontierSize = 1;
+        result.set(root);
+
+        for (int depth = 0; depth < maxDepth && frontierSize > 0; depth++) {
+            int[] next = new int[16];
+            int nextSize = 0;
+            for (int i = 0; i < frontierSize; i++) {
+                int current = frontier[i];
+                for (int k = 0, n = children.count(current); k < n; k++) {
+                    int child = children.get(current, k);
+                    if (!result.get(child)) {
+                        result.set(child);
+                        if (nextSize == next.length) {
+                            next = Arrays.copyOf(next, nextSize * 2);
+                        }
+                        next[nextSize++] = child;
+                    }
+                }
+            }
+            frontier = next;
+            frontierSize = nextSize;
+        }
+
+        return result;
+    }
+
+    /**
+     * Check whether ancestor is an ancestor of node (or the same member), with early exit
+     */
+    public boolean isAncestorOrSelf(int ancestor, int node) {
+        if (!contains(ancestor) || !contains(node)) {
+            return false;
+        }
+        if (ancestor == node) {
+            return true;
+        }
+
+        // Walk up from node: member has at most 2 parents, so ancestor sets are much smaller than subtrees
+        BitSet visited = new BitSet(size);
+        int[] stack = new int[16];
+        int top = 0;
+        stack[top++] = node;
+        visited.set(node);
+
+        while (top > 0) {
+            int current = stack[--top];
+            for (int k = 0, n = parents.count(current); k < n; k++) {
+                int parent = parents.get(current, k);
+                if (parent == ancestor) {
+                    return true;
+                }
+                if (!visited.get(parent)) {
+                    visited.set(parent);
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                    }
+                    stack[top++] = parent;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Shortest path between two members over parent, child and spouse edges (bidirectional BFS).
+     * Returns the dense ids from `from` to `to`, or null if they are not connected within maxLength edges.
+     */
+    public int[] shortestPath(int from, int to, int maxLength) {
+        if (!contains(from) || !contains(to)) {
+            return null;
+        }
+        if (from == to) {
+            return new int[]{from};
+        }
+
+        // Distance (in edges) from each side, -1 = not reached
+        int[] distFromStart = new int[size];
+        int[] distFromEnd = new int[size];
+        Arrays.fill(distFromStart, -1);
+        Arrays.fill(distFromEnd, -1);
+        distFromStart[from] = 0;
+        distFromEnd[to] = 0;
+
+        int[] startFrontier = {from};
+        int startSize = 1;
+        int[] endFrontier = {to};
+        int endSize = 1;
+        int startDepth = 0;
+        int endDepth = 0;
+        int[] buffer = new int[8];
+
+        while (startSize > 0 && endSize > 0 && startDepth + endDepth < maxLength) {
+            // Expand the smaller frontier by one full level
+            boolean forward = startSize <= endSize;
+            int[] frontier = forward ? startFrontier : endFrontier;
+            int frontierSize = forward ? startSize : endSize;
+            int[] dist = forward ? distFromStart : distFromEnd;
+            int[] otherDist = forward ? distFromEnd : distFromStart;
+            int nextDepth = (forward ? startDepth : endDepth) + 1;
+
+            int[] next = new int[16];
+            int nextSize = 0;
+            int meet = -1;
+
+            for (int i = 0; i < frontierSize; i++) {
+                int current = frontier[i];
+                buffer = neighbours(current, buffer);
+                for (int k = 1, n = buffer[0]; k <= n; k++) {
+                    int neighbour = buffer[k];
+                    if (dist[neighbour] >= 0) {
+                        continue;
+                    }
+                    dist[neighbour] = nextDepth;
+                    if (otherDist[neighbour] >= 0 && (meet < 0 || otherDist[neighbour] < otherDist[meet])) {
+                        meet = neighbour;
+                    }
+                    if (nextSize == next.length) {
+                        next = Arrays.copyOf(next, nextSize * 2);
+                    }
+                    next[nextSize++] = neighbour;
+                }
+            }
+
+            if (meet >= 0) {
+                return joinPath(meet, distFromStart, distFromEnd, buffer);
+            }
+
+            if (forward) {
+                startFrontier = next;
+                startSize = nextSize;
+                startDepth = nextDepth;
+            } else {
+                endFrontier = next;
+                endSize = nextSize;
+                endDepth = nextDepth;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Parents, children and spouses of a node; buffer[0] holds the count.
+     * Returns the buffer, grown if needed.
+     */
+    private int[] neighbours(int node, int[] buffer) {
+        int p = parents.count(node);
+        int c = children.count(node);
+        int s = spouses.count(node);
+        if (p + c + s + 1 > buffer.length) {
+            buffer = new int[p + c + s + 1];
+        }
+        int i = 0;
+        buffer[i++] = p + c + s;
+        for (int k = 0; k < p; k++) {
+            buffer[i++] = parents.get(node, k);
+        }
+        for (int k = 0; k < c; k++) {
+            buffer[i++] = children.get(node, k);
+        }
+        for (int k = 0; k < s; k++) {
+            buffer[i++] = spouses.get(node, k);
+        }
+        return buffer;
+    }
+
+    /**
+     * Rebuild the path through meet by walking down the distances of each side
+     */
+    private int[] joinPath(int meet, int[] distFromStart, int[] distFromEnd, int[] buffer) {
+        int[] path = new int[distFromStart[meet] + distFromEnd[meet] + 1];
+        path[distFromStart[meet]] = meet;
+
+        for (int node = meet, d = distFromStart[meet]; d > 0; d--) {
+            node = neighbourAtDistance(node, distFromStart, d - 1, buffer);
+            path[d - 1] = node;
+        }
+        for (int node = meet, d = distFromEnd[meet]; d > 0; d--) {
+            node = neighbourAtDistance(node, distFromEnd, d - 1, buffer);
+            path[path.length - d] = node;
+        }
+        return path;
+    }
+
+    private int neighbourAtDistance(int node, int[] dist, int distance, int[] buffer) {
+        buffer = neighbours(node, buffer);
+        for (int k = 1, n = buffer[0]; k <= n; k++) {
+            if (dist[buffer[k]] == distance) {
+                return buffer[k];
+            }
+        }
+        throw new IllegalStateException("Broken BFS distances at node " + node);
+    }
+
+    // ===== Lineage (blood-line forest) =====
+
+    /**
+     * Build the lowest-common-ancestor index; afterwards it is maintained incrementally
+     */
+    public void buildLineageIndex() {
+        lineage = new LineageIndex(this);
+    }
+
+    /**
+     * Lowest common lineage ancestor of two members (may be one of them), or -1 if none
+     */
+    public int lowestCommonAncestor(int a, int b) {
+        if (!contains(a) || !contains(b)) {
+            return -1;
+        }
+        return lineage().lowestCommonAncestor(a, b);
+    }
+
+    /**
+     * Generations between a member and the root of its lineage
+     */
+    public int lineageDepth(int node) {
+        return lineage().depthOf(node);
+    }
+
+    /**
+     * Lineage parent of a member, or -1 for a lineage root
+     */
+    public int lineageParent(int node) {
+        return lineage().parentOf(node);
+    }
+
+    /**
+     * Root (topmost lineage ancestor) of a member's lineage
+     */
+    public int lineageRoot(int node) {
+        return lineage().ancestorAtDepth(node, 0);
+    }
+
+    private LineageIndex lineage() {
+        if (lineage == null) {
+            throw new IllegalStateException("Lineage index has not been built");
+        }
+        return lineage;
+    }
+
+    public Set<UUID> toIds(BitSet nodes) {
+        Set<UUID> result = new HashSet<>(Math.max(16, nodes.cardinality() * 2));
+        for (int node = nodes.nextSetBit(0); node >= 0; node = nodes.nextSetBit(node + 1)) {
+            result.add(ids[node]);
+        }
+        return result;
+    }
+
+    // ===== Footprint =====
+
+    /**
+     * Estimated heap usage of the graph in bytes
+     */
+    public long estimatedBytes() {
+        long bytes = ARRAY_HEADER_BYTES + (long) ids.length * REFERENCE_BYTES;
+        bytes += 2 * ARRAY_HEADER_BYTES + (long) genders.length * REFERENCE_BYTES + (long) birthDays.length * Integer.BYTES;
+        bytes += 2 * ARRAY_HEADER_BYTES + (long) (generations.length + branches.length) * Integer.BYTES;
+        bytes += (long) indexById.size() * (UUID_BYTES + HASH_ENTRY_BYTES);
+        bytes += (present.size() + bloodRelative.size() + deceased.size()) / 8;
+        bytes += parents.estimatedBytes() + children.estimatedBytes() + spouses.estimatedBytes();
+        if (lineage != null) {
+            bytes += lineage.estimatedBytes();
+        }
+        return bytes;
+    }
+
+    public GraphStats stats() {
+        long bytes = estimatedBytes();
+        long edges = (long) parentChildEdges + spouseEdges;
+        long bytesPer100kEdges = edges > 0 ? bytes * 100_000L / edges : 0;
+        return new GraphStats(memberCount(), parentChildEdges, spouseEdges, bytes, bytesPer100kEdges);
+    }
+
+    public record GraphStats(int members,
+                             int parentChildEdges,
+                             int spouseEdges,
+                             long estimatedBytes,
+                             long bytesPer100kEdges) {
+    }
+
+    /**
+     * Growable int lists per node
+     */
+    private static final class Adjacency {
+
+        private static final int[] EMPTY = new int[0];
+
+        private int[][] lists = new int[INITIAL_CAPACITY][];
+        private int[] counts = new int[INITIAL_CAPACITY];
+
+        int count(int node) {
+            return node < counts.length ? counts[node] : 0;
+        }
+
+        int get(int node, int k) {
+            return lists[node][k];
+        }
+
+        boolean contains(int node, int value) {
+            int n = count(node);
+            int[] list = n > 0 ? lists[node] : EMPTY;
+            for (int k = 0; k < n; k++) {
+                if (list[k] == value) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void add(int node, int value) {
+            ensureNode(node);
+            int[] list = lists[node];
+            int n = counts[node];
+            if (list == null) {
+                list = new int[2];
+            } else if (n == list.length) {
+                list = Arrays.copyOf(list, n * 2);
+            }
+            list[n] = value;
+            lists[node] = list;
+            counts[node] = n + 1;
+        }
+
+        boolean remove(int node, int value) {
+            int n = count(node);
+            if (n == 0) {
+                return false;
+            }
+            int[] list = lists[node];
+            for (int k = 0; k < n; k++) {
+                if (list[k] == value) {
+                    // Keep insertion order (birth order of children matters to callers)
+                    System.arraycopy(list, k + 1, list, k, n - k - 1);
+                    counts[node] = n - 1;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int[] toArray(int node) {
+            int n = count(node);
+            return n > 0 ? Arrays.copyOf(lists[node], n) : EMPTY;
+        }
+
+        long estimatedBytes() {
+            long bytes = ARRAY_HEADER_BYTES + (long) lists.length * REFERENCE_BYTES;
+            bytes += ARRAY_HEADER_BYTES + (long) counts.length * Integer.BYTES;
+            for (int[] list : lists) {
+                if (list != null) {
+                    bytes += ARRAY_HEADER_BYTES + (long) list.length * Integer.BYTES;
+                }
+            }
+            return bytes;
+        }
+
+        private void ensureNode(int node) {
+            if (node >= lists.length) {
+                int capacity = Math.max(node + 1, lists.length * 2);
+                lists = Arrays.copyOf(lists, capacity);
+                counts = Arrays.copyOf(counts, capacity);
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.lineagehub.graph;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Published by KinshipGraphService after a change has been applied to the in-memory graph.
+ * nodes holds the dense ids of the members touched by the change (before and after it).
+ */
+public record KinshipGraphChangedEvent(Collection<UUID> memberIds, BitSet nodes, long version, boolean reloaded) {
+
+    public static KinshipGraphChangedEvent reloaded(long version) {
+        return new KinshipGraphChangedEvent(List.of(), new BitSet(), version, true);
+    }
+
+    /**
+     * Check if the change touches any of the given nodes
+     */
+    public boolean affects(BitSet members) {
+        return reloaded || nodes.intersects(members);
+    }
+}
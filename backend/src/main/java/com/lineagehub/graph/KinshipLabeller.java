@@ -0,0 +1,277 @@
+package com.lineagehub.graph;
+
+import com.lineagehub.entity.enums.Gender;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Labels every member connected to an ego with its Vietnamese kinship term, in one pass over the graph.
+ * Instead of a path search per member, relatives are reached in the order that decides their term:
+ * <ol>
+ *     <li>the ego's ancestors (fewest generations first), remembering the child on the ego's line;</li>
+ *     <li>the descendants of each ancestor that are not on the ego's line, which gives the closest common
+ *     ancestor, the side and the seniority of the branch;</li>
+ *     <li>the spouses of those blood relatives;</li>
+ *     <li>the blood family of the ego's spouses;</li>
+ *     <li>anyone else in the connected component, as relatives by marriage.</li>
+ * </ol>
+ * Each member and edge is visited a bounded number of times, so the cost is linear in the component size.
+ * Must be called under the graph read lock.
+ */
+public final class KinshipLabeller {
+
+    private static final byte BLOOD = 1;
+    private static final byte SPOUSE_OF = 2;
+    private static final byte SPOUSE_FAMILY = 3;
+    private static final byte AFFINE = 4;
+
+    private final KinshipGraph g;
+    private final int ego;
+
+    // Per member: how it was reached, then the relation shape the term is computed from
+    private final byte[] kind;
+    private final int[] distance;
+    private final int[] ups;
+    private final int[] downs;
+    private final int[] lineChild;     // ancestors: child on the way to the root of the pass
+    private final int[] line;          // ego's parent (ancestors, collaterals) or ego's child (descendants) on the path
+    private final int[] counterpart;   // ancestor of the root in the member's generation, or -1
+    private final byte[] seniority;
+    private final int[] relative;      // SPOUSE_OF: the blood relative; SPOUSE_FAMILY: the ego's spouse
+
+    // Members in the order they were reached
+    private final int[] order;
+    private int reached;
+
+    private KinshipLabeller(KinshipGraph g, int ego) {
+        this.g = g;
+        this.ego = ego;
+        int n = g.capacity();
+        kind = new byte[n];
+        distance = new int[n];
+        ups = new int[n];
+        downs = new int[n];
+        lineChild = new int[n];
+        line = new int[n];
+        counterpart = new int[n];
+        seniority = new byte[n];
+        relative = new int[n];
+        order = new int[n];
+    }
+
+    /**
+     * Terms and relation lengths of all members connected to ego
+     */
+    public static Labelling label(KinshipGraph g, int ego) {
+        return new KinshipLabeller(g, ego).run();
+    }
+
+    /**
+     * labels[node] is the term of the member as seen from the ego and distances[node] the number of
+     * parent, child and spouse steps of that relation; both are unset (null, -1) for unrelated members.
+     * Arrays are never modified after creation.
+     */
+    public record Labelling(int ego, String[] labels, int[] distances, BitSet related) {
+
+        public String labelOf(int node) {
+            return node >= 0 && node < labels.length ? labels[node] : null;
+        }
+
+        public int distanceOf(int node) {
+            return node >= 0 && node < distances.length ? distances[node] : -1;
+        }
+
+        public long estimatedBytes() {
+            return (long) labels.length * Integer.BYTES + (long) distances.length * Integer.BYTES + related.size() / 8;
+        }
+    }
+
+    private Labelling run() {
+        if (!g.contains(ego)) {
+            return new Labelling(ego, new String[0], new int[0], new BitSet());
+        }
+
+        visit(ego, BLOOD, 0);
+        bloodFamily(ego, BLOOD);
+
+        // Spouses of blood relatives (the ego's own spouses included)
+        int bloodReached = reached;
+        for (int i = 0; i < bloodReached; i++) {
+            int member = order[i];
+            for (int k = 0, c = g.spouseCount(member); k < c; k++) {
+                int spouse = g.spouseAt(member, k);
+                if (kind[spouse] == 0) {
+                    visit(spouse, SPOUSE_OF, distance[member] + 1);
+                    relative[spouse] = member;
+                }
+            }
+        }
+
+        // Blood family of the ego's spouses
+        for (int k = 0, c = g.spouseCount(ego); k < c; k++) {
+            int spouse = g.spouseAt(ego, k);
+            if (kind[spouse] == SPOUSE_OF && relative[spouse] == ego) {
+                int from = reached;
+                bloodFamily(spouse, SPOUSE_FAMILY);
+                for (int i = from; i < reached; i++) {
+                    relative[order[i]] = spouse;
+                }
+            }
+        }
+
+        // Everyone else in the component
+        for (int i = 0; i < reached; i++) {
+            int member = order[i];
+            affine(member, g.parentCount(member), 0);
+            affine(member, g.childCount(member), 1);
+            affine(member, g.spouseCount(member), 2);
+        }
+
+        return toLabelling();
+    }
+
+    /**
+     * Ancestors of root, then the descendants of each ancestor (root included) off the line leading to root
+     */
+    private void bloodFamily(int root, byte memberKind) {
+        // A spouse root keeps its SPOUSE_OF distance; the relation shapes below are relative to it
+        int base = distance[root];
+        ups[root] = 0;
+        downs[root] = 0;
+        lineChild[root] = -1;
+
+        // Ancestors in order of generations up; the root acts as ancestor 0 of its own descendants
+        int[] ancestors = new int[16];
+        int ancestorCount = 0;
+        ancestors[ancestorCount++] = root;
+        for (int head = 0; head < ancestorCount; head++) {
+            int member = ancestors[head];
+            for (int k = 0, c = g.parentCount(member); k < c; k++) {
+                int parent = g.parentAt(member, k);
+                if (kind[parent] != 0) {
+                    continue;
+                }
+                visit(parent, memberKind, base + ups[member] + 1);
+                ups[parent] = ups[member] + 1;
+                downs[parent] = 0;
+                lineChild[parent] = member;
+                line[parent] = member == root ? parent : line[member];
+                counterpart[parent] = -1;
+                if (ancestorCount == ancestors.length) {
+                    ancestors = Arrays.copyOf(ancestors, ancestorCount * 2);
+                }
+                ancestors[ancestorCount++] = parent;
+            }
+        }
+
+        // Descendants of each ancestor, closest ancestors first so that each member gets its closest common ancestor
+        for (int a = 0; a < ancestorCount; a++) {
+            int ancestor = ancestors[a];
+            int from = reached;
+            for (int k = 0, c = g.childCount(ancestor); k < c; k++) {
+                int child = g.childAt(ancestor, k);
+                if (kind[child] != 0) {
+                    continue;
+                }
+                visit(child, memberKind, base + ups[ancestor] + 1);
+                ups[child] = ups[ancestor];
+                downs[child] = 1;
+                if (ancestor == root) {
+                    line[child] = child;
+                    counterpart[child] = -1;
+                    seniority[child] = KinshipTerms.UNKNOWN_SENIORITY;
+                } else {
+                    line[child] = line[ancestor];
+                    counterpart[child] = lineChild[ancestor];
+                    seniority[child] = compareSeniority(child, lineChild[ancestor]);
+                }
+            }
+            for (int i = from; i < reached; i++) {
+                int member = order[i];
+                for (int k = 0, c = g.childCount(member); k < c; k++) {
+                    int child = g.childAt(member, k);
+                    if (kind[child] != 0) {
+                        continue;
+                    }
+                    visit(child, memberKind, distance[member] + 1);
+                    ups[child] = ups[member];
+                    downs[child] = downs[member] + 1;
+                    line[child] = line[member];
+                    // One generation down on the relative's side is one generation down on the root's line
+                    int next = counterpart[member];
+                    counterpart[child] = next >= 0 ? lineChild[next] : -1;
+                    seniority[child] = seniority[member];
+                }
+            }
+        }
+    }
+
+    private void affine(int member, int count, int edgeKind) {
+        for (int k = 0; k < count; k++) {
+            int other = switch (edgeKind) {
+                case 0 -> g.parentAt(member, k);
+                case 1 -> g.childAt(member, k);
+                default -> g.spouseAt(member, k);
+            };
+            if (kind[other] == 0) {
+                visit(other, AFFINE, distance[member] + 1);
+            }
+        }
+    }
+
+    private void visit(int member, byte memberKind, int memberDistance) {
+        kind[member] = memberKind;
+        distance[member] = memberDistance;
+        order[reached++] = member;
+    }
+
+    /**
+     * Seniority of a sibling compared to the sibling on the line, by birth date
+     */
+    private byte compareSeniority(int sibling, int onLine) {
+        int birthDay = g.birthDay(sibling);
+        int lineBirthDay = g.birthDay(onLine);
+        if (birthDay == KinshipGraph.UNKNOWN_BIRTH_DAY || lineBirthDay == KinshipGraph.UNKNOWN_BIRTH_DAY
+                || birthDay == lineBirthDay) {
+            return KinshipTerms.UNKNOWN_SENIORITY;
+        }
+        return birthDay < lineBirthDay ? (byte) KinshipTerms.OLDER : (byte) KinshipTerms.YOUNGER;
+    }
+
+    private Labelling toLabelling() {
+        int n = g.capacity();
+        String[] labels = new String[n];
+        int[] distances = new int[n];
+        Arrays.fill(distances, -1);
+        BitSet related = new BitSet(n);
+        // Terms repeat a lot: keep one instance of each
+        Map<String, String> terms = new HashMap<>();
+
+        for (int i = 0; i < reached; i++) {
+            int member = order[i];
+            String term = switch (kind[member]) {
+                case BLOOD -> KinshipTerms.bloodTerm(ups[member], downs[member], g.gender(member),
+                        genderOf(line[member]), genderOf(counterpart[member]), seniority[member]);
+                case SPOUSE_OF -> {
+                    int r = relative[member];
+                    yield KinshipTerms.spouseOfTerm(ups[r], downs[r], g.gender(member), g.gender(r),
+                            genderOf(line[r]), genderOf(counterpart[r]), seniority[r]);
+                }
+                case SPOUSE_FAMILY -> KinshipTerms.spouseFamilyTerm(ups[member], downs[member],
+                        g.gender(member), g.gender(relative[member]), seniority[member]);
+                default -> "họ hàng bên thông gia";
+            };
+            labels[member] = terms.computeIfAbsent(term, t -> t);
+            distances[member] = distance[member];
+            related.set(member);
+        }
+        return new Labelling(ego, labels, distances, related);
+    }
+
+    private Gender genderOf(int node) {
+        return node >= 0 ? g.gender(node) : null;
+    }
+}
@@ -0,0 +1,285 @@
+package com.lineagehub.graph;
+
+import com.lineagehub.entity.enums.Gender;
+
+/**
+ * Vietnamese kinship terms.
+ * label() names the end of a path, a sequence of steps (UP = to a parent, DOWN = to a child, SPOUSE = to a spouse)
+ * with the genders and birth dates of the members along it, index 0 being the ego.
+ * bloodTerm(), spouseOfTerm() and spouseFamilyTerm() name a relative from the shape of the relation computed by
+ * KinshipLabeller, including the side (nội/ngoại) and the seniority of the branch (bác vs chú, anh họ vs em họ).
+ */
+public final class KinshipTerms {
+
+    public static final char UP = 'U';
+    public static final char DOWN = 'D';
+    public static final char SPOUSE = 'S';
+
+    /**
+     * Seniority of the relative's branch compared to the ego's branch, decided by the birth dates of the two
+     * siblings where the branches split
+     */
+    public static final int OLDER = 1;
+    public static final int YOUNGER = -1;
+    public static final int UNKNOWN_SENIORITY = 0;
+
+    private KinshipTerms() {
+    }
+
+    /**
+     * Term for the last member of the path as seen from the first one.
+     * The relation shape (generations up and down, side, seniority of the branch) is read from the path and named
+     * by bloodTerm(), spouseOfTerm() or spouseFamilyTerm(), so a path gets the same term as KinshipLabeller gives.
+     *
+     * @param birthDays birth dates (epoch days, or KinshipGraph.UNKNOWN_BIRTH_DAY) of the members along the path
+     */
+    public static String label(char[] steps, Gender[] genders, int[] birthDays) {
+        int n = steps.length;
+        Gender target = genders[n];
+        if (n == 0) {
+            return "bản thân";
+        }
+
+        int ups = countLeading(steps, 0, UP);
+        int downs = countLeading(steps, ups, DOWN);
+
+        if (ups + downs == n) {
+            return bloodTerm(ups, downs, target, genders[1],
+                    counterpart(genders, 0, ups, downs), seniority(birthDays, 0, ups, downs));
+        }
+
+        // Spouse as the last step: in-laws of the blood relative before it
+        if (ups + downs == n - 1 && steps[n - 1] == SPOUSE) {
+            return spouseOfTerm(ups, downs, target, genders[n - 1], n > 1 ? genders[1] : null,
+                    counterpart(genders, 0, ups, downs), seniority(birthDays, 0, ups, downs));
+        }
+
+        // Blood relatives of the spouse
+        if (steps[0] == SPOUSE) {
+            int spouseUps = countLeading(steps, 1, UP);
+            int spouseDowns = countLeading(steps, 1 + spouseUps, DOWN);
+            if (1 + spouseUps + spouseDowns == n) {
+                return spouseFamilyTerm(spouseUps, spouseDowns, target, genders[1],
+                        seniority(birthDays, 1, spouseUps, spouseDowns));
+            }
+        }
+
+        return containsSpouse(steps) ? "họ hàng bên thông gia" : "họ hàng";
+    }
+
+    /**
+     * Description "<first> là <term> của <last>" for a path going from first to last
+     */
+    public static String describe(String firstName, String lastName, char[] steps, Gender[] genders, int[] birthDays) {
+        int n = steps.length;
+        char[] reversedSteps = new char[n];
+        Gender[] reversedGenders = new Gender[n + 1];
+        int[] reversedBirthDays = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            char step = steps[n - 1 - i];
+            reversedSteps[i] = step == UP ? DOWN : step == DOWN ? UP : step;
+        }
+        for (int i = 0; i <= n; i++) {
+            reversedGenders[i] = genders[n - i];
+            reversedBirthDays[i] = birthDays[n - i];
+        }
+        return firstName + " là " + label(reversedSteps, reversedGenders, reversedBirthDays) + " của " + lastName;
+    }
+
+    /**
+     * Term for a blood relative reached by going up ups generations to the closest common ancestor, then down downs.
+     *
+     * @param line        gender of the ego's parent on the way up, or of the ego's child on the way down (ups = 0)
+     * @param counterpart gender of the ego's ancestor in the relative's generation (relatives above the ego)
+     * @param seniority   OLDER if the relative's branch is senior to the ego's one
+     */
+    public static String bloodTerm(int ups, int downs, Gender target, Gender line, Gender counterpart, int seniority) {
+        if (ups == 0 && downs == 0) {
+            return "bản thân";
+        }
+        if (downs == 0) {
+            return switch (ups) {
+                case 1 -> pick(target, "cha", "mẹ", "cha/mẹ");
+                case 2 -> line == Gender.FEMALE
+                        ? pick(target, "ông ngoại", "bà ngoại", "ông/bà ngoại")
+                        : pick(target, "ông nội", "bà nội", "ông/bà nội");
+                case 3 -> pick(target, "cụ ông", "cụ bà", "cụ");
+                case 4 -> pick(target, "kỵ ông", "kỵ bà", "kỵ");
+                default -> "tổ tiên đời " + ups;
+            };
+        }
+        if (ups == 0) {
+            return switch (downs) {
+                case 1 -> pick(target, "con trai", "con gái", "con");
+                case 2 -> line == Gender.FEMALE ? "cháu ngoại" : "cháu nội";
+                case 3 -> "chắt";
+                case 4 -> "chít";
+                default -> "cháu đời " + downs;
+            };
+        }
+
+        String suffix = downs == 1 ? "" : " họ";
+        if (ups == downs) {
+            // Cousins follow the seniority of the branch, not their own age
+            if (seniority == OLDER) {
+                return pick(target, "anh", "chị", "anh/chị") + suffix;
+            }
+            if (seniority == YOUNGER) {
+                return ups == 1 ? pick(target, "em trai", "em gái", "em") : "em họ";
+            }
+            return pick(target, "anh/em trai", "chị/em gái", "anh chị em") + suffix;
+        }
+        if (ups > downs) {
+            String word = collateralWord(target, counterpart, seniority);
+            return switch (ups - downs) {
+                case 1 -> word + suffix;
+                case 2 -> pick(target, "ông ", "bà ", "ông/bà ") + word + suffix;
+                default -> "họ hàng bề trên";
+            };
+        }
+        if (downs == ups + 1) {
+            return ups == 1 ? "cháu" : "cháu họ";
+        }
+        return "họ hàng bề dưới";
+    }
+
+    /**
+     * Term for the spouse of a blood relative who is not a blood relative of the ego.
+     * The relation parameters are those of the blood relative, see bloodTerm().
+     */
+    public static String spouseOfTerm(int ups, int downs, Gender target, Gender relative,
+                                      Gender line, Gender counterpart, int seniority) {
+        if (ups == 0 && downs == 0) {
+            return pick(target, "chồng", "vợ", "vợ/chồng");
+        }
+        if (downs == 0) {
+            // Step-grandparents are addressed like grandparents
+            return ups == 1
+                    ? pick(target, "cha dượng", "mẹ kế", "cha dượng/mẹ kế")
+                    : bloodTerm(ups, 0, target, line, counterpart, seniority);
+        }
+        if (ups == 0) {
+            return downs == 1
+                    ? pick(target, "con rể", "con dâu", "con rể/con dâu")
+                    : pick(target, "cháu rể", "cháu dâu", "cháu rể/cháu dâu");
+        }
+
+        String suffix = downs == 1 ? "" : " họ";
+        if (ups == downs) {
+            if (seniority == OLDER) {
+                return pick(relative, "chị dâu", "anh rể", "anh chị dâu/rể") + suffix;
+            }
+            if (seniority == YOUNGER) {
+                return pick(relative, "em dâu", "em rể", "em dâu/rể") + suffix;
+            }
+            return pick(target, "anh/em rể", "chị/em dâu", "anh chị em dâu/rể") + suffix;
+        }
+        if (ups > downs) {
+            String word = switch (collateralWord(relative, counterpart, seniority)) {
+                case "chú" -> "thím";
+                case "cậu" -> "mợ";
+                case "cô", "dì" -> "chú";
+                case "chú/bác" -> "thím/bác";
+                default -> "bác";
+            };
+            return switch (ups - downs) {
+                case 1 -> word + suffix;
+                case 2 -> pick(target, "ông ", "bà ", "ông/bà ") + word + suffix;
+                default -> "họ hàng bên thông gia";
+            };
+        }
+        return pick(target, "cháu rể", "cháu dâu", "cháu rể/cháu dâu");
+    }
+
+    /**
+     * Term for a blood relative of the ego's spouse. The relation parameters are seen from the spouse.
+     */
+    public static String spouseFamilyTerm(int ups, int downs, Gender target, Gender spouse, int seniority) {
+        String side = spouse == Gender.MALE ? "chồng" : spouse == Gender.FEMALE ? "vợ" : "vợ/chồng";
+        if (ups == 1 && downs == 0) {
+            return pick(target, "bố ", "mẹ ", "bố mẹ ") + side;
+        }
+        if (ups == 2 && downs == 0) {
+            return pick(target, "ông", "bà", "ông/bà") + " bên " + side;
+        }
+        if (ups == 1 && downs == 1) {
+            if (seniority == OLDER) {
+                return pick(target, "anh ", "chị ", "anh/chị ") + side;
+            }
+            if (seniority == YOUNGER) {
+                return "em " + side;
+            }
+            return pick(target, "anh/em ", "chị/em ", "anh chị em ") + side;
+        }
+        if (ups == 0 && downs == 1) {
+            return "con riêng của " + side;
+        }
+        if (ups == 1 && downs == 2) {
+            return "cháu bên " + side;
+        }
+        return "họ hàng bên " + side;
+    }
+
+    /**
+     * bác for the senior branch; otherwise chú/cô on the father's side and cậu/dì on the mother's side
+     */
+    private static String collateralWord(Gender target, Gender counterpart, int seniority) {
+        if (seniority == OLDER) {
+            return "bác";
+        }
+        if (counterpart == Gender.FEMALE) {
+            return pick(target, "cậu", "dì", "cậu/dì");
+        }
+        return seniority == YOUNGER
+                ? pick(target, "chú", "cô", "chú/cô")
+                : pick(target, "chú/bác", "cô", "chú/bác/cô");
+    }
+
+    /**
+     * Gender of the ego's ancestor in the relative's generation, for the blood path starting at index from
+     */
+    private static Gender counterpart(Gender[] genders, int from, int ups, int downs) {
+        return downs > 0 && ups >= downs ? genders[from + ups - downs] : null;
+    }
+
+    /**
+     * Seniority of the relative's branch, for the blood path starting at index from: birth dates of the two
+     * children of the common ancestor on the path
+     */
+    private static int seniority(int[] birthDays, int from, int ups, int downs) {
+        if (ups == 0 || downs == 0) {
+            return UNKNOWN_SENIORITY;
+        }
+        int relativeSide = birthDays[from + ups + 1];
+        int lineSide = birthDays[from + ups - 1];
+        if (relativeSide == KinshipGraph.UNKNOWN_BIRTH_DAY || lineSide == KinshipGraph.UNKNOWN_BIRTH_DAY
+                || relativeSide == lineSide) {
+            return UNKNOWN_SENIORITY;
+        }
+        return relativeSide < lineSide ? OLDER : YOUNGER;
+    }
+
+    private static int countLeading(char[] steps, int from, char step) {
+        int count = 0;
+        while (from + count < steps.length && steps[from + count] == step) {
+            count++;
+        }
+        return count;
+    }
+
+    private static boolean containsSpouse(char[] steps) {
+        for (char step : steps) {
+            if (step == SPOUSE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String pick(Gender gender, String male, String female, String other) {
+        if (gender == Gender.MALE) {
+            return male;
+        }
+        return gender == Gender.FEMALE ? female : other;
+    }
+}
@@ -0,0 +1,229 @@
+package com.lineagehub.graph;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Lowest-common-ancestor index over the blood-line forest of a KinshipGraph.
+ * Every member keeps one lineage parent: its first blood-relative parent, or its first parent if none is.
+ * Uses skew-binary jump pointers (parent, jump, depth per member): adding a leaf is O(1),
+ * re-parenting recomputes the moved subtree, and queries take O(log depth) steps.
+ * Maintained by KinshipGraph; not thread-safe.
+ */
+final class LineageIndex {
+
+    private final KinshipGraph graph;
+
+    private int[] parent;
+    private int[] jump;
+    private int[] depth;
+
+    LineageIndex(KinshipGraph graph) {
+        this.graph = graph;
+        int capacity = Math.max(16, graph.capacity());
+        parent = new int[capacity];
+        jump = new int[capacity];
+        depth = new int[capacity];
+        rebuild();
+    }
+
+    /**
+     * Lineage parent of a member, or -1 for a lineage root (including the member where a parent cycle
+     * in the data is cut)
+     */
+    int parentOf(int node) {
+        return parent[node];
+    }
+
+    /**
+     * Number of generations between a member and the root of its lineage
+     */
+    int depthOf(int node) {
+        return depth[node];
+    }
+
+    /**
+     * Lowest common lineage ancestor of two members (may be one of them), or -1 if in different lineages
+     */
+    int lowestCommonAncestor(int a, int b) {
+        if (depth[a] > depth[b]) {
+            a = ancestorAtDepth(a, depth[b]);
+        } else if (depth[b] > depth[a]) {
+            b = ancestorAtDepth(b, depth[a]);
+        }
+
+        // Same depth: jump pointers of both nodes land on the same depth
+        while (a != b) {
+            if (parent[a] < 0) {
+                return -1;
+            }
+            if (jump[a] != jump[b]) {
+                a = jump[a];
+                b = jump[b];
+            } else {
+                a = parent[a];
+                b = parent[b];
+            }
+        }
+        return a;
+    }
+
+    int ancestorAtDepth(int node, int targetDepth) {
+        while (depth[node] > targetDepth) {
+            node = depth[jump[node]] >= targetDepth ? jump[node] : parent[node];
+        }
+        return node;
+    }
+
+    /**
+     * Called when a member is added to the graph
+     */
+    void onMemberAdded(int node) {
+        ensureCapacity(node + 1);
+        attach(node, -1);
+    }
+
+    /**
+     * Called when the parents (or the blood-relative flag of a parent) of a member may have changed
+     */
+    void onParentsChanged(int node) {
+        int newParent = chooseParent(node);
+        if (newParent >= 0 && isInLineage(newParent, node)) {
+            newParent = -1;  // The parent descends from the member: cut the cycle here
+        }
+        if (newParent != parent[node]) {
+            attach(node, newParent);
+            refreshDescendants(node);
+        }
+    }
+
+    private void rebuild() {
+        int n = graph.capacity();
+        Arrays.fill(parent, 0, n, -1);
+
+        // Attach nodes in BFS order from lineage roots so that parents are placed before children
+        int[] queue = new int[Math.max(16, n)];
+        int tail = 0;
+        for (int node = 0; node < n; node++) {
+            if (graph.contains(node)) {
+                int chosen = chooseParent(node);
+                parent[node] = chosen;
+                if (chosen < 0) {
+                    queue[tail++] = node;
+                }
+            }
+        }
+        BitSet attached = new BitSet(n);
+        tail = attachLineages(queue, 0, tail, attached);
+
+        // Members left are on a lineage-parent cycle or below one (imported data): walk up to the cycle
+        // and cut it there, making that member a root, so that the queries above always terminate
+        for (int node = 0; node < n; node++) {
+            if (graph.contains(node) && !attached.get(node)) {
+                BitSet walked = new BitSet();
+                int cut = node;
+                while (!walked.get(cut)) {
+                    walked.set(cut);
+                    cut = parent[cut];
+                }
+                parent[cut] = -1;
+                queue[tail] = cut;
+                tail = attachLineages(queue, tail, tail + 1, attached);
+            }
+        }
+    }
+
+    /**
+     * Attach queue[head..tail) and their lineage descendants not attached yet, returns the new tail
+     */
+    private int attachLineages(int[] queue, int head, int tail, BitSet attached) {
+        for (; head < tail; head++) {
+            int node = queue[head];
+            attach(node, parent[node]);
+            attached.set(node);
+            for (int k = 0, c = graph.childCount(node); k < c; k++) {
+                int child = graph.childAt(node, k);
+                if (parent[child] == node && !attached.get(child)) {
+                    queue[tail++] = child;
+                }
+            }
+        }
+        return tail;
+    }
+
+    /**
+     * Whether ancestor is node or one of its lineage ancestors (the index itself has no cycles)
+     */
+    private boolean isInLineage(int node, int ancestor) {
+        for (int current = node; current >= 0; current = parent[current]) {
+            if (current == ancestor) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void refreshDescendants(int root) {
+        int[] queue = new int[16];
+        BitSet visited = new BitSet();
+        int tail = 0;
+        queue[tail++] = root;
+        visited.set(root);
+        for (int head = 0; head < tail; head++) {
+            int node = queue[head];
+            if (node != root) {
+                attach(node, parent[node]);
+            }
+            for (int k = 0, c = graph.childCount(node); k < c; k++) {
+                int child = graph.childAt(node, k);
+                if (parent[child] == node && !visited.get(child)) {
+                    visited.set(child);
+                    if (tail == queue.length) {
+                        queue = Arrays.copyOf(queue, tail * 2);
+                    }
+                    queue[tail++] = child;
+                }
+            }
+        }
+    }
+
+    private void attach(int node, int p) {
+        parent[node] = p;
+        if (p < 0) {
+            depth[node] = 0;
+            jump[node] = node;
+            return;
+        }
+
+        depth[node] = depth[p] + 1;
+        int j = jump[p];
+        jump[node] = depth[p] - depth[j] == depth[j] - depth[jump[j]] ? jump[j] : p;
+    }
+
+    private int chooseParent(int node) {
+        int count = graph.parentCount(node);
+        if (count == 0) {
+            return -1;
+        }
+        for (int k = 0; k < count; k++) {
+            int candidate = graph.parentAt(node, k);
+            if (graph.isBloodRelative(candidate)) {
+                return candidate;
+            }
+        }
+        return graph.parentAt(node, 0);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > parent.length) {
+            int newCapacity = Math.max(capacity, parent.length * 2);
+            parent = Arrays.copyOf(parent, newCapacity);
+            jump = Arrays.copyOf(jump, newCapacity);
+            depth = Arrays.copyOf(depth, newCapacity);
+        }
+    }
+
+    long estimatedBytes() {
+        return 3L * (16 + (long) parent.length * Integer.BYTES);
+    }
+}
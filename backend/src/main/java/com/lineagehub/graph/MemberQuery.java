@@ -0,0 +1,240 @@
+package com.lineagehub.graph;
+
+import com.lineagehub.entity.enums.Gender;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Structured traversal query over the kinship graph: a start set, a direction with a depth range, and
+ * predicates on the member columns kept in the graph (all primitive arrays or bitsets, read by dense id).
+ * Evaluated in one breadth-first pass, so even queries over the whole tree take milliseconds.
+ * Must be run under the graph read lock.
+ *
+ * @param startIds  members to start from, or null for every member (direction NONE only)
+ * @param minDepth  first depth returned (0 = the start members themselves)
+ * @param maxDepth  last depth returned
+ */
+public record MemberQuery(Collection<UUID> startIds,
+                          Direction direction,
+                          int minDepth,
+                          int maxDepth,
+                          Predicates where) {
+
+    public static final int MAX_DEPTH = 500;
+    public static final int MIN_BIRTH_YEAR = 1;
+    public static final int MAX_BIRTH_YEAR = 9999;
+
+    private static final int BIRTH_KEY_BITS = 22;
+
+    public MemberQuery {
+        if (minDepth < 0 || maxDepth > MAX_DEPTH || minDepth > maxDepth) {
+            throw new IllegalArgumentException("Depth range must be within [0, " + MAX_DEPTH + "]");
+        }
+        if (startIds == null && direction != Direction.NONE) {
+            throw new IllegalArgumentException("A traversal needs start members");
+        }
+    }
+
+    public enum Direction {
+        NONE,           // The start members only
+        DESCENDANTS,    // Children, grandchildren...
+        ANCESTORS,      // Parents, grandparents...
+        SPOUSES         // Spouses (and their spouses at depth 2...)
+    }
+
+    /**
+     * Conditions on the members returned, all of them must hold; null fields don't filter.
+     * Birth years and generations are inclusive ranges.
+     */
+    public record Predicates(Gender gender,
+                             Boolean deceased,
+                             Boolean bloodRelative,
+                             Integer minGeneration,
+                             Integer maxGeneration,
+                             String branchName,
+                             Integer bornFrom,
+                             Integer bornTo,
+                             Integer minParents,
+                             Integer maxParents,
+                             Integer minChildren,
+                             Integer maxChildren,
+                             Boolean married) {
+
+        public static final Predicates NONE = new Predicates(null, null, null, null, null, null, null, null,
+                null, null, null, null, null);
+
+        public Predicates {
+            if (bornFrom != null && (bornFrom < MIN_BIRTH_YEAR || bornFrom > MAX_BIRTH_YEAR)
+                    || bornTo != null && (bornTo < MIN_BIRTH_YEAR || bornTo > MAX_BIRTH_YEAR)) {
+                throw new IllegalArgumentException(
+                        "Birth years must be within [" + MIN_BIRTH_YEAR + ", " + MAX_BIRTH_YEAR + "]");
+            }
+        }
+    }
+
+    /**
+     * Matching members (at most the limit) ordered by depth, then oldest first; depths[i] is the depth of
+     * nodes[i]. totalMatches counts every match, including those past the limit.
+     */
+    public record Result(int[] nodes, int[] depths, int totalMatches) {
+    }
+
+    public Result run(KinshipGraph g, int limit) {
+        Predicates p = where != null ? where : Predicates.NONE;
+        int branch = p.branchName() != null ? g.branchCode(p.branchName()) : KinshipGraph.NO_BRANCH;
+        if (branch < 0) {
+            return new Result(new int[0], new int[0], 0);   // No member has that branch
+        }
+        int bornFrom = p.bornFrom() != null
+                ? (int) LocalDate.of(p.bornFrom(), 1, 1).toEpochDay()
+                : Integer.MIN_VALUE;
+        int bornTo = p.bornTo() != null
+                ? (int) LocalDate.of(p.bornTo(), 12, 31).toEpochDay()
+                : Integer.MAX_VALUE;
+        Filter filter = new Filter(g, p, branch, bornFrom, bornTo);
+
+        int n = g.capacity();
+        int[] matches = new int[16];
+        int[] matchDepths = new int[16];
+        int matchCount = 0;
+
+        if (startIds == null) {
+            BitSet members = g.memberNodes();
+            for (int node = members.nextSetBit(0); node >= 0; node = members.nextSetBit(node + 1)) {
+                if (filter.test(node)) {
+                    if (matchCount == matches.length) {
+                        matches = Arrays.copyOf(matches, matchCount * 2);
+                        matchDepths = Arrays.copyOf(matchDepths, matchCount * 2);
+                    }
+                    matches[matchCount++] = node;
+                }
+            }
+        } else {
+            BitSet visited = new BitSet(n);
+            int[] queue = new int[Math.max(16, n)];
+            int tail = 0;
+            for (UUID startId : startIds) {
+                int node = g.indexOf(startId);
+                if (g.contains(node) && !visited.get(node)) {
+                    visited.set(node);
+                    queue[tail++] = node;
+                }
+            }
+
+            int head = 0;
+            for (int depth = 0; depth <= maxDepth && head < tail; depth++) {
+                int levelEnd = tail;
+                for (; head < levelEnd; head++) {
+                    int node = queue[head];
+                    if (depth >= minDepth && filter.test(node)) {
+                        if (matchCount == matches.length) {
+                            matches = Arrays.copyOf(matches, matchCount * 2);
+                            matchDepths = Arrays.copyOf(matchDepths, matchCount * 2);
+                        }
+                        matches[matchCount] = node;
+                        matchDepths[matchCount++] = depth;
+                    }
+                    if (depth == maxDepth) {
+                        continue;
+                    }
+                    for (int k = 0, c = neighbourCount(g, node); k < c; k++) {
+                        int next = neighbourAt(g, node, k);
+                        if (!visited.get(next)) {
+                            visited.set(next);
+                            queue[tail++] = next;
+                        }
+                    }
+                }
+            }
+        }
+
+        // Order by depth, then oldest first (unknown birth dates last), then as reached, sorting packed keys:
+        // depth (9 bits) | birth day (22 bits) | match index (32 bits)
+        long[] keys = new long[matchCount];
+        for (int i = 0; i < matchCount; i++) {
+            keys[i] = ((long) matchDepths[i] << 54) | ((long) birthKey(g.birthDay(matches[i])) << 32) | i;
+        }
+        Arrays.sort(keys);
+
+        int returned = Math.min(matchCount, Math.max(limit, 0));
+        int[] resultNodes = new int[returned];
+        int[] resultDepths = new int[returned];
+        for (int i = 0; i < returned; i++) {
+            int match = (int) keys[i];
+            resultNodes[i] = matches[match];
+            resultDepths[i] = matchDepths[match];
+        }
+        return new Result(resultNodes, resultDepths, matchCount);
+    }
+
+    private static long birthKey(int birthDay) {
+        int unknown = (1 << BIRTH_KEY_BITS) - 1;
+        if (birthDay == KinshipGraph.UNKNOWN_BIRTH_DAY) {
+            return unknown;
+        }
+        return Math.max(0, Math.min(unknown - 1, birthDay + (1 << (BIRTH_KEY_BITS - 1))));
+    }
+
+    private int neighbourCount(KinshipGraph g, int node) {
+        return switch (direction) {
+            case NONE -> 0;
+            case DESCENDANTS -> g.childCount(node);
+            case ANCESTORS -> g.parentCount(node);
+            case SPOUSES -> g.spouseCount(node);
+        };
+    }
+
+    private int neighbourAt(KinshipGraph g, int node, int k) {
+        return switch (direction) {
+            case NONE -> throw new IllegalStateException();
+            case DESCENDANTS -> g.childAt(node, k);
+            case ANCESTORS -> g.parentAt(node, k);
+            case SPOUSES -> g.spouseAt(node, k);
+        };
+    }
+
+    /**
+     * Predicates with the branch name and birth years resolved to column values
+     */
+    private record Filter(KinshipGraph g, Predicates p, int branch, int bornFrom, int bornTo) {
+
+        boolean test(int node) {
+            if (p.gender() != null && g.gender(node) != p.gender()) {
+                return false;
+            }
+            if (p.deceased() != null && g.isDeceased(node) != p.deceased()) {
+                return false;
+            }
+            if (p.bloodRelative() != null && g.isBloodRelative(node) != p.bloodRelative()) {
+                return false;
+            }
+            if (p.minGeneration() != null || p.maxGeneration() != null) {
+                int generation = g.generation(node);
+                if (generation == KinshipGraph.UNKNOWN_GENERATION
+                        || (p.minGeneration() != null && generation < p.minGeneration())
+                        || (p.maxGeneration() != null && generation > p.maxGeneration())) {
+                    return false;
+                }
+            }
+            if (branch != KinshipGraph.NO_BRANCH && g.branch(node) != branch) {
+                return false;
+            }
+            if (p.bornFrom() != null || p.bornTo() != null) {
+                int birthDay = g.birthDay(node);
+                if (birthDay == KinshipGraph.UNKNOWN_BIRTH_DAY || birthDay < bornFrom || birthDay > bornTo) {
+                    return false;
+                }
+            }
+            if (!inRange(g.parentCount(node), p.minParents(), p.maxParents())
+                    || !inRange(g.childCount(node), p.minChildren(), p.maxChildren())) {
+                return false;
+            }
+            return p.married() == null || (g.spouseCount(node) > 0) == p.married();
+        }
+
+        private static boolean inRange(int value, Integer min, Integer max) {
+            return (min == null || value >= min) && (max == null || value <= max);
+        }
+    }
+}
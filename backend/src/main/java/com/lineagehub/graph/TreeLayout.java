@@ -0,0 +1,104 @@
+package com.lineagehub.graph;
+
+import java.util.Arrays;
+
+/**
+ * Horizontal order of the members of a KinshipGraph, used to window large trees.
+ * Members get a column in a depth-first walk of the blood-line forest: a member, then the in-laws married
+ * to it, then the subtrees of its lineage children. Each member is reached once (through its lineage
+ * parent or the spouse it is attached to). Every subtree therefore occupies a contiguous
+ * column range starting at its root. Immutable snapshot of the graph it was computed from.
+ */
+public final class TreeLayout {
+
+    private final int[] columns;
+    private final int width;
+
+    private TreeLayout(int[] columns, int width) {
+        this.columns = columns;
+        this.width = width;
+    }
+
+    /**
+     * Compute the layout; requires the lineage index of the graph
+     */
+    public static TreeLayout compute(KinshipGraph g) {
+        int n = g.capacity();
+        int[] columns = new int[n];
+        Arrays.fill(columns, -1);
+
+        int[] stack = new int[Math.max(16, n)];
+        int width = 0;
+        // Second pass: members attached to a spouse within their own subtree, never reached otherwise
+        for (int pass = 0; pass < 2; pass++) {
+            for (int root = 0; root < n; root++) {
+                if (g.contains(root) && columns[root] < 0 && g.lineageParent(root) < 0
+                        && (pass == 1 || partnerOf(g, root) < 0)) {
+                    width = layoutSubtree(g, root, columns, stack, width);
+                }
+            }
+        }
+
+        return new TreeLayout(columns, width);
+    }
+
+    /**
+     * Assign consecutive columns to a subtree, starting at the given column; returns the next free column
+     */
+    private static int layoutSubtree(KinshipGraph g, int root, int[] columns, int[] stack, int width) {
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            int node = stack[--top];
+            columns[node] = width++;
+            // Pushed in reverse so that children are laid out in their stored order
+            for (int k = g.childCount(node) - 1; k >= 0; k--) {
+                int child = g.childAt(node, k);
+                if (g.lineageParent(child) == node && columns[child] < 0) {
+                    stack[top++] = child;
+                }
+            }
+            // Attached spouses on top: they come right after the member, with their own subtrees
+            for (int k = g.spouseCount(node) - 1; k >= 0; k--) {
+                int spouse = g.spouseAt(node, k);
+                if (partnerOf(g, spouse) == node && columns[spouse] < 0) {
+                    stack[top++] = spouse;
+                }
+            }
+        }
+        return width;
+    }
+
+    /**
+     * Column of a member, or -1 if it was not in the graph
+     */
+    public int columnOf(int node) {
+        return node >= 0 && node < columns.length ? columns[node] : -1;
+    }
+
+    /**
+     * Number of columns used
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * Member placed next to its spouse instead of starting its own tree: a lineage root married to a
+     * member who has a lineage parent, or an in-law founder married to a blood-relative founder.
+     * Returns that spouse, or -1.
+     */
+    private static int partnerOf(KinshipGraph g, int node) {
+        if (g.lineageParent(node) >= 0) {
+            return -1;
+        }
+        for (int k = 0, c = g.spouseCount(node); k < c; k++) {
+            int spouse = g.spouseAt(node, k);
+            if (g.lineageParent(spouse) >= 0
+                    || (g.isBloodRelative(spouse) && !g.isBloodRelative(node))) {
+                return spouse;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,72 @@
+package com.lineagehub.graph;
+
+import java.util.Arrays;
+
+/**
+ * Disjoint sets over dense ids 0..n-1 (union by size, path halving).
+ * Can grow to cover new ids, each starting as its own set. Not thread-safe.
+ */
+public final class UnionFind {
+
+    private int[] parent;
+    private int[] size;
+
+    public UnionFind(int n) {
+        parent = new int[n];
+        size = new int[n];
+        for (int i = 0; i < n; i++) {
+            parent[i] = i;
+            size[i] = 1;
+        }
+    }
+
+    /**
+     * Cover ids 0..n-1, new ids as singleton sets
+     */
+    public void ensureCapacity(int n) {
+        int old = parent.length;
+        if (n <= old) {
+            return;
+        }
+        parent = Arrays.copyOf(parent, Math.max(n, old * 2));
+        size = Arrays.copyOf(size, parent.length);
+        for (int i = old; i < parent.length; i++) {
+            parent[i] = i;
+            size[i] = 1;
+        }
+    }
+
+    public int find(int x) {
+        while (parent[x] != x) {
+            parent[x] = parent[parent[x]];
+            x = parent[x];
+        }
+        return x;
+    }
+
+    /**
+     * Merge the sets of a and b; returns false if they were already in the same set
+     */
+    public boolean union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) {
+            return false;
+        }
+        if (size[rootA] < size[rootB]) {
+            int tmp = rootA;
+            rootA = rootB;
+            rootB = tmp;
+        }
+        parent[rootB] = rootA;
+        size[rootA] += size[rootB];
+        return true;
+    }
+
+    /**
+     * Number of elements in the set of x
+     */
+    public int sizeOf(int x) {
+        return size[find(x)];
+    }
+}
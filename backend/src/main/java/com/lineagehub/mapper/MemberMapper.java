@@ -17,6 +17,11 @@ public interface MemberMapper {
     @Mapping(target = "deathYear", source = "deathDate.year", defaultExpression = "java(null)")
     @Mapping(target = "isDeceased", expression = "java(member.isDeceased())")
     @Mapping(target = "canEdit", ignore = true)  // Set manually in service
+    @Mapping(target = "descendantCount", ignore = true)  // Set from DescendantStatsService
+    @Mapping(target = "livingDescendantCount", ignore = true)
+    @Mapping(target = "maxDescendantDepth", ignore = true)
+    @Mapping(target = "relationToMe", ignore = true)  // Set from KinshipLabelService
+    @Mapping(target = "relationDistance", ignore = true)
     @Mapping(target = "createdBy", source = "createdBy")
     MemberResponse toResponse(Member member);
     
@@ -25,6 +30,11 @@ public interface MemberMapper {
     @Mapping(target = "isDeceased", expression = "java(member.isDeceased())")
     @Mapping(target = "canEdit", ignore = true)  // Set manually in service
     @Mapping(target = "relationships", ignore = true)  // Set manually in service
+    @Mapping(target = "descendantCount", ignore = true)  // Set from DescendantStatsService
+    @Mapping(target = "livingDescendantCount", ignore = true)
+    @Mapping(target = "maxDescendantDepth", ignore = true)
+    @Mapping(target = "relationToMe", ignore = true)  // Set from KinshipLabelService
+    @Mapping(target = "relationDistance", ignore = true)
     @Mapping(target = "createdBy", source = "createdBy")
     MemberDetailResponse toDetailResponse(Member member);
     
@@ -40,6 +50,7 @@ public interface MemberMapper {
     @Mapping(target = "relationshipsAsParent", ignore = true)
     @Mapping(target = "relationshipsAsChild", ignore = true)
     @Mapping(target = "avatarUrl", ignore = true)
+    @Mapping(target = "generation", ignore = true)  // Derived by GenerationService
     Member toEntity(CreateMemberRequest request);
     
     @Mapping(target = "id", ignore = true)
@@ -49,6 +60,7 @@ public interface MemberMapper {
     @Mapping(target = "relationshipsAsParent", ignore = true)
     @Mapping(target = "relationshipsAsChild", ignore = true)
     @Mapping(target = "avatarUrl", ignore = true)
+    @Mapping(target = "generation", ignore = true)  // Derived by GenerationService
     void updateEntityFromRequest(UpdateMemberRequest request, @MappingTarget Member member);
     
     default UserSummaryResponse mapCreatedBy(User user) {
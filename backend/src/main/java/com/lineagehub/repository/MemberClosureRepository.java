@@ -0,0 +1,98 @@
+package com.lineagehub.repository;
+
+import com.lineagehub.entity.MemberClosure;
+import com.lineagehub.entity.MemberClosureId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface MemberClosureRepository extends JpaRepository<MemberClosure, MemberClosureId> {
+    
+    boolean existsByIdAncestorIdAndIdDescendantId(UUID ancestorId, UUID descendantId);
+    
+    @Query("SELECT c.id.descendantId FROM MemberClosure c WHERE c.id.ancestorId = :ancestorId AND c.depth <= :maxDepth")
+    List<UUID> findDescendantIds(@Param("ancestorId") UUID ancestorId, @Param("maxDepth") int maxDepth);
+    
+    @Query("SELECT c.id.ancestorId FROM MemberClosure c WHERE c.id.descendantId = :descendantId AND c.depth <= :maxDepth")
+    List<UUID> findAncestorIds(@Param("descendantId") UUID descendantId, @Param("maxDepth") int maxDepth);
+    
+    @Query("SELECT c.id.descendantId FROM MemberClosure c WHERE c.id.ancestorId = :memberId AND c.depth = 1")
+    List<UUID> findChildIds(@Param("memberId") UUID memberId);
+    
+    @Modifying
+    @Query(value = "INSERT INTO member_closure (ancestor_id, descendant_id, depth) VALUES (:memberId, :memberId, 0) " +
+                   "ON CONFLICT (ancestor_id, descendant_id) DO NOTHING",
+           nativeQuery = true)
+    int insertSelf(@Param("memberId") UUID memberId);
+    
+    // New edge parent->child: every ancestor of parent reaches every descendant of child
+    @Modifying
+    @Query(value = """
+        INSERT INTO member_closure (ancestor_id, descendant_id, depth)
+        SELECT a.ancestor_id, d.descendant_id, a.depth + d.depth + 1
+        FROM member_closure a
+        CROSS JOIN member_closure d
+        WHERE a.descendant_id = :parentId
+        AND d.ancestor_id = :childId
+        ON CONFLICT (ancestor_id, descendant_id)
+        DO UPDATE SET depth = LEAST(member_closure.depth, EXCLUDED.depth)
+        """, nativeQuery = true)
+    int link(@Param("parentId") UUID parentId, @Param("childId") UUID childId);
+    
+    // Removed edge into the subtree of :rootId: drop every row entering the subtree from outside...
+    @Modifying
+    @Query(value = """
+        DELETE FROM member_closure mc
+        WHERE mc.descendant_id IN (SELECT s.descendant_id FROM member_closure s WHERE s.ancestor_id = :rootId)
+        AND mc.ancestor_id NOT IN (SELECT s.descendant_id FROM member_closure s WHERE s.ancestor_id = :rootId)
+        """, nativeQuery = true)
+    int deleteRowsEnteringSubtree(@Param("rootId") UUID rootId);
+    
+    // ...then re-derive them from the PARENT_CHILD edges that still enter the subtree
+    @Modifying
+    @Query(value = """
+        INSERT INTO member_closure (ancestor_id, descendant_id, depth)
+        SELECT a.ancestor_id, d.descendant_id, MIN(a.depth + d.depth + 1)
+        FROM relationships r
+        INNER JOIN member_closure a ON a.descendant_id = r.from_member_id
+        INNER JOIN member_closure d ON d.ancestor_id = r.to_member_id
+        WHERE r.relationship_type = 'PARENT_CHILD'
+        AND r.to_member_id IN (SELECT s.descendant_id FROM member_closure s WHERE s.ancestor_id = :rootId)
+        AND r.from_member_id NOT IN (SELECT s.descendant_id FROM member_closure s WHERE s.ancestor_id = :rootId)
+        GROUP BY a.ancestor_id, d.descendant_id
+        ON CONFLICT (ancestor_id, descendant_id)
+        DO UPDATE SET depth = LEAST(member_closure.depth, EXCLUDED.depth)
+        """, nativeQuery = true)
+    int rederiveRowsEnteringSubtree(@Param("rootId") UUID rootId);
+    
+    @Modifying
+    @Query(value = "DELETE FROM member_closure", nativeQuery = true)
+    int deleteAllRows();
+    
+    @Modifying
+    @Query(value = """
+        INSERT INTO member_closure (ancestor_id, descendant_id, depth)
+        WITH RECURSIVE paths AS (
+            SELECT m.id AS ancestor_id, m.id AS descendant_id, 0 AS depth
+            FROM members m
+            
+            UNION
+            
+            SELECT p.ancestor_id, r.to_member_id, p.depth + 1
+            FROM paths p
+            INNER JOIN relationships r ON r.from_member_id = p.descendant_id
+            WHERE r.relationship_type = 'PARENT_CHILD'
+            AND p.depth < 1000
+        )
+        SELECT ancestor_id, descendant_id, MIN(depth)
+        FROM paths
+        GROUP BY ancestor_id, descendant_id
+        """, nativeQuery = true)
+    int insertAllRows();
+}
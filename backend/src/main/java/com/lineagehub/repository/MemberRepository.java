@@ -2,16 +2,24 @@ package com.lineagehub.repository;
 
 import com.lineagehub.entity.Member;
 import com.lineagehub.entity.enums.Gender;
+import com.lineagehub.repository.projection.MemberGenerationView;
+import com.lineagehub.repository.projection.MemberIntegrityView;
+import com.lineagehub.repository.projection.MemberNodeView;
+import com.lineagehub.repository.projection.TreeNodeView;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface MemberRepository extends JpaRepository<Member, UUID> {
@@ -24,22 +32,100 @@ public interface MemberRepository extends JpaRepository<Member, UUID> {
     
     Page<Member> findByIsBloodRelative(Boolean isBloodRelative, Pageable pageable);
     
-    @Query("SELECT m FROM Member m WHERE " +
+    // createdBy is fetched with the page so mapping responses does not lazy-load one user per row.
+    // editableByUserId keeps the members in the subtrees managed by that user's BRANCH_ADMIN roles
+    // (descendants of a managed member in member_closure, and their spouses), so paging and counts
+    // only cover the editable set
+    @Query(value = "SELECT m FROM Member m LEFT JOIN FETCH m.createdBy WHERE " +
            "(:search IS NULL OR :search = '' OR LOWER(m.fullName) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
            "(:generation IS NULL OR m.generation = :generation) AND " +
            "(:gender IS NULL OR m.gender = :gender) AND " +
            "(:isBloodRelative IS NULL OR m.isBloodRelative = :isBloodRelative) AND " +
-           "(:isDeceased IS NULL OR (CASE WHEN m.deathDate IS NOT NULL THEN true ELSE false END) = :isDeceased)")
+           "(:isDeceased IS NULL OR (CASE WHEN m.deathDate IS NOT NULL THEN true ELSE false END) = :isDeceased) AND " +
+           "(:editableByUserId IS NULL OR EXISTS (SELECT 1 FROM UserRole ur, MemberClosure c " +
+           "WHERE ur.user.id = :editableByUserId AND ur.role = 'BRANCH_ADMIN' " +
+           "AND c.id.ancestorId = ur.managedMember.id AND c.id.descendantId = m.id) " +
+           "OR EXISTS (SELECT 1 FROM UserRole ur, MemberClosure c, Relationship r " +
+           "WHERE ur.user.id = :editableByUserId AND ur.role = 'BRANCH_ADMIN' " +
+           "AND c.id.ancestorId = ur.managedMember.id AND r.fromMember.id = m.id " +
+           "AND r.relationshipType = 'SPOUSE' AND c.id.descendantId = r.toMember.id))",
+           countQuery = "SELECT COUNT(m) FROM Member m WHERE " +
+           "(:search IS NULL OR :search = '' OR LOWER(m.fullName) LIKE LOWER(CONCAT('%', :search, '%'))) AND " +
+           "(:generation IS NULL OR m.generation = :generation) AND " +
+           "(:gender IS NULL OR m.gender = :gender) AND " +
+           "(:isBloodRelative IS NULL OR m.isBloodRelative = :isBloodRelative) AND " +
+           "(:isDeceased IS NULL OR (CASE WHEN m.deathDate IS NOT NULL THEN true ELSE false END) = :isDeceased) AND " +
+           "(:editableByUserId IS NULL OR EXISTS (SELECT 1 FROM UserRole ur, MemberClosure c " +
+           "WHERE ur.user.id = :editableByUserId AND ur.role = 'BRANCH_ADMIN' " +
+           "AND c.id.ancestorId = ur.managedMember.id AND c.id.descendantId = m.id) " +
+           "OR EXISTS (SELECT 1 FROM UserRole ur, MemberClosure c, Relationship r " +
+           "WHERE ur.user.id = :editableByUserId AND ur.role = 'BRANCH_ADMIN' " +
+           "AND c.id.ancestorId = ur.managedMember.id AND r.fromMember.id = m.id " +
+           "AND r.relationshipType = 'SPOUSE' AND c.id.descendantId = r.toMember.id))")
     Page<Member> findByFilters(@Param("search") String search,
                                 @Param("generation") Integer generation,
                                 @Param("gender") Gender gender,
                                 @Param("isBloodRelative") Boolean isBloodRelative,
                                 @Param("isDeceased") Boolean isDeceased,
+                                @Param("editableByUserId") UUID editableByUserId,
                                 Pageable pageable);
     
     @Query("SELECT m FROM Member m WHERE m.id IN :ids")
     List<Member> findAllByIds(@Param("ids") Set<UUID> ids);
     
+    @Query("SELECT m.id AS id, m.isBloodRelative AS isBloodRelative, " +
+           "CASE WHEN m.deathDate IS NOT NULL THEN true ELSE false END AS isDeceased, " +
+           "m.gender AS gender, m.birthDate AS birthDate, m.generation AS generation, " +
+           "m.branchName AS branchName FROM Member m")
+    List<MemberNodeView> findAllNodes();
+    
+    @Query("SELECT m.id FROM Member m WHERE m.generation BETWEEN :fromGeneration AND :toGeneration")
+    List<UUID> findIdsByGenerationBetween(@Param("fromGeneration") int fromGeneration,
+                                          @Param("toGeneration") int toGeneration);
+    
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "5000"))
+    @Query("SELECT m.id AS id, m.birthDate AS birthDate, m.generation AS generation, " +
+           "m.isBloodRelative AS isBloodRelative FROM Member m")
+    Stream<MemberIntegrityView> streamIntegrityColumns();
+    
+    @Query("SELECT m.id AS id, m.generation AS generation FROM Member m")
+    List<MemberGenerationView> findAllGenerations();
+    
+    // Bulk write of derived generations; rows already holding the value are left untouched
+    @Modifying
+    @Query(value = """
+        UPDATE members m SET generation = v.generation
+        FROM unnest(CAST(:ids AS uuid[]), CAST(:generations AS integer[])) AS v(id, generation)
+        WHERE m.id = v.id AND m.generation IS DISTINCT FROM v.generation
+        """, nativeQuery = true)
+    int updateGenerations(@Param("ids") UUID[] ids, @Param("generations") Integer[] generations);
+    
+    // Tree nodes (streamed with a server-side cursor, must be consumed inside a transaction)
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query(value = """
+        SELECT m.id AS "id", m.full_name AS "fullName", m.gender AS "gender",
+               CAST(EXTRACT(YEAR FROM m.birth_date) AS INTEGER) AS "birthYear",
+               CAST(EXTRACT(YEAR FROM m.death_date) AS INTEGER) AS "deathYear",
+               m.avatar_url AS "avatarUrl", m.generation AS "generation",
+               m.is_blood_relative AS "isBloodRelative", m.branch_name AS "branchName",
+               (m.death_date IS NOT NULL) AS "isDeceased"
+        FROM members m
+        WHERE m.id = ANY(:ids)
+        """, nativeQuery = true)
+    Stream<TreeNodeView> streamTreeNodesByIds(@Param("ids") UUID[] ids);
+    
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query(value = """
+        SELECT m.id AS "id", m.full_name AS "fullName", m.gender AS "gender",
+               CAST(EXTRACT(YEAR FROM m.birth_date) AS INTEGER) AS "birthYear",
+               CAST(EXTRACT(YEAR FROM m.death_date) AS INTEGER) AS "deathYear",
+               m.avatar_url AS "avatarUrl", m.generation AS "generation",
+               m.is_blood_relative AS "isBloodRelative", m.branch_name AS "branchName",
+               (m.death_date IS NOT NULL) AS "isDeceased"
+        FROM members m
+        """, nativeQuery = true)
+    Stream<TreeNodeView> streamAllTreeNodes();
+    
     // Full-text search query
     @Query(value = "SELECT * FROM members m WHERE " +
            "to_tsvector('simple', m.full_name || ' ' || COALESCE(m.branch_name, '') || ' ' || COALESCE(m.notes, '')) " +
@@ -2,13 +2,19 @@ package com.lineagehub.repository;
 
 import com.lineagehub.entity.Relationship;
 import com.lineagehub.entity.enums.RelationshipType;
+import com.lineagehub.repository.projection.FamilyNodeView;
+import com.lineagehub.repository.projection.RelationshipEdgeView;
+import com.lineagehub.repository.projection.RelationshipRowView;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface RelationshipRepository extends JpaRepository<Relationship, UUID> {
@@ -25,6 +31,8 @@ public interface RelationshipRepository extends JpaRepository<Relationship, UUID
     
     boolean existsByFromMemberIdOrToMemberId(UUID fromMemberId, UUID toMemberId);
     
+    long countByFromMemberIdAndRelationshipType(UUID fromMemberId, RelationshipType type);
+    
     // Get all parent-child relationships for a member
     @Query("SELECT r FROM Relationship r WHERE r.toMember.id = :memberId AND r.relationshipType = 'PARENT_CHILD'")
     List<Relationship> findParentsByMemberId(@Param("memberId") UUID memberId);
@@ -36,6 +44,59 @@ public interface RelationshipRepository extends JpaRepository<Relationship, UUID
     @Query("SELECT r FROM Relationship r WHERE (r.fromMember.id = :memberId OR r.toMember.id = :memberId) AND r.relationshipType = 'SPOUSE'")
     List<Relationship> findSpousesByMemberId(@Param("memberId") UUID memberId);
     
+    // Children (one page, ordered by birth date) and spouses (first page only) of a member with their
+    // member columns and child/spouse counts, in one query instead of loading toMember per row
+    @Query(value = """
+        WITH kin AS (
+            SELECT 'CHILD' AS kind, r.id AS relationship_id, r.to_member_id AS member_id
+            FROM relationships r
+            WHERE r.from_member_id = :memberId AND r.relationship_type = 'PARENT_CHILD'
+            
+            UNION ALL
+            
+            -- Spouse rows are stored in both directions: the outgoing one gives each spouse once
+            SELECT 'SPOUSE', r.id, r.to_member_id
+            FROM relationships r
+            WHERE r.from_member_id = :memberId AND r.relationship_type = 'SPOUSE'
+        ),
+        ranked AS (
+            SELECT k.kind, k.relationship_id, m.*,
+                   ROW_NUMBER() OVER (PARTITION BY k.kind ORDER BY m.birth_date NULLS LAST, m.full_name, m.id) AS rn,
+                   COUNT(*) FILTER (WHERE k.kind = 'CHILD') OVER () AS total_children
+            FROM kin k
+            INNER JOIN members m ON m.id = k.member_id
+        )
+        SELECT p.kind AS "kind", p.relationship_id AS "relationshipId", p.id AS "id",
+               p.full_name AS "fullName", p.gender AS "gender",
+               CAST(EXTRACT(YEAR FROM p.birth_date) AS INTEGER) AS "birthYear",
+               CAST(EXTRACT(YEAR FROM p.death_date) AS INTEGER) AS "deathYear",
+               p.is_blood_relative AS "isBloodRelative", (p.death_date IS NOT NULL) AS "isDeceased",
+               p.avatar_url AS "avatarUrl",
+               (SELECT COUNT(*) FROM relationships c
+                WHERE c.from_member_id = p.id AND c.relationship_type = 'PARENT_CHILD') AS "childCount",
+               (SELECT COUNT(*) FROM relationships s
+                WHERE s.from_member_id = p.id AND s.relationship_type = 'SPOUSE') AS "spouseCount",
+               p.total_children AS "totalChildren"
+        FROM ranked p
+        WHERE (p.kind = 'SPOUSE' AND :offset = 0)
+           OR (p.kind = 'CHILD' AND p.rn > :offset AND p.rn <= :offset + :limit)
+        ORDER BY p.kind DESC, p.rn
+        """, nativeQuery = true)
+    List<FamilyNodeView> findFamilyPage(@Param("memberId") UUID memberId,
+                                        @Param("offset") int offset,
+                                        @Param("limit") int limit);
+    
+    // All edges without loading member entities (used to build the in-memory kinship graph)
+    @Query("SELECT r.fromMember.id AS fromMemberId, r.toMember.id AS toMemberId, " +
+           "r.relationshipType AS relationshipType FROM Relationship r")
+    List<RelationshipEdgeView> findAllEdges();
+    
+    // Every row as stored, including duplicates and one-directional spouse rows (integrity scan)
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "5000"))
+    @Query("SELECT r.id AS id, r.fromMember.id AS fromMemberId, r.toMember.id AS toMemberId, " +
+           "r.relationshipType AS relationshipType FROM Relationship r")
+    Stream<RelationshipRowView> streamAllRows();
+    
     // Get descendants (recursive) - using native query with CTE
     @Query(value = """
         WITH RECURSIVE descendants AS (
@@ -56,30 +117,6 @@ public interface RelationshipRepository extends JpaRepository<Relationship, UUID
         """, nativeQuery = true)
     List<UUID> findDescendantIds(@Param("rootMemberId") UUID rootMemberId, @Param("maxDepth") int maxDepth);
     
-    // Get subtree including spouses - more complex query
-    @Query(value = """
-        WITH RECURSIVE subtree AS (
-            SELECT m.id, m.is_blood_relative, 0 AS depth
-            FROM members m
-            WHERE m.id = :rootMemberId
-            
-            UNION
-            
-            SELECT m.id, m.is_blood_relative, s.depth + 1
-            FROM members m
-            INNER JOIN relationships r ON r.to_member_id = m.id
-            INNER JOIN subtree s ON r.from_member_id = s.id
-            WHERE (
-                (r.relationship_type = 'PARENT_CHILD' AND s.is_blood_relative = true)
-                OR r.relationship_type = 'SPOUSE'
-            )
-            AND s.depth < :maxDepth
-            AND m.id NOT IN (SELECT id FROM subtree)
-        )
-        SELECT id FROM subtree
-        """, nativeQuery = true)
-    List<UUID> findSubtreeIdsIncludingSpouses(@Param("rootMemberId") UUID rootMemberId, @Param("maxDepth") int maxDepth);
-    
     // Delete all relationships for a member
     void deleteByFromMemberIdOrToMemberId(UUID fromMemberId, UUID toMemberId);
 }
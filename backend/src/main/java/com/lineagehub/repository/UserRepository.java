@@ -19,6 +19,9 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     
     boolean existsByEmail(String email);
     
+    @Query("SELECT COUNT(u) > 0 FROM User u WHERE u.member.id = :memberId AND u.id <> :userId")
+    boolean isMemberLinkedToOtherUser(@Param("memberId") UUID memberId, @Param("userId") UUID userId);
+    
     Page<User> findByStatus(UserStatus status, Pageable pageable);
     
     @Query("SELECT u FROM User u WHERE " +
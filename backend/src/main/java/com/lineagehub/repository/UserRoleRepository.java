@@ -2,6 +2,7 @@ package com.lineagehub.repository;
 
 import com.lineagehub.entity.UserRole;
 import com.lineagehub.entity.enums.Role;
+import com.lineagehub.repository.projection.BranchAssignmentView;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -20,6 +21,19 @@ public interface UserRoleRepository extends JpaRepository<UserRole, UUID> {
     @Query("SELECT ur.managedMember.id FROM UserRole ur WHERE ur.user.id = :userId AND ur.role = 'BRANCH_ADMIN' AND ur.managedMember IS NOT NULL")
     List<UUID> findManagedMemberIdsByUserId(@Param("userId") UUID userId);
     
+    @Query("SELECT ur.user.id AS userId, ur.managedMember.id AS managedMemberId FROM UserRole ur WHERE ur.role = 'BRANCH_ADMIN' AND ur.managedMember IS NOT NULL")
+    List<BranchAssignmentView> findAllBranchAssignments();
+    
+    // Permission checks of AuthorizationService evaluated by the database functions of migration V6
+    @Query(value = "SELECT can_edit_member(:userId, :memberId)", nativeQuery = true)
+    boolean canEditMember(@Param("userId") UUID userId, @Param("memberId") UUID memberId);
+    
+    @Query(value = "SELECT can_edit_relationship(:userId, :fromMemberId, :toMemberId, :relationshipType)", nativeQuery = true)
+    boolean canEditRelationship(@Param("userId") UUID userId,
+                                @Param("fromMemberId") UUID fromMemberId,
+                                @Param("toMemberId") UUID toMemberId,
+                                @Param("relationshipType") String relationshipType);
+    
     boolean existsByUserIdAndRole(UUID userId, Role role);
     
     boolean existsByUserIdAndRoleAndManagedMemberId(UUID userId, Role role, UUID managedMemberId);
@@ -0,0 +1,11 @@
+package com.lineagehub.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * A BRANCH_ADMIN role: the user and the root of the subtree it manages
+ */
+public interface BranchAssignmentView {
+    UUID getUserId();
+    UUID getManagedMemberId();
+}
@@ -0,0 +1,23 @@
+package com.lineagehub.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Child or spouse of a member with its own child/spouse counts.
+ * kind is CHILD or SPOUSE; totalChildren counts all children of the expanded member.
+ */
+public interface FamilyNodeView {
+    String getKind();
+    UUID getRelationshipId();
+    UUID getId();
+    String getFullName();
+    String getGender();
+    Integer getBirthYear();
+    Integer getDeathYear();
+    Boolean getIsBloodRelative();
+    Boolean getIsDeceased();
+    String getAvatarUrl();
+    Long getChildCount();
+    Long getSpouseCount();
+    Long getTotalChildren();
+}
@@ -0,0 +1,8 @@
+package com.lineagehub.repository.projection;
+
+import java.util.UUID;
+
+public interface MemberGenerationView {
+    UUID getId();
+    Integer getGeneration();
+}
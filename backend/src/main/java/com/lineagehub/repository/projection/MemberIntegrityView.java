@@ -0,0 +1,14 @@
+package com.lineagehub.repository.projection;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Member columns checked by the integrity scan
+ */
+public interface MemberIntegrityView {
+    UUID getId();
+    LocalDate getBirthDate();
+    Integer getGeneration();
+    Boolean getIsBloodRelative();
+}
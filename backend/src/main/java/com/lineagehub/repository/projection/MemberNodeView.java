@@ -0,0 +1,19 @@
+package com.lineagehub.repository.projection;
+
+import com.lineagehub.entity.enums.Gender;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Member columns kept in the in-memory kinship graph
+ */
+public interface MemberNodeView {
+    UUID getId();
+    Boolean getIsBloodRelative();
+    Boolean getIsDeceased();
+    Gender getGender();
+    LocalDate getBirthDate();
+    Integer getGeneration();
+    String getBranchName();
+}
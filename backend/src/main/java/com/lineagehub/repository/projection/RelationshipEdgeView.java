@@ -0,0 +1,14 @@
+package com.lineagehub.repository.projection;
+
+import com.lineagehub.entity.enums.RelationshipType;
+
+import java.util.UUID;
+
+/**
+ * Lightweight view of a relationship row (no member entities loaded)
+ */
+public interface RelationshipEdgeView {
+    UUID getFromMemberId();
+    UUID getToMemberId();
+    RelationshipType getRelationshipType();
+}
@@ -0,0 +1,10 @@
+package com.lineagehub.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Relationship row with its id, for reports that point at individual rows
+ */
+public interface RelationshipRowView extends RelationshipEdgeView {
+    UUID getId();
+}
@@ -0,0 +1,19 @@
+package com.lineagehub.repository.projection;
+
+import java.util.UUID;
+
+/**
+ * Member columns needed to render a tree node
+ */
+public interface TreeNodeView {
+    UUID getId();
+    String getFullName();
+    String getGender();
+    Integer getBirthYear();
+    Integer getDeathYear();
+    String getAvatarUrl();
+    Integer getGeneration();
+    Boolean getIsBloodRelative();
+    String getBranchName();
+    Boolean getIsDeceased();
+}
@@ -2,8 +2,7 @@ package com.lineagehub.service;
 
 import com.lineagehub.entity.Relationship;
 import com.lineagehub.entity.User;
-import com.lineagehub.entity.enums.RelationshipType;
-import com.lineagehub.repository.RelationshipRepository;
+import com.lineagehub.repository.UserRoleRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -16,7 +15,9 @@ import java.util.*;
 @Slf4j
 public class AuthorizationService {
 
-    private final RelationshipRepository relationshipRepository;
+    private final KinshipGraphService kinshipGraphService;
+    private final EditableMemberCache editableMemberCache;
+    private final UserRoleRepository userRoleRepository;
 
     /**
      * Check if user can edit a specific member
@@ -36,54 +37,72 @@ public class AuthorizationService {
             return false;
         }
 
-        // BRANCH_ADMIN: check if member is in any managed subtree
-        List<UUID> managedMemberIds = user.getManagedMemberIds();
-        for (UUID managedMemberId : managedMemberIds) {
-            Set<UUID> subtreeIds = getSubtreeIds(managedMemberId);
-            if (subtreeIds.contains(memberId)) {
-                return true;
-            }
-        }
-
-        return false;
+        // BRANCH_ADMIN: check if member is in any managed subtree (cached bitset lookup)
+        EditableMemberCache.Entry editable = editableMemberCache.get(user);
+        return editable.contains(kinshipGraphService.indexOf(memberId));
     }
 
     /**
-     * Check if user can edit/delete a relationship
-     * SUPER_ADMIN: can edit all relationships
-     * BRANCH_ADMIN: can edit relationships within their subtrees,
-     *               BUT cannot edit/delete parent->managed_member relationships
+     * Batch version of canEditMember for listings
+     * Bit i of the returned mask is set if user can edit memberIds.get(i)
      */
     @Transactional(readOnly = true)
-    public boolean canEditRelationship(User user, Relationship relationship) {
+    public BitSet canEditMembers(User user, List<UUID> memberIds) {
+        BitSet mask = new BitSet(memberIds.size());
+
         // SUPER_ADMIN can edit all
         if (user.isSuperAdmin()) {
-            return true;
+            mask.set(0, memberIds.size());
+            return mask;
         }
 
         // USER role cannot edit
         if (user.isUser() && !user.isBranchAdmin()) {
-            return false;
+            return mask;
         }
 
-        // BRANCH_ADMIN: check permissions
-        List<UUID> managedMemberIds = user.getManagedMemberIds();
-        for (UUID managedMemberId : managedMemberIds) {
-            // Cannot edit/delete parent->managed_member relationship
-            if (relationship.getRelationshipType() == RelationshipType.PARENT_CHILD
-                    && relationship.getToMember().getId().equals(managedMemberId)) {
-                continue; // Try next managed member
+        // BRANCH_ADMIN: one cached subtree union, one graph lookup per id
+        EditableMemberCache.Entry editable = editableMemberCache.get(user);
+        return kinshipGraphService.read(g -> {
+            for (int i = 0; i < memberIds.size(); i++) {
+                if (editable.contains(g.indexOf(memberIds.get(i)))) {
+                    mask.set(i);
+                }
             }
+            return mask;
+        });
+    }
 
-            // Check if both members are in subtree
-            Set<UUID> subtreeIds = getSubtreeIds(managedMemberId);
-            if (subtreeIds.contains(relationship.getFromMember().getId())
-                    && subtreeIds.contains(relationship.getToMember().getId())) {
-                return true;
-            }
+    /**
+     * canEditMember for write paths: evaluated by the can_edit_member database function in the caller's
+     * transaction, so it also sees relationships written earlier in that transaction (the in-memory graph
+     * only gets them after commit). One round-trip at most.
+     */
+    @Transactional(readOnly = true)
+    public boolean canWriteMember(User user, UUID memberId) {
+        if (user.isSuperAdmin()) {
+            return true;
+        }
+        if (!user.isBranchAdmin()) {
+            return false;
         }
+        return userRoleRepository.canEditMember(user.getId(), memberId);
+    }
 
-        return false;
+    /**
+     * Check if user can edit/delete a relationship (both ends in one managed subtree, except the PARENT_CHILD
+     * link into the managed member itself), evaluated by the can_edit_relationship database function
+     */
+    @Transactional(readOnly = true)
+    public boolean canWriteRelationship(User user, Relationship relationship) {
+        if (user.isSuperAdmin()) {
+            return true;
+        }
+        if (!user.isBranchAdmin()) {
+            return false;
+        }
+        return userRoleRepository.canEditRelationship(user.getId(), relationship.getFromMember().getId(),
+                relationship.getToMember().getId(), relationship.getRelationshipType().name());
     }
 
     /**
@@ -99,67 +118,40 @@ public class AuthorizationService {
             return null;
         }
 
-        Set<UUID> editableIds = new HashSet<>();
-
-        // BRANCH_ADMIN: merge all subtrees
+        // BRANCH_ADMIN: union of all subtrees
         if (user.isBranchAdmin()) {
-            List<UUID> managedMemberIds = user.getManagedMemberIds();
-            for (UUID managedMemberId : managedMemberIds) {
-                editableIds.addAll(getSubtreeIds(managedMemberId));
-            }
+            EditableMemberCache.Entry editable = editableMemberCache.get(user);
+            return kinshipGraphService.read(g -> g.toIds(editable.members()));
         }
 
         // USER role: return empty set
-        return editableIds;
+        return new HashSet<>();
     }
 
     /**
-     * Get all member IDs in a subtree (including root and spouses)
-     * Uses BFS (Breadth-First Search) to traverse the tree
+     * Get kinship graph dense ids of all members that user can edit
+     * Returns null for SUPER_ADMIN (can edit all), empty set for USER
+     * The returned bitset is shared and must not be modified
      */
     @Transactional(readOnly = true)
-    public Set<UUID> getSubtreeIds(UUID rootMemberId) {
-        log.debug("Getting subtree IDs for member: {}", rootMemberId);
-        
-        Set<UUID> result = new HashSet<>();
-        Queue<UUID> queue = new LinkedList<>();
-        queue.add(rootMemberId);
-
-        while (!queue.isEmpty()) {
-            UUID currentId = queue.poll();
-            
-            // Skip if already processed
-            if (result.contains(currentId)) {
-                continue;
-            }
-
-            result.add(currentId);
-
-            // Find children (PARENT_CHILD relationships where current is parent)
-            List<Relationship> childRelations = relationshipRepository
-                    .findByFromMemberIdAndRelationshipType(currentId, RelationshipType.PARENT_CHILD);
-            
-            for (Relationship rel : childRelations) {
-                UUID childId = rel.getToMember().getId();
-                if (!result.contains(childId)) {
-                    queue.add(childId);
-                }
-            }
+    public BitSet getEditableNodes(User user) {
+        if (user.isSuperAdmin()) {
+            return null;
+        }
 
-            // Find spouses (SPOUSE relationships)
-            List<Relationship> spouseRelations = relationshipRepository
-                    .findByFromMemberIdAndRelationshipType(currentId, RelationshipType.SPOUSE);
-            
-            for (Relationship rel : spouseRelations) {
-                UUID spouseId = rel.getToMember().getId();
-                if (!result.contains(spouseId)) {
-                    result.add(spouseId); // Add spouse but don't traverse their children
-                }
-            }
+        if (user.isBranchAdmin()) {
+            return editableMemberCache.get(user).members();
         }
 
-        log.debug("Found {} members in subtree of {}", result.size(), rootMemberId);
-        return result;
+        return new BitSet();
+    }
+
+    /**
+     * Get all member IDs in a subtree (including root and spouses)
+     * Resolved from the in-memory kinship graph, no database access
+     */
+    public Set<UUID> getSubtreeIds(UUID rootMemberId) {
+        return kinshipGraphService.getSubtreeIds(rootMemberId);
     }
 
     /**
@@ -168,7 +160,7 @@ public class AuthorizationService {
      */
     @Transactional(readOnly = true)
     public boolean canAddChildToParent(User user, UUID parentId) {
-        return canEditMember(user, parentId);
+        return canWriteMember(user, parentId);
     }
 
     /**
@@ -177,6 +169,6 @@ public class AuthorizationService {
      */
     @Transactional(readOnly = true)
     public boolean canAddSpouseToMember(User user, UUID memberId) {
-        return canEditMember(user, memberId);
+        return canWriteMember(user, memberId);
     }
 }
@@ -0,0 +1,244 @@
+package com.lineagehub.service;
+
+import com.lineagehub.dto.response.ComponentReportResponse;
+import com.lineagehub.dto.response.ComponentResponse;
+import com.lineagehub.dto.response.MemberSummaryResponse;
+import com.lineagehub.entity.Member;
+import com.lineagehub.graph.KinshipGraph;
+import com.lineagehub.graph.KinshipGraphChangedEvent;
+import com.lineagehub.graph.UnionFind;
+import com.lineagehub.mapper.MemberMapper;
+import com.lineagehub.repository.MemberRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Connected components of the kinship graph (parent-child and spouse edges) and their founders,
+ * the members without parents, to find fragments left disconnected by imports or partial data entry.
+ * Components are kept in a union-find: added relationships are merged incrementally, while a removed
+ * relationship or member (which may split a component) triggers a rebuild on next access.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ComponentService {
+
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int MAX_LISTED_FOUNDERS = 10;
+
+    private final KinshipGraphService kinshipGraphService;
+    private final MemberRepository memberRepository;
+    private final MemberMapper memberMapper;
+
+    // Built from the graph version `version`; null until first needed or after a change that may split a component
+    private UnionFind sets;
+    private int[] degrees;
+    private long version;
+    // Summary of the current sets, null once they change
+    private List<Component> components;
+
+    /**
+     * Components, largest first
+     */
+    public synchronized List<Component> getComponents() {
+        if (sets == null) {
+            build();
+        }
+        if (components == null) {
+            components = kinshipGraphService.read(this::summarize);
+        }
+        return components;
+    }
+
+    /**
+     * One page of components, optionally only those with at most maxSize members (small fragments)
+     */
+    @Transactional(readOnly = true)
+    public ComponentReportResponse getReport(Integer maxSize, Pageable pageable) {
+        List<Component> all = getComponents();
+        if (pageable.getPageSize() > MAX_PAGE_SIZE) {
+            pageable = PageRequest.of(pageable.getPageNumber(), MAX_PAGE_SIZE);
+        }
+
+        List<Component> matching = maxSize == null
+                ? all
+                : all.stream().filter(c -> c.size() <= maxSize).collect(Collectors.toList());
+        int from = (int) Math.min(pageable.getOffset(), matching.size());
+        Page<Component> page = new PageImpl<>(
+                matching.subList(from, Math.min(from + pageable.getPageSize(), matching.size())),
+                pageable, matching.size());
+
+        // Founder names for the page in one query
+        Map<UUID, MemberSummaryResponse> summaries = new HashMap<>();
+        Set<UUID> founderIds = page.stream()
+                .flatMap(c -> c.founders().stream())
+                .collect(Collectors.toSet());
+        if (!founderIds.isEmpty()) {
+            for (Member member : memberRepository.findAllByIds(founderIds)) {
+                summaries.put(member.getId(), memberMapper.toSummaryResponse(member));
+            }
+        }
+
+        return ComponentReportResponse.builder()
+                .componentCount(all.size())
+                .largestComponent(all.isEmpty() ? 0 : all.get(0).size())
+                .isolatedMembers((int) all.stream().filter(c -> c.size() == 1).count())
+                .components(page.stream()
+                        .map(c -> ComponentResponse.builder()
+                                .componentId(c.componentId())
+                                .size(c.size())
+                                .founderCount(c.founderCount())
+                                .founders(c.founders().stream()
+                                        .map(summaries::get)
+                                        .filter(Objects::nonNull)
+                                        .collect(Collectors.toList()))
+                                .build())
+                        .collect(Collectors.toList()))
+                .page(page.getNumber())
+                .size(page.getSize())
+                .totalElements(page.getTotalElements())
+                .totalPages(page.getTotalPages())
+                .build();
+    }
+
+    @EventListener
+    public synchronized void onGraphChanged(KinshipGraphChangedEvent event) {
+        if (sets == null) {
+            return;
+        }
+        components = null;
+        if (event.reloaded()) {
+            sets = null;
+            return;
+        }
+
+        boolean merged = kinshipGraphService.read(g -> {
+            if (event.version() <= version) {
+                return true;  // Already part of the build
+            }
+            // Degrees are only comparable when no other change was applied in between
+            if (kinshipGraphService.getVersion() != event.version() || version != event.version() - 1) {
+                return false;
+            }
+            sets.ensureCapacity(g.capacity());
+            degrees = Arrays.copyOf(degrees, Math.max(degrees.length, g.capacity()));
+            BitSet nodes = event.nodes();
+            for (int node = nodes.nextSetBit(0); node >= 0; node = nodes.nextSetBit(node + 1)) {
+                if (!g.contains(node) || degreeOf(g, node) < degrees[node]) {
+                    return false;
+                }
+            }
+            for (int node = nodes.nextSetBit(0); node >= 0; node = nodes.nextSetBit(node + 1)) {
+                unionNeighbours(g, node);
+                degrees[node] = degreeOf(g, node);
+            }
+            version = event.version();
+            return true;
+        });
+        if (!merged) {
+            sets = null;
+        }
+    }
+
+    // ===== Computation =====
+
+    private void build() {
+        long start = System.nanoTime();
+        kinshipGraphService.read(g -> {
+            int n = g.capacity();
+            sets = new UnionFind(n);
+            degrees = new int[n];
+            BitSet members = g.memberNodes();
+            for (int node = members.nextSetBit(0); node >= 0; node = members.nextSetBit(node + 1)) {
+                unionNeighbours(g, node);
+                degrees[node] = degreeOf(g, node);
+            }
+            version = kinshipGraphService.getVersion();
+            return null;
+        });
+        log.info("Kinship graph components built in {} ms", (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void unionNeighbours(KinshipGraph g, int node) {
+        // Child edges are the parent edges of the other end, so parents and spouses cover every edge
+        for (int k = 0, c = g.parentCount(node); k < c; k++) {
+            sets.union(node, g.parentAt(node, k));
+        }
+        for (int k = 0, c = g.childCount(node); k < c; k++) {
+            sets.union(node, g.childAt(node, k));
+        }
+        for (int k = 0, c = g.spouseCount(node); k < c; k++) {
+            sets.union(node, g.spouseAt(node, k));
+        }
+    }
+
+    private static int degreeOf(KinshipGraph g, int node) {
+        return g.parentCount(node) + g.childCount(node) + g.spouseCount(node);
+    }
+
+    private List<Component> summarize(KinshipGraph g) {
+        int n = g.capacity();
+        int[] componentOf = new int[n];
+        Arrays.fill(componentOf, -1);
+        List<int[]> counts = new ArrayList<>();          // {size, founderCount}
+        List<UUID> ids = new ArrayList<>();
+        List<List<Integer>> founders = new ArrayList<>();
+
+        BitSet members = g.memberNodes();
+        for (int node = members.nextSetBit(0); node >= 0; node = members.nextSetBit(node + 1)) {
+            int root = sets.find(node);
+            if (componentOf[root] < 0) {
+                componentOf[root] = counts.size();
+                counts.add(new int[2]);
+                ids.add(g.idOf(node));
+                founders.add(new ArrayList<>());
+            }
+            int c = componentOf[root];
+            counts.get(c)[0]++;
+            if (g.idOf(node).compareTo(ids.get(c)) < 0) {
+                ids.set(c, g.idOf(node));
+            }
+            if (g.parentCount(node) == 0) {
+                counts.get(c)[1]++;
+                founders.get(c).add(node);
+            }
+        }
+
+        // Blood-relative founders (roots of lineages) before in-laws, then the earliest born
+        Comparator<Integer> founderOrder = Comparator
+                .comparing((Integer node) -> !g.isBloodRelative(node))
+                .thenComparingInt((Integer node) -> g.birthDay(node) != KinshipGraph.UNKNOWN_BIRTH_DAY
+                        ? g.birthDay(node)
+                        : Integer.MAX_VALUE)
+                .thenComparing(g::idOf);
+
+        List<Component> result = new ArrayList<>(counts.size());
+        for (int c = 0; c < counts.size(); c++) {
+            List<Integer> componentFounders = founders.get(c);
+            componentFounders.sort(founderOrder);
+            result.add(new Component(ids.get(c), counts.get(c)[0], counts.get(c)[1],
+                    componentFounders.stream()
+                            .limit(MAX_LISTED_FOUNDERS)
+                            .map(g::idOf)
+                            .collect(Collectors.toList())));
+        }
+        result.sort(Comparator.comparingInt(Component::size).reversed().thenComparing(Component::componentId));
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * componentId is the smallest member id of the component; founders lists at most MAX_LISTED_FOUNDERS ids
+     */
+    public record Component(UUID componentId, int size, int founderCount, List<UUID> founders) {
+    }
+}
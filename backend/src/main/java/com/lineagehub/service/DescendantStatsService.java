@@ -0,0 +1,486 @@
+package com.lineagehub.service;
+
+import com.lineagehub.graph.KinshipGraph;
+import com.lineagehub.graph.KinshipGraphChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * Per-member aggregates over the PARENT_CHILD graph: number of distinct descendants, number of living
+ * descendants and the longest chain of generations below the member.
+ * Computed from the in-memory kinship graph on first use, then updated along the ancestor chain of each change:
+ * a death date set or cleared, a leaf child linked or unlinked and a leaf member deleted are applied as +1/-1
+ * over the distinct ancestors concerned; other changes (which may create shared descendants) recount the
+ * ancestors of the changed members. Readers get an immutable snapshot and never wait for an update.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DescendantStatsService {
+
+    private static final int BLOCK_SIZE = 1024;
+
+    private final KinshipGraphService kinshipGraphService;
+
+    // Replaced as a whole (copy-on-write) under the monitor; null until first needed
+    private volatile Stats stats;
+
+    // Graph state the current stats were computed from, to tell which change an event carries (monitor only)
+    private final BitSet known = new BitSet();
+    private final BitSet knownDeceased = new BitSet();
+    private int[] knownParents = new int[0];
+    private int[] knownChildren = new int[0];
+
+    /**
+     * Aggregates of the given members; members not in the graph are left out
+     */
+    public Map<UUID, DescendantStats> getStats(Collection<UUID> memberIds) {
+        Stats current = current();
+        return kinshipGraphService.read(g -> {
+            Map<UUID, DescendantStats> result = new HashMap<>();
+            for (UUID memberId : memberIds) {
+                int node = g.indexOf(memberId);
+                if (g.contains(node)) {
+                    result.put(memberId, current.of(node));
+                }
+            }
+            return result;
+        });
+    }
+
+    public Optional<DescendantStats> getStats(UUID memberId) {
+        return Optional.ofNullable(getStats(List.of(memberId)).get(memberId));
+    }
+
+    /**
+     * Aggregates of a member by dense id, without taking the graph lock
+     */
+    public DescendantStats getStats(int node) {
+        return current().of(node);
+    }
+
+    /**
+     * Members with the most descendants, largest first
+     */
+    public List<Branch> getLargestBranches(int limit) {
+        Stats current = current();
+        return kinshipGraphService.read(g -> {
+            // Min-heap of the k largest seen so far
+            PriorityQueue<Integer> heap = new PriorityQueue<>(limit + 1, current::compareBranches);
+            BitSet members = g.memberNodes();
+            for (int node = members.nextSetBit(0); node >= 0; node = members.nextSetBit(node + 1)) {
+                if (current.of(node).descendants() == 0) {
+                    continue;
+                }
+                heap.add(node);
+                if (heap.size() > limit) {
+                    heap.poll();
+                }
+            }
+
+            List<Branch> result = new ArrayList<>(heap.size());
+            while (!heap.isEmpty()) {
+                int node = heap.poll();
+                result.add(new Branch(g.idOf(node), current.of(node)));
+            }
+            Collections.reverse(result);
+            return result;
+        });
+    }
+
+    @EventListener
+    public synchronized void onGraphChanged(KinshipGraphChangedEvent event) {
+        Stats current = stats;
+        if (current == null) {
+            return;
+        }
+        if (event.reloaded()) {
+            stats = null;
+            return;
+        }
+
+        try {
+            stats = kinshipGraphService.read(g -> update(g, current, event));
+        } catch (RuntimeException e) {
+            log.error("Failed to update descendant stats after graph change", e);
+            stats = null;
+        }
+    }
+
+    // ===== Computation =====
+
+    private Stats current() {
+        Stats current = stats;
+        return current != null ? current : compute();
+    }
+
+    private synchronized Stats compute() {
+        if (stats != null) {
+            return stats;
+        }
+
+        long start = System.nanoTime();
+        Stats computed = kinshipGraphService.read(g -> {
+            int n = g.capacity();
+            Stats s = new Stats(new int[n], new int[n], new int[n], kinshipGraphService.getVersion());
+
+            computeDepths(g, s, childrenFirst(g, g.memberNodes()));
+
+            // Counts of different members are independent: one scratch buffer per block of members
+            int blocks = (n + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            IntStream.range(0, blocks).parallel().forEach(block -> {
+                Scratch scratch = new Scratch(n);
+                for (int node = block * BLOCK_SIZE; node < Math.min(n, (block + 1) * BLOCK_SIZE); node++) {
+                    if (g.contains(node)) {
+                        count(g, s, node, scratch);
+                    }
+                }
+            });
+
+            known.clear();
+            knownDeceased.clear();
+            remember(g, g.memberNodes());
+            return s;
+        });
+        stats = computed;
+        log.info("Descendant stats computed in {} ms", (System.nanoTime() - start) / 1_000_000);
+        return computed;
+    }
+
+    /**
+     * Stats after the change of the event, or null when they must be recomputed from scratch
+     */
+    private Stats update(KinshipGraph g, Stats current, KinshipGraphChangedEvent event) {
+        if (event.version() <= current.version()) {
+            return current;  // Already part of the computation
+        }
+        // Deltas are relative to the previous version: another change applied in between can't be told apart
+        if (kinshipGraphService.getVersion() != event.version() || current.version() != event.version() - 1) {
+            log.debug("Graph changes applied concurrently, descendant stats will be recomputed");
+            return null;
+        }
+
+        int capacity = Math.max(g.capacity(), current.descendants().length);
+        Stats next = new Stats(Arrays.copyOf(current.descendants(), capacity),
+                Arrays.copyOf(current.livingDescendants(), capacity),
+                Arrays.copyOf(current.depths(), capacity),
+                event.version());
+        knownParents = Arrays.copyOf(knownParents, Math.max(capacity, knownParents.length));
+        knownChildren = Arrays.copyOf(knownChildren, Math.max(capacity, knownChildren.length));
+
+        if (!applyDeltas(g, next, event.nodes())) {
+            int recounted = recount(g, next, event.nodes());
+            log.debug("Recounted descendant stats of {} members", recounted);
+        }
+        remember(g, event.nodes());
+        return next;
+    }
+
+    /**
+     * Apply the change as +1/-1 over the ancestors it concerns; false (nothing applied) when it is not one of
+     * the changes handled that way
+     */
+    private boolean applyDeltas(KinshipGraph g, Stats s, BitSet nodes) {
+        int removed = -1;                 // Deleted member
+        int parentsChanged = -1;          // Member that gained or lost a parent
+        int parentDelta = 0;
+        int gainedChild = -1;
+        List<Integer> lostChild = new ArrayList<>(2);
+        List<Integer> flipped = new ArrayList<>(1);
+        List<Integer> added = new ArrayList<>(1);
+
+        for (int node = nodes.nextSetBit(0); node >= 0; node = nodes.nextSetBit(node + 1)) {
+            boolean contained = g.contains(node);
+            if (!known.get(node)) {
+                if (contained && (g.parentCount(node) > 0 || g.childCount(node) > 0)) {
+                    return false;  // New member already linked
+                }
+                if (contained) {
+                    added.add(node);
+                }
+                continue;
+            }
+            if (!contained) {
+                if (removed >= 0 || knownChildren[node] > 0) {
+                    return false;
+                }
+                removed = node;
+                continue;
+            }
+            if (g.isDeceased(node) != knownDeceased.get(node)) {
+                flipped.add(node);
+            }
+            int dp = g.parentCount(node) - knownParents[node];
+            int dc = g.childCount(node) - knownChildren[node];
+            if (dp != 0) {
+                if (parentsChanged >= 0 || Math.abs(dp) != 1) {
+                    return false;
+                }
+                parentsChanged = node;
+                parentDelta = dp;
+            }
+            if (dc == 1 && gainedChild < 0) {
+                gainedChild = node;
+            } else if (dc == -1) {
+                lostChild.add(node);
+            } else if (dc != 0) {
+                return false;
+            }
+        }
+
+        boolean edgesChanged = removed >= 0 || parentsChanged >= 0 || gainedChild >= 0 || !lostChild.isEmpty();
+        if (edgesChanged && !flipped.isEmpty()) {
+            return false;
+        }
+
+        BitSet parents = new BitSet();
+        if (removed >= 0) {
+            // A deleted leaf leaves every ancestor of its former parents, who each lost one child
+            if (parentsChanged >= 0 || gainedChild >= 0 || lostChild.size() != knownParents[removed]) {
+                return false;
+            }
+            lostChild.forEach(parents::set);
+            BitSet ancestors = ancestorsOrSelf(g, parents);
+            addToAll(s, ancestors, -1, knownDeceased.get(removed) ? 0 : -1);
+            s.descendants()[removed] = 0;
+            s.livingDescendants()[removed] = 0;
+            s.depths()[removed] = 0;
+        } else if (parentsChanged >= 0) {
+            // A leaf linked to or unlinked from one parent: only the ancestors not reaching it through
+            // its other parents gain or lose it
+            int child = parentsChanged;
+            int parent;
+            if (parentDelta > 0 && gainedChild >= 0 && lostChild.isEmpty()) {
+                parent = gainedChild;
+            } else if (parentDelta < 0 && gainedChild < 0 && lostChild.size() == 1) {
+                parent = lostChild.get(0);
+            } else {
+                return false;
+            }
+            if (g.childCount(child) > 0) {
+                return false;
+            }
+            BitSet otherParents = new BitSet();
+            for (int k = 0, c = g.parentCount(child); k < c; k++) {
+                if (g.parentAt(child, k) != parent) {
+                    otherParents.set(g.parentAt(child, k));
+                }
+            }
+            parents.set(parent);
+            BitSet ancestors = ancestorsOrSelf(g, parents);
+            ancestors.andNot(ancestorsOrSelf(g, otherParents));
+            addToAll(s, ancestors, parentDelta, g.isDeceased(child) ? 0 : parentDelta);
+        } else if (gainedChild >= 0 || !lostChild.isEmpty()) {
+            return false;
+        }
+
+        // Death date set or cleared: one more or one less living descendant for each strict ancestor
+        for (int node : flipped) {
+            BitSet self = new BitSet();
+            self.set(node);
+            BitSet ancestors = ancestorsOrSelf(g, self);
+            ancestors.clear(node);
+            addToAll(s, ancestors, 0, g.isDeceased(node) ? -1 : 1);
+        }
+
+        for (int node : added) {
+            s.descendants()[node] = 0;
+            s.livingDescendants()[node] = 0;
+            s.depths()[node] = 0;
+        }
+        if (!parents.isEmpty()) {
+            computeDepths(g, s, childrenFirst(g, ancestorsOrSelf(g, parents)));
+        }
+        return true;
+    }
+
+    /**
+     * Recount the changed members and all their ancestors, children before parents
+     */
+    private int recount(KinshipGraph g, Stats s, BitSet nodes) {
+        BitSet changed = new BitSet();
+        for (int node = nodes.nextSetBit(0); node >= 0; node = nodes.nextSetBit(node + 1)) {
+            if (g.contains(node)) {
+                changed.set(node);
+            } else {
+                s.descendants()[node] = 0;
+                s.livingDescendants()[node] = 0;
+                s.depths()[node] = 0;
+            }
+        }
+
+        int[] order = childrenFirst(g, ancestorsOrSelf(g, changed));
+        computeDepths(g, s, order);
+        Scratch scratch = new Scratch(g.capacity());
+        for (int node : order) {
+            count(g, s, node, scratch);
+        }
+        return order.length;
+    }
+
+    private static void addToAll(Stats s, BitSet nodes, int descendantsDelta, int livingDelta) {
+        for (int node = nodes.nextSetBit(0); node >= 0; node = nodes.nextSetBit(node + 1)) {
+            s.descendants()[node] += descendantsDelta;
+            s.livingDescendants()[node] += livingDelta;
+        }
+    }
+
+    private void remember(KinshipGraph g, BitSet nodes) {
+        int capacity = Math.max(g.capacity(), knownParents.length);
+        knownParents = Arrays.copyOf(knownParents, capacity);
+        knownChildren = Arrays.copyOf(knownChildren, capacity);
+        for (int node = nodes.nextSetBit(0); node >= 0; node = nodes.nextSetBit(node + 1)) {
+            boolean contained = g.contains(node);
+            known.set(node, contained);
+            knownDeceased.set(node, contained && g.isDeceased(node));
+            knownParents[node] = contained ? g.parentCount(node) : 0;
+            knownChildren[node] = contained ? g.childCount(node) : 0;
+        }
+    }
+
+    /**
+     * Distinct descendants of a member (a descendant reachable through both parents is counted once)
+     */
+    private void count(KinshipGraph g, Stats s, int root, Scratch scratch) {
+        int stamp = ++scratch.stamp;
+        int[] queue = scratch.queue;
+        int tail = 0;
+        int total = 0;
+        int living = 0;
+
+        queue[tail++] = root;
+        for (int head = 0; head < tail; head++) {
+            int current = queue[head];
+            for (int k = 0, c = g.childCount(current); k < c; k++) {
+                int child = g.childAt(current, k);
+                if (scratch.mark[child] != stamp) {
+                    scratch.mark[child] = stamp;
+                    queue[tail++] = child;
+                    total++;
+                    if (!g.isDeceased(child)) {
+                        living++;
+                    }
+                }
+            }
+        }
+
+        s.descendants()[root] = total;
+        s.livingDescendants()[root] = living;
+    }
+
+    /**
+     * Longest chain below each member; children must come before their parents in order
+     */
+    private static void computeDepths(KinshipGraph g, Stats s, int[] order) {
+        for (int node : order) {
+            int depth = 0;
+            for (int k = 0, c = g.childCount(node); k < c; k++) {
+                depth = Math.max(depth, s.depths()[g.childAt(node, k)] + 1);
+            }
+            s.depths()[node] = depth;
+        }
+    }
+
+    /**
+     * Members of the set ordered so that every member comes after its children in the set
+     */
+    private int[] childrenFirst(KinshipGraph g, BitSet nodes) {
+        int[] pending = new int[g.capacity()];
+        int[] order = new int[nodes.cardinality()];
+        int tail = 0;
+        for (int node = nodes.nextSetBit(0); node >= 0; node = nodes.nextSetBit(node + 1)) {
+            for (int k = 0, c = g.childCount(node); k < c; k++) {
+                if (nodes.get(g.childAt(node, k))) {
+                    pending[node]++;
+                }
+            }
+            if (pending[node] == 0) {
+                order[tail++] = node;
+            }
+        }
+
+        for (int head = 0; head < tail; head++) {
+            int node = order[head];
+            for (int k = 0, c = g.parentCount(node); k < c; k++) {
+                int parent = g.parentAt(node, k);
+                if (nodes.get(parent) && --pending[parent] == 0) {
+                    order[tail++] = parent;
+                }
+            }
+        }
+
+        if (tail < order.length) {
+            // Only possible with a PARENT_CHILD cycle, which RelationshipService rejects
+            log.warn("Parent-child cycle detected, {} members skipped", order.length - tail);
+            return Arrays.copyOf(order, tail);
+        }
+        return order;
+    }
+
+    private static BitSet ancestorsOrSelf(KinshipGraph g, BitSet nodes) {
+        BitSet result = (BitSet) nodes.clone();
+        ArrayDeque<Integer> stack = new ArrayDeque<>();
+        for (int node = nodes.nextSetBit(0); node >= 0; node = nodes.nextSetBit(node + 1)) {
+            stack.push(node);
+        }
+        while (!stack.isEmpty()) {
+            int current = stack.pop();
+            for (int k = 0, c = g.parentCount(current); k < c; k++) {
+                int parent = g.parentAt(current, k);
+                if (!result.get(parent)) {
+                    result.set(parent);
+                    stack.push(parent);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Visit marks reused across traversals: a member is visited when its mark equals the current stamp
+     */
+    private static final class Scratch {
+        private final int[] mark;
+        private final int[] queue;
+        private int stamp;
+
+        Scratch(int capacity) {
+            mark = new int[capacity];
+            queue = new int[capacity];
+        }
+    }
+
+    /**
+     * descendants and livingDescendants exclude the member itself;
+     * maxDepth is the number of generations below it (0 for a member without children)
+     */
+    public record DescendantStats(int descendants, int livingDescendants, int maxDepth) {
+    }
+
+    /**
+     * Aggregates indexed by dense id as of a graph version; never modified once published
+     */
+    private record Stats(int[] descendants, int[] livingDescendants, int[] depths, long version) {
+
+        DescendantStats of(int node) {
+            // Member added after these stats: no descendants yet
+            if (node >= descendants.length) {
+                return new DescendantStats(0, 0, 0);
+            }
+            return new DescendantStats(descendants[node], livingDescendants[node], depths[node]);
+        }
+
+        int compareBranches(int a, int b) {
+            int result = Integer.compare(descendants[a], descendants[b]);
+            return result != 0 ? result : Integer.compare(depths[a], depths[b]);
+        }
+    }
+
+    public record Branch(UUID memberId, DescendantStats stats) {
+    }
+}
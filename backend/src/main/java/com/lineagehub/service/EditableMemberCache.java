@@ -0,0 +1,142 @@
+package com.lineagehub.service;
+
+import com.lineagehub.entity.User;
+import com.lineagehub.graph.KinshipGraphChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-user cache of editable members for BRANCH_ADMIN users.
+ * Each entry holds one bitset (over kinship graph dense ids) per managed subtree plus their union.
+ * Entries are dropped when the user's roles change or when a graph change touches one of their subtrees,
+ * the affected users being looked up in MemberEditorIndex.
+ * The graph version is bumped before its change event is delivered: an entry older than the graph is only
+ * used once the events of all versions up to the current one have been applied, and recomputed otherwise.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EditableMemberCache {
+
+    private final KinshipGraphService kinshipGraphService;
+    private final MemberEditorIndex memberEditorIndex;
+
+    private static final int MAX_PENDING_VERSIONS = 1024;
+
+    private final Map<UUID, Entry> entries = new ConcurrentHashMap<>();
+
+    // Every change event up to appliedVersion has been applied; appliedAhead holds those applied out of order
+    private long appliedVersion;
+    private final TreeSet<Long> appliedAhead = new TreeSet<>();
+
+    /**
+     * Get editable members of a BRANCH_ADMIN user, computing them on first access
+     */
+    public Entry get(User user) {
+        List<UUID> managedMemberIds = user.getManagedMemberIds();
+        Entry entry = entries.get(user.getId());
+        if (entry != null && entry.managedMemberIds().equals(managedMemberIds) && isCurrent(entry)) {
+            return entry;
+        }
+
+        Entry computed = compute(managedMemberIds);
+        entries.put(user.getId(), computed);
+
+        // A graph change may have been applied while computing, or the index may not have the user's roles yet
+        // (then it would miss the user on graph changes): don't keep a possibly stale entry
+        if (kinshipGraphService.getVersion() != computed.version()
+                || !memberEditorIndex.isIndexed(user.getId(), managedMemberIds)) {
+            entries.remove(user.getId(), computed);
+        }
+        return computed;
+    }
+
+    /**
+     * Drop the entry of a user (immediately and again once the current transaction commits)
+     */
+    public void invalidate(UUID userId) {
+        entries.remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entries.remove(userId);
+                }
+            });
+        }
+    }
+
+    @EventListener
+    public void onGraphChanged(KinshipGraphChangedEvent event) {
+        if (!entries.isEmpty()) {
+            Set<UUID> affected = memberEditorIndex.getUsersAffectedBy(event);
+            if (affected == null) {
+                entries.clear();
+            } else {
+                for (UUID userId : affected) {
+                    if (entries.remove(userId) != null) {
+                        log.debug("Invalidating editable members of user {}", userId);
+                    }
+                }
+            }
+        }
+        markApplied(event.version());
+    }
+
+    /**
+     * Whether no change since the entry was computed can be pending invalidation
+     */
+    private synchronized boolean isCurrent(Entry entry) {
+        long version = kinshipGraphService.getVersion();
+        return entry.version() == version || version <= appliedVersion;
+    }
+
+    private synchronized void markApplied(long version) {
+        if (version <= appliedVersion) {
+            return;
+        }
+        appliedAhead.add(version);
+        while (!appliedAhead.isEmpty() && appliedAhead.first() == appliedVersion + 1) {
+            appliedVersion = appliedAhead.pollFirst();
+        }
+        // An event that never arrived (a listener before this one failed): start over from an empty cache
+        if (appliedAhead.size() > MAX_PENDING_VERSIONS) {
+            log.warn("Graph change events missing before version {}, clearing editable members", appliedAhead.last());
+            entries.clear();
+            appliedVersion = appliedAhead.last();
+            appliedAhead.clear();
+        }
+    }
+
+    private Entry compute(List<UUID> managedMemberIds) {
+        return kinshipGraphService.read(g -> {
+            List<BitSet> subtrees = new ArrayList<>(managedMemberIds.size());
+            BitSet members = new BitSet(g.capacity());
+            for (UUID managedMemberId : managedMemberIds) {
+                int root = g.indexOf(managedMemberId);
+                BitSet subtree = root >= 0 ? g.subtree(root) : new BitSet();
+                subtrees.add(subtree);
+                members.or(subtree);
+            }
+            return new Entry(List.copyOf(managedMemberIds), subtrees, members, kinshipGraphService.getVersion());
+        });
+    }
+
+    /**
+     * subtrees.get(i) is the subtree of managedMemberIds.get(i); members is their union.
+     * Bitsets are never modified after creation.
+     */
+    public record Entry(List<UUID> managedMemberIds, List<BitSet> subtrees, BitSet members, long version) {
+
+        public boolean contains(int node) {
+            return node >= 0 && members.get(node);
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.lineagehub.service;
+
+import com.lineagehub.graph.KinshipGraph;
+import com.lineagehub.graph.KinshipGraphChangedEvent;
+import com.lineagehub.repository.MemberRepository;
+import com.lineagehub.repository.projection.MemberGenerationView;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * Derives Member.generation from the PARENT_CHILD graph.
+ * Blood relatives are one generation below their lineage parent, members without parents take the
+ * generation of a spouse who has parents, anyone else starts at generation 1.
+ * Graph changes are propagated incrementally (only members whose value actually changes are visited);
+ * recomputeAll() recalculates every member in parallel.
+ * All work runs on one background thread, which alone owns the cached generations: graph writers only
+ * queue their change and never wait for a propagation or a full recompute.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GenerationService {
+
+    private static final int UNKNOWN = Integer.MIN_VALUE;
+    private static final int UPDATE_BATCH_SIZE = 1000;
+    private static final int MAX_LOOKUP_DEPTH = 10_000;
+
+    private final KinshipGraphService kinshipGraphService;
+    private final MemberRepository memberRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "generation-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Persisted generation per dense id of the current graph; null until first needed (executor thread only)
+    private int[] generations;
+
+    /**
+     * Recompute the generation of every member and store the ones that differ.
+     * Waits for the changes queued before it.
+     *
+     * @return number of members updated
+     */
+    public int recomputeAll() {
+        try {
+            return executor.submit(this::recompute).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while recomputing generations", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException runtime ? runtime : new IllegalStateException(e.getCause());
+        }
+    }
+
+    @EventListener
+    public void onGraphChanged(KinshipGraphChangedEvent event) {
+        executor.submit(() -> apply(event));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ===== Computation =====
+
+    private int recompute() {
+        long start = System.nanoTime();
+        Map<UUID, Integer> persisted = loadPersisted();
+
+        record Computed(int[] generations, Map<UUID, Integer> changes, long version) {
+        }
+        Computed computed = kinshipGraphService.read(g -> {
+            int[] all = computeAll(g);
+            Map<UUID, Integer> changes = new LinkedHashMap<>();
+            for (int node = 0; node < all.length; node++) {
+                if (g.contains(node) && !Objects.equals(persisted.get(g.idOf(node)), all[node])) {
+                    changes.put(g.idOf(node), all[node]);
+                }
+            }
+            return new Computed(all, changes, kinshipGraphService.getVersion());
+        });
+
+        int updated = persist(computed.changes());
+        kinshipGraphService.onGenerationsUpdated(computed.changes());
+
+        // A change applied meanwhile is not reflected in the snapshot: reload persisted values next time
+        generations = kinshipGraphService.getVersion() == computed.version() ? computed.generations() : null;
+
+        log.info("Generations recomputed in {} ms: {} members updated",
+                (System.nanoTime() - start) / 1_000_000, updated);
+        return updated;
+    }
+
+    private void apply(KinshipGraphChangedEvent event) {
+        if (event.reloaded()) {
+            generations = null;
+            return;
+        }
+
+        try {
+            if (generations == null) {
+                Map<UUID, Integer> persisted = loadPersisted();
+                generations = kinshipGraphService.read(g -> toArray(g, persisted));
+            }
+
+            Map<UUID, Integer> changes = kinshipGraphService.read(g -> propagate(g, event.memberIds()));
+            if (!changes.isEmpty()) {
+                persist(changes);
+                kinshipGraphService.onGenerationsUpdated(changes);
+                log.debug("Updated generation of {} members", changes.size());
+            }
+        } catch (RuntimeException e) {
+            // The triggering transaction is already committed: resync from the database next time
+            log.error("Failed to update generations after graph change", e);
+            generations = null;
+        }
+    }
+
+    private Map<UUID, Integer> propagate(KinshipGraph g, Collection<UUID> memberIds) {
+        ensureCapacity(g.capacity());
+        Map<UUID, Integer> changes = new LinkedHashMap<>();
+
+        // Seed with the changed members and their direct dependents (lineage parents may have switched)
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (UUID memberId : memberIds) {
+            int node = g.indexOf(memberId);
+            if (g.contains(node)) {
+                queue.add(node);
+                for (int k = 0; k < g.childCount(node); k++) {
+                    queue.add(g.childAt(node, k));
+                }
+                for (int k = 0; k < g.spouseCount(node); k++) {
+                    queue.add(g.spouseAt(node, k));
+                }
+            }
+        }
+
+        long steps = 0;
+        long maxSteps = 4L * g.capacity() + queue.size();
+        while (!queue.isEmpty()) {
+            if (++steps > maxSteps) {
+                log.warn("Generation propagation did not converge, stopping after {} steps", steps);
+                break;
+            }
+
+            int node = queue.poll();
+            int derived = derive(g, node, parent -> lookup(g, parent, 0));
+            if (derived == generations[node]) {
+                continue;
+            }
+
+            generations[node] = derived;
+            changes.put(g.idOf(node), derived);
+            addDependents(g, node, queue);
+        }
+
+        return changes;
+    }
+
+    private int lookup(KinshipGraph g, int node, int depth) {
+        if (generations[node] != UNKNOWN) {
+            return generations[node];
+        }
+        if (depth > MAX_LOOKUP_DEPTH) {
+            return 1;
+        }
+        return derive(g, node, other -> lookup(g, other, depth + 1));
+    }
+
+    private int[] computeAll(KinshipGraph g) {
+        int n = g.capacity();
+
+        // Generations of lineage roots first: they may depend on other lineages through marriage
+        int[] rootGenerations = new int[n];
+        Arrays.fill(rootGenerations, UNKNOWN);
+        for (int node = 0; node < n; node++) {
+            if (g.contains(node) && g.lineageParent(node) < 0) {
+                rootGeneration(g, node, rootGenerations);
+            }
+        }
+
+        int[] result = new int[n];
+        IntStream.range(0, n).parallel().forEach(node -> result[node] = g.contains(node)
+                ? g.lineageDepth(node) + rootGenerations[g.lineageRoot(node)]
+                : UNKNOWN);
+        return result;
+    }
+
+    private int rootGeneration(KinshipGraph g, int root, int[] rootGenerations) {
+        if (rootGenerations[root] != UNKNOWN) {
+            return rootGenerations[root];
+        }
+
+        // Provisional value breaks cycles through marriages
+        rootGenerations[root] = 1;
+        int generation = derive(g, root,
+                spouse -> g.lineageDepth(spouse) + rootGeneration(g, g.lineageRoot(spouse), rootGenerations));
+        rootGenerations[root] = generation;
+        return generation;
+    }
+
+    /**
+     * Generation of a member given a way to get the generation of its lineage parent or spouses
+     */
+    private int derive(KinshipGraph g, int node, IntUnaryOperator generationOf) {
+        int parent = g.lineageParent(node);
+        if (parent >= 0) {
+            return generationOf.applyAsInt(parent) + 1;
+        }
+        for (int k = 0; k < g.spouseCount(node); k++) {
+            int spouse = g.spouseAt(node, k);
+            if (g.lineageParent(spouse) >= 0) {
+                return generationOf.applyAsInt(spouse);
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Members whose derived generation reads this member's: lineage children and spouses without parents
+     */
+    private void addDependents(KinshipGraph g, int node, Queue<Integer> queue) {
+        for (int k = 0; k < g.childCount(node); k++) {
+            int child = g.childAt(node, k);
+            if (g.lineageParent(child) == node) {
+                queue.add(child);
+            }
+        }
+        for (int k = 0; k < g.spouseCount(node); k++) {
+            int spouse = g.spouseAt(node, k);
+            if (g.lineageParent(spouse) < 0) {
+                queue.add(spouse);
+            }
+        }
+    }
+
+    // ===== Persistence =====
+
+    private Map<UUID, Integer> loadPersisted() {
+        return inNewTransaction(() -> {
+            Map<UUID, Integer> result = new HashMap<>();
+            for (MemberGenerationView member : memberRepository.findAllGenerations()) {
+                result.put(member.getId(), member.getGeneration());
+            }
+            return result;
+        });
+    }
+
+    private int persist(Map<UUID, Integer> changes) {
+        if (changes.isEmpty()) {
+            return 0;
+        }
+
+        List<UUID> ids = new ArrayList<>(changes.keySet());
+        List<Integer> values = new ArrayList<>(changes.values());
+        return inNewTransaction(() -> {
+            int updated = 0;
+            for (int from = 0; from < ids.size(); from += UPDATE_BATCH_SIZE) {
+                int to = Math.min(from + UPDATE_BATCH_SIZE, ids.size());
+                updated += memberRepository.updateGenerations(
+                        ids.subList(from, to).toArray(new UUID[0]),
+                        values.subList(from, to).toArray(new Integer[0]));
+            }
+            return updated;
+        });
+    }
+
+    /**
+     * Graph changes are delivered after the triggering transaction has committed, so database work
+     * must run in a transaction of its own
+     */
+    private <T> T inNewTransaction(Supplier<T> work) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return transaction.execute(status -> work.get());
+    }
+
+    private int[] toArray(KinshipGraph g, Map<UUID, Integer> persisted) {
+        int[] result = new int[g.capacity()];
+        Arrays.fill(result, UNKNOWN);
+        persisted.forEach((memberId, generation) -> {
+            int node = g.indexOf(memberId);
+            if (node >= 0 && generation != null) {
+                result[node] = generation;
+            }
+        });
+        return result;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > generations.length) {
+            int oldLength = generations.length;
+            generations = Arrays.copyOf(generations, Math.max(capacity, oldLength * 2));
+            Arrays.fill(generations, oldLength, generations.length, UNKNOWN);
+        }
+    }
+}
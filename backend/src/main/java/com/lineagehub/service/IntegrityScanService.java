@@ -0,0 +1,292 @@
+package com.lineagehub.service;
+
+import com.lineagehub.dto.response.IntegrityAnomalyResponse;
+import com.lineagehub.dto.response.IntegrityReportResponse;
+import com.lineagehub.dto.response.MemberSummaryResponse;
+import com.lineagehub.entity.Member;
+import com.lineagehub.entity.enums.RelationshipType;
+import com.lineagehub.exception.BusinessException;
+import com.lineagehub.graph.IntegrityScanner;
+import com.lineagehub.graph.IntegrityScanner.AnomalyType;
+import com.lineagehub.mapper.MemberMapper;
+import com.lineagehub.repository.MemberRepository;
+import com.lineagehub.repository.RelationshipRepository;
+import com.lineagehub.repository.projection.MemberIntegrityView;
+import com.lineagehub.repository.projection.RelationshipRowView;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Background check of the invariants RelationshipService enforces on the write path, for data that
+ * bypassed it (manual imports): more than two parents, one-directional SPOUSE rows, PARENT_CHILD cycles,
+ * children born before a parent and generations inconsistent with the parents.
+ * Members and relationship rows are loaded once, then checked by IntegrityScanner on the fork-join pool.
+ * Only the latest report is kept, in memory.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IntegrityScanService {
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final MemberRepository memberRepository;
+    private final RelationshipRepository relationshipRepository;
+    private final MemberMapper memberMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "integrity-scan");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile ScanReport report = new ScanReport(ScanStatus.IDLE, null, null, 0, 0, 0, 0, List.of());
+
+    /**
+     * Start a scan in the background
+     */
+    public synchronized void startScan() {
+        if (report.status() == ScanStatus.RUNNING) {
+            throw new BusinessException("Đang có một lượt kiểm tra dữ liệu chưa hoàn tất");
+        }
+        report = new ScanReport(ScanStatus.RUNNING, Instant.now(), null, 0, 0, 0, 0, List.of());
+        executor.submit(this::runScan);
+    }
+
+    /**
+     * Summary of the latest scan and one page of its anomalies, optionally of a single type
+     */
+    @Transactional(readOnly = true)
+    public IntegrityReportResponse getReport(AnomalyType type, Pageable pageable) {
+        ScanReport current = report;
+        if (pageable.getPageSize() > MAX_PAGE_SIZE) {
+            pageable = PageRequest.of(pageable.getPageNumber(), MAX_PAGE_SIZE);
+        }
+
+        List<Anomaly> matching = type == null
+                ? current.anomalies()
+                : current.anomalies().stream().filter(a -> a.type() == type).collect(Collectors.toList());
+        int from = (int) Math.min(pageable.getOffset(), matching.size());
+        Page<Anomaly> anomalies = new PageImpl<>(
+                matching.subList(from, Math.min(from + pageable.getPageSize(), matching.size())),
+                pageable, matching.size());
+
+        // Member names for the page in one query; members deleted since the scan are left out
+        Map<UUID, MemberSummaryResponse> summaries = new HashMap<>();
+        Set<UUID> memberIds = anomalies.stream()
+                .flatMap(a -> a.memberIds().stream())
+                .collect(Collectors.toSet());
+        if (!memberIds.isEmpty()) {
+            for (Member member : memberRepository.findAllByIds(memberIds)) {
+                summaries.put(member.getId(), memberMapper.toSummaryResponse(member));
+            }
+        }
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (AnomalyType anomalyType : AnomalyType.values()) {
+            counts.put(anomalyType.name(), 0L);
+        }
+        for (Anomaly anomaly : current.anomalies()) {
+            counts.merge(anomaly.type().name(), 1L, Long::sum);
+        }
+
+        return IntegrityReportResponse.builder()
+                .status(current.status().name())
+                .startedAt(current.startedAt())
+                .finishedAt(current.finishedAt())
+                .durationMs(current.finishedAt() != null
+                        ? current.finishedAt().toEpochMilli() - current.startedAt().toEpochMilli()
+                        : null)
+                .memberCount(current.memberCount())
+                .relationshipCount(current.relationshipCount())
+                .componentCount(current.componentCount())
+                .largestComponent(current.largestComponent())
+                .anomalyCounts(counts)
+                .anomalies(anomalies.stream()
+                        .map(a -> IntegrityAnomalyResponse.builder()
+                                .type(a.type().name())
+                                .message(a.message())
+                                .members(a.memberIds().stream()
+                                        .map(summaries::get)
+                                        .filter(Objects::nonNull)
+                                        .collect(Collectors.toList()))
+                                .relationshipId(a.relationshipId())
+                                .build())
+                        .collect(Collectors.toList()))
+                .page(anomalies.getNumber())
+                .size(anomalies.getSize())
+                .totalElements(anomalies.getTotalElements())
+                .totalPages(anomalies.getTotalPages())
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // ===== Scan =====
+
+    private void runScan() {
+        Instant startedAt = report.startedAt();
+        try {
+            long start = System.nanoTime();
+            Snapshot snapshot = load();
+            long loaded = System.nanoTime();
+
+            IntegrityScanner.Result result = new IntegrityScanner(snapshot.memberIds().length,
+                    snapshot.birthDays(), snapshot.generations(), snapshot.bloodRelative(),
+                    snapshot.edgeFrom(), snapshot.edgeTo(), snapshot.spouse())
+                    .scan(ForkJoinPool.commonPool());
+
+            List<Anomaly> anomalies = new ArrayList<>(result.findings().size());
+            for (IntegrityScanner.Finding finding : result.findings()) {
+                anomalies.add(toAnomaly(finding, snapshot));
+            }
+            anomalies.sort(Comparator.comparing(Anomaly::type)
+                    .thenComparing(a -> a.memberIds().get(0)));
+
+            report = new ScanReport(ScanStatus.COMPLETED, startedAt, Instant.now(),
+                    snapshot.memberIds().length, snapshot.relationshipIds().length,
+                    result.componentCount(), result.largestComponent(), anomalies);
+            log.info("Integrity scan completed: {} members, {} relationships, {} components, {} anomalies " +
+                            "(load {} ms, check {} ms)",
+                    snapshot.memberIds().length, snapshot.relationshipIds().length, result.componentCount(),
+                    anomalies.size(), (loaded - start) / 1_000_000, (System.nanoTime() - loaded) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Integrity scan failed", e);
+            report = new ScanReport(ScanStatus.FAILED, startedAt, Instant.now(), 0, 0, 0, 0, List.of());
+        }
+    }
+
+    private Snapshot load() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> {
+            Map<UUID, Integer> indexById = new HashMap<>();
+            List<UUID> memberIds = new ArrayList<>();
+            int[] birthDays = new int[1024];
+            int[] generations = new int[1024];
+            boolean[] bloodRelative = new boolean[1024];
+            try (Stream<MemberIntegrityView> members = memberRepository.streamIntegrityColumns()) {
+                Iterator<MemberIntegrityView> iterator = members.iterator();
+                while (iterator.hasNext()) {
+                    MemberIntegrityView member = iterator.next();
+                    int node = memberIds.size();
+                    if (node == birthDays.length) {
+                        birthDays = Arrays.copyOf(birthDays, node * 2);
+                        generations = Arrays.copyOf(generations, node * 2);
+                        bloodRelative = Arrays.copyOf(bloodRelative, node * 2);
+                    }
+                    indexById.put(member.getId(), node);
+                    memberIds.add(member.getId());
+                    birthDays[node] = member.getBirthDate() != null
+                            ? (int) member.getBirthDate().toEpochDay()
+                            : IntegrityScanner.NONE;
+                    generations[node] = member.getGeneration() != null
+                            ? member.getGeneration()
+                            : IntegrityScanner.NONE;
+                    bloodRelative[node] = !Boolean.FALSE.equals(member.getIsBloodRelative());
+                }
+            }
+
+            List<UUID> relationshipIds = new ArrayList<>();
+            int[] edgeFrom = new int[1024];
+            int[] edgeTo = new int[1024];
+            boolean[] spouse = new boolean[1024];
+            try (Stream<RelationshipRowView> rows = relationshipRepository.streamAllRows()) {
+                Iterator<RelationshipRowView> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    RelationshipRowView row = iterator.next();
+                    Integer from = indexById.get(row.getFromMemberId());
+                    Integer to = indexById.get(row.getToMemberId());
+                    if (from == null || to == null) {
+                        continue;  // Member created after the member pass
+                    }
+                    int edge = relationshipIds.size();
+                    if (edge == edgeFrom.length) {
+                        edgeFrom = Arrays.copyOf(edgeFrom, edge * 2);
+                        edgeTo = Arrays.copyOf(edgeTo, edge * 2);
+                        spouse = Arrays.copyOf(spouse, edge * 2);
+                    }
+                    relationshipIds.add(row.getId());
+                    edgeFrom[edge] = from;
+                    edgeTo[edge] = to;
+                    spouse[edge] = row.getRelationshipType() == RelationshipType.SPOUSE;
+                }
+            }
+
+            int edgeCount = relationshipIds.size();
+            return new Snapshot(memberIds.toArray(new UUID[0]), relationshipIds.toArray(new UUID[0]),
+                    Arrays.copyOf(birthDays, memberIds.size()), Arrays.copyOf(generations, memberIds.size()),
+                    Arrays.copyOf(bloodRelative, memberIds.size()),
+                    Arrays.copyOf(edgeFrom, edgeCount), Arrays.copyOf(edgeTo, edgeCount), Arrays.copyOf(spouse, edgeCount));
+        });
+    }
+
+    private Anomaly toAnomaly(IntegrityScanner.Finding finding, Snapshot snapshot) {
+        List<UUID> memberIds = Arrays.stream(finding.members())
+                .mapToObj(node -> snapshot.memberIds()[node])
+                .collect(Collectors.toList());
+        UUID relationshipId = finding.edge() >= 0 ? snapshot.relationshipIds()[finding.edge()] : null;
+
+        String message = switch (finding.type()) {
+            case TOO_MANY_PARENTS -> String.format("Thành viên có %d cha mẹ (tối đa %d)",
+                    finding.value1(), finding.value2());
+            case ONE_WAY_SPOUSE -> "Quan hệ vợ chồng chỉ được lưu một chiều";
+            case PARENT_CHILD_CYCLE -> String.format("Chu trình quan hệ cha mẹ - con gồm %d thành viên",
+                    finding.value1());
+            case CHILD_BORN_BEFORE_PARENT -> String.format("Con sinh ngày %s, trước cha/mẹ (sinh ngày %s)",
+                    LocalDate.ofEpochDay(finding.value1()), LocalDate.ofEpochDay(finding.value2()));
+            case GENERATION_MISMATCH -> String.format("Con ở đời %d nhưng cha/mẹ ở đời %d",
+                    finding.value1(), finding.value2());
+        };
+        return new Anomaly(finding.type(), memberIds, relationshipId, message);
+    }
+
+    public enum ScanStatus {
+        IDLE, RUNNING, COMPLETED, FAILED
+    }
+
+    private record Anomaly(AnomalyType type, List<UUID> memberIds, UUID relationshipId, String message) {
+    }
+
+    private record ScanReport(ScanStatus status,
+                              Instant startedAt,
+                              Instant finishedAt,
+                              int memberCount,
+                              int relationshipCount,
+                              int componentCount,
+                              int largestComponent,
+                              List<Anomaly> anomalies) {
+    }
+
+    private record Snapshot(UUID[] memberIds,
+                            UUID[] relationshipIds,
+                            int[] birthDays,
+                            int[] generations,
+                            boolean[] bloodRelative,
+                            int[] edgeFrom,
+                            int[] edgeTo,
+                            boolean[] spouse) {
+    }
+}
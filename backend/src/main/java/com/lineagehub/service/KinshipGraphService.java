@@ -0,0 +1,377 @@
+package com.lineagehub.service;
+
+import com.lineagehub.entity.Member;
+import com.lineagehub.entity.enums.Gender;
+import com.lineagehub.entity.enums.RelationshipType;
+import com.lineagehub.graph.KinshipGraph;
+import com.lineagehub.graph.KinshipCoefficients;
+import com.lineagehub.graph.KinshipGraphChangedEvent;
+import com.lineagehub.repository.MemberRepository;
+import com.lineagehub.repository.RelationshipRepository;
+import com.lineagehub.repository.projection.MemberNodeView;
+import com.lineagehub.repository.projection.RelationshipEdgeView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Owns the resident kinship graph.
+ * The graph is loaded once from the relationships table and kept in sync by the write services;
+ * changes are applied after the surrounding transaction commits and announced with a KinshipGraphChangedEvent.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class KinshipGraphService {
+
+    private final MemberRepository memberRepository;
+    private final RelationshipRepository relationshipRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile KinshipGraph graph;
+    private volatile long version;
+    private volatile CoefficientSnapshot coefficientSnapshot;
+
+    // ===== Queries =====
+
+    /**
+     * Get all member IDs in a subtree (including root and spouses)
+     */
+    public Set<UUID> getSubtreeIds(UUID rootMemberId) {
+        return read(g -> {
+            int root = g.indexOf(rootMemberId);
+            if (root < 0) {
+                return new HashSet<>(Set.of(rootMemberId));
+            }
+            return g.toIds(g.subtree(root));
+        });
+    }
+
+    /**
+     * Get descendant IDs (including root) up to maxDepth generations
+     */
+    public Set<UUID> getDescendantIds(UUID rootMemberId, int maxDepth) {
+        return read(g -> {
+            int root = g.indexOf(rootMemberId);
+            if (root < 0) {
+                return new HashSet<>(Set.of(rootMemberId));
+            }
+            return g.toIds(g.descendants(root, maxDepth));
+        });
+    }
+
+    /**
+     * Check if ancestorId is an ancestor of memberId (or the same member)
+     */
+    public boolean isAncestorOrSelf(UUID ancestorId, UUID memberId) {
+        if (ancestorId.equals(memberId)) {
+            return true;
+        }
+        return read(g -> g.isAncestorOrSelf(g.indexOf(ancestorId), g.indexOf(memberId)));
+    }
+
+    /**
+     * Get dense id of a member in the graph, or -1 if absent
+     */
+    public int indexOf(UUID memberId) {
+        return read(g -> g.indexOf(memberId));
+    }
+
+    /**
+     * Version of the graph, incremented on every applied change.
+     * Read it inside read() to get the version matching the snapshot being queried.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Lowest common blood-line ancestor of two members (may be one of them)
+     */
+    public Optional<CommonAncestor> getCommonAncestor(UUID memberId1, UUID memberId2) {
+        return read(g -> commonAncestor(g, g.indexOf(memberId1), g.indexOf(memberId2)));
+    }
+
+    /**
+     * Lowest common blood-line ancestors for many pairs under a single read lock.
+     * Result i is null when pair i has no common ancestor.
+     */
+    public List<CommonAncestor> getCommonAncestors(List<UUID> memberIds1, List<UUID> memberIds2) {
+        return read(g -> {
+            List<CommonAncestor> result = new ArrayList<>(memberIds1.size());
+            for (int i = 0; i < memberIds1.size(); i++) {
+                result.add(commonAncestor(g, g.indexOf(memberIds1.get(i)), g.indexOf(memberIds2.get(i))).orElse(null));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Kinship coefficients for many pairs under a single read lock.
+     * The topological order and the memo of ancestor pairs are shared by all calls on the same graph version.
+     * Result i is NaN when a member of pair i is not in the graph.
+     */
+    public double[] getKinshipCoefficients(List<UUID> memberIds1, List<UUID> memberIds2) {
+        return read(g -> {
+            CoefficientSnapshot snapshot = coefficientSnapshot;
+            if (snapshot == null || snapshot.version() != version) {
+                snapshot = new CoefficientSnapshot(version, new KinshipCoefficients(g));
+                coefficientSnapshot = snapshot;
+            }
+
+            double[] result = new double[memberIds1.size()];
+            for (int i = 0; i < result.length; i++) {
+                int a = g.indexOf(memberIds1.get(i));
+                int b = g.indexOf(memberIds2.get(i));
+                result[i] = a >= 0 && b >= 0 ? snapshot.coefficients().coefficient(a, b) : Double.NaN;
+            }
+            return result;
+        });
+    }
+
+    public KinshipGraph.GraphStats getStats() {
+        return read(KinshipGraph::stats);
+    }
+
+    /**
+     * Run a query against the graph under the read lock
+     */
+    public <T> T read(Function<KinshipGraph, T> query) {
+        KinshipGraph g = loadedGraph();
+        lock.readLock().lock();
+        try {
+            return query.apply(g);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ===== Sync (called by write services inside their transaction) =====
+
+    public void onMemberCreated(Member member) {
+        onMemberSaved(member);
+    }
+
+    public void onMemberUpdated(Member member) {
+        onMemberSaved(member);
+    }
+
+    public void onMemberDeleted(UUID memberId) {
+        // Former relatives are affected too: collect them before the member's edges are dropped
+        List<UUID> affected = new ArrayList<>(List.of(memberId));
+        afterCommit(affected, g -> {
+            affected.addAll(relativeIds(g, g.indexOf(memberId)));
+            g.removeMember(memberId);
+        });
+    }
+
+    public void onParentChildCreated(UUID parentId, UUID childId) {
+        afterCommit(List.of(parentId, childId), g -> g.addParentChild(parentId, childId));
+    }
+
+    public void onParentChildDeleted(UUID parentId, UUID childId) {
+        afterCommit(List.of(parentId, childId), g -> g.removeParentChild(parentId, childId));
+    }
+
+    public void onSpouseCreated(UUID memberId, UUID spouseId) {
+        afterCommit(List.of(memberId, spouseId), g -> g.addSpouse(memberId, spouseId));
+    }
+
+    public void onSpouseDeleted(UUID memberId, UUID spouseId) {
+        afterCommit(List.of(memberId, spouseId), g -> g.removeSpouse(memberId, spouseId));
+    }
+
+    /**
+     * Store generations derived by GenerationService (already committed). Generations are derived from the
+     * graph and no cache depends on them, so this neither bumps the version nor publishes an event.
+     */
+    public void onGenerationsUpdated(Map<UUID, Integer> generations) {
+        lock.writeLock().lock();
+        try {
+            if (graph != null) {
+                generations.forEach((memberId, generation) -> {
+                    if (graph.indexOf(memberId) >= 0) {
+                        graph.setGeneration(memberId, generation);
+                    }
+                });
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drop the current graph; it is reloaded from the database on next access
+     */
+    public void reload() {
+        long newVersion;
+        lock.writeLock().lock();
+        try {
+            graph = null;
+            newVersion = ++version;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        eventPublisher.publishEvent(KinshipGraphChangedEvent.reloaded(newVersion));
+    }
+
+    // ===== Internals =====
+
+    private void onMemberSaved(Member member) {
+        // Capture the values now: the entity may change before the transaction commits
+        UUID memberId = member.getId();
+        boolean bloodRelative = !Boolean.FALSE.equals(member.getIsBloodRelative());
+        boolean deceased = member.isDeceased();
+        Gender gender = member.getGender();
+        int birthDay = member.getBirthDate() != null
+                ? (int) member.getBirthDate().toEpochDay()
+                : KinshipGraph.UNKNOWN_BIRTH_DAY;
+        Integer generation = member.getGeneration();
+        String branchName = member.getBranchName();
+        afterCommit(List.of(memberId), g -> {
+            g.setBloodRelative(memberId, bloodRelative);
+            g.setDeceased(memberId, deceased);
+            g.setGender(memberId, gender);
+            g.setBirthDay(memberId, birthDay);
+            g.setGeneration(memberId, generation);
+            g.setBranchName(memberId, branchName);
+        });
+    }
+
+    private void afterCommit(List<UUID> memberIds, Consumer<KinshipGraph> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(memberIds, change);
+                }
+            });
+        } else {
+            apply(memberIds, change);
+        }
+    }
+
+    private void apply(List<UUID> memberIds, Consumer<KinshipGraph> change) {
+        BitSet nodes = new BitSet();
+        long newVersion;
+        lock.writeLock().lock();
+        try {
+            // Not loaded yet: the next load reads the committed change from the database
+            if (graph != null) {
+                collectNodes(graph, memberIds, nodes);
+                change.accept(graph);
+                collectNodes(graph, memberIds, nodes);
+            }
+            newVersion = ++version;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        eventPublisher.publishEvent(new KinshipGraphChangedEvent(memberIds, nodes, newVersion, false));
+    }
+
+    private List<UUID> relativeIds(KinshipGraph g, int node) {
+        List<UUID> result = new ArrayList<>();
+        if (!g.contains(node)) {
+            return result;
+        }
+        for (int k = 0; k < g.parentCount(node); k++) {
+            result.add(g.idOf(g.parentAt(node, k)));
+        }
+        for (int k = 0; k < g.childCount(node); k++) {
+            result.add(g.idOf(g.childAt(node, k)));
+        }
+        for (int k = 0; k < g.spouseCount(node); k++) {
+            result.add(g.idOf(g.spouseAt(node, k)));
+        }
+        return result;
+    }
+
+    private void collectNodes(KinshipGraph g, List<UUID> memberIds, BitSet nodes) {
+        for (UUID memberId : memberIds) {
+            int node = g.indexOf(memberId);
+            if (node >= 0) {
+                nodes.set(node);
+            }
+        }
+    }
+
+    private Optional<CommonAncestor> commonAncestor(KinshipGraph g, int a, int b) {
+        int ancestor = g.lowestCommonAncestor(a, b);
+        if (ancestor < 0) {
+            return Optional.empty();
+        }
+        int ancestorDepth = g.lineageDepth(ancestor);
+        return Optional.of(new CommonAncestor(g.idOf(ancestor),
+                g.lineageDepth(a) - ancestorDepth, g.lineageDepth(b) - ancestorDepth));
+    }
+
+    private KinshipGraph loadedGraph() {
+        KinshipGraph g = graph;
+        if (g != null) {
+            return g;
+        }
+
+        lock.writeLock().lock();
+        try {
+            if (graph == null) {
+                graph = load();
+            }
+            return graph;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private KinshipGraph load() {
+        long start = System.nanoTime();
+        KinshipGraph g = new KinshipGraph();
+
+        for (MemberNodeView member : memberRepository.findAllNodes()) {
+            g.addMember(member.getId());
+            g.setBloodRelative(member.getId(), !Boolean.FALSE.equals(member.getIsBloodRelative()));
+            g.setDeceased(member.getId(), Boolean.TRUE.equals(member.getIsDeceased()));
+            g.setGender(member.getId(), member.getGender());
+            g.setBirthDay(member.getId(), member.getBirthDate() != null
+                    ? (int) member.getBirthDate().toEpochDay()
+                    : KinshipGraph.UNKNOWN_BIRTH_DAY);
+            g.setGeneration(member.getId(), member.getGeneration());
+            g.setBranchName(member.getId(), member.getBranchName());
+        }
+
+        for (RelationshipEdgeView edge : relationshipRepository.findAllEdges()) {
+            if (edge.getRelationshipType() == RelationshipType.PARENT_CHILD) {
+                g.addParentChild(edge.getFromMemberId(), edge.getToMemberId());
+            } else {
+                g.addSpouse(edge.getFromMemberId(), edge.getToMemberId());
+            }
+        }
+
+        g.buildLineageIndex();
+
+        KinshipGraph.GraphStats stats = g.stats();
+        log.info("Kinship graph loaded in {} ms: {} members, {} parent-child edges, {} spouse edges, " +
+                        "~{} KB ({} bytes per 100k edges)",
+                (System.nanoTime() - start) / 1_000_000, stats.members(), stats.parentChildEdges(),
+                stats.spouseEdges(), stats.estimatedBytes() / 1024, stats.bytesPer100kEdges());
+        return g;
+    }
+
+    private record CoefficientSnapshot(long version, KinshipCoefficients coefficients) {
+    }
+
+    /**
+     * Common ancestor and the number of generations from each member up to it
+     */
+    public record CommonAncestor(UUID ancestorId, int generationsFromFirst, int generationsFromSecond) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.lineagehub.service;
+
+import com.lineagehub.graph.KinshipGraph;
+import com.lineagehub.graph.KinshipGraphChangedEvent;
+import com.lineagehub.graph.KinshipLabeller;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.function.BiFunction;
+
+/**
+ * Kinship terms of the members of the tree as seen from an ego member.
+ * All members connected to an ego are labelled in one pass (KinshipLabeller) and kept per ego, least recently
+ * used first out once the labellings exceed MAX_CACHE_BYTES. A labelling is dropped when a graph change touches
+ * one of the members it covers, and never served for a graph version other than the one it was computed from.
+ * Users linked to a member use it as ego for their "relation to me" fields, so the cache is effectively per user.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class KinshipLabelService {
+
+    private static final long MAX_CACHE_BYTES = 64L * 1024 * 1024;
+
+    private final KinshipGraphService kinshipGraphService;
+
+    // Access-ordered: eldest entry is the least recently used
+    private final LinkedHashMap<UUID, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    /**
+     * Relation of each given member to the ego; unrelated members and members not in the graph are left out
+     */
+    public Map<UUID, Relation> getRelations(UUID egoMemberId, Collection<UUID> memberIds) {
+        return labelled(egoMemberId, (g, labelling) -> {
+            Map<UUID, Relation> relations = new HashMap<>();
+            for (UUID memberId : memberIds) {
+                int node = g.indexOf(memberId);
+                String term = labelling.labelOf(node);
+                if (term != null) {
+                    relations.put(memberId, new Relation(term, labelling.distanceOf(node)));
+                }
+            }
+            return relations;
+        });
+    }
+
+    /**
+     * Labelling of every member connected to the ego, indexed by dense id. Immutable, so it can be read
+     * outside the graph lock (members added since are unlabelled)
+     */
+    public KinshipLabeller.Labelling getLabelling(UUID egoMemberId) {
+        return labelled(egoMemberId, (g, labelling) -> labelling);
+    }
+
+    public Optional<Relation> getRelation(UUID egoMemberId, UUID memberId) {
+        return Optional.ofNullable(getRelations(egoMemberId, List.of(memberId)).get(memberId));
+    }
+
+    /**
+     * Run a query against the ego's labelling under the graph read lock, labelling on a cache miss
+     * or when the cached labelling is of an older graph version
+     */
+    private <T> T labelled(UUID egoMemberId, BiFunction<KinshipGraph, KinshipLabeller.Labelling, T> query) {
+        Entry cached;
+        synchronized (this) {
+            cached = entries.get(egoMemberId);
+        }
+
+        Entry[] computed = new Entry[1];
+        T result = kinshipGraphService.read(g -> {
+            // Version bumped before the change event dropping the entry is delivered: the entry may be stale
+            Entry entry = cached;
+            if (entry == null || entry.version() != kinshipGraphService.getVersion()) {
+                entry = new Entry(KinshipLabeller.label(g, g.indexOf(egoMemberId)), kinshipGraphService.getVersion());
+                computed[0] = entry;
+            }
+            return query.apply(g, entry.labelling());
+        });
+
+        if (computed[0] != null) {
+            put(egoMemberId, computed[0]);
+        }
+        return result;
+    }
+
+    @EventListener
+    public synchronized void onGraphChanged(KinshipGraphChangedEvent event) {
+        Iterator<Map.Entry<UUID, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<UUID, Entry> e = iterator.next();
+            if (event.affects(e.getValue().labelling().related())) {
+                log.debug("Invalidating kinship terms of ego {}", e.getKey());
+                cachedBytes -= e.getValue().labelling().estimatedBytes();
+                iterator.remove();
+            }
+        }
+    }
+
+    private synchronized void put(UUID egoMemberId, Entry entry) {
+        // A graph change may have been applied while computing: don't keep a possibly stale entry
+        if (kinshipGraphService.getVersion() != entry.version()) {
+            return;
+        }
+
+        Entry previous = entries.put(egoMemberId, entry);
+        if (previous != null) {
+            cachedBytes -= previous.labelling().estimatedBytes();
+        }
+        cachedBytes += entry.labelling().estimatedBytes();
+
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (cachedBytes > MAX_CACHE_BYTES && entries.size() > 1) {
+            cachedBytes -= eldest.next().labelling().estimatedBytes();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * term is the Vietnamese kinship term of the member as seen from the ego; distance is the number of
+     * parent, child and spouse steps of the relation
+     */
+    public record Relation(String term, int distance) {
+    }
+
+    private record Entry(KinshipLabeller.Labelling labelling, long version) {
+    }
+}
@@ -0,0 +1,106 @@
+package com.lineagehub.service;
+
+import com.lineagehub.repository.MemberClosureRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Maintains the member_closure table (ancestor/descendant pairs of the PARENT_CHILD graph).
+ * Write hooks join the caller's transaction, so the closure always matches the relationships table.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MemberClosureService {
+
+    private final MemberClosureRepository memberClosureRepository;
+
+    // ===== Queries =====
+
+    /**
+     * Check if ancestorId is an ancestor of memberId (or the same member)
+     */
+    @Transactional(readOnly = true)
+    public boolean isAncestorOrSelf(UUID ancestorId, UUID memberId) {
+        return memberClosureRepository.existsByIdAncestorIdAndIdDescendantId(ancestorId, memberId);
+    }
+
+    /**
+     * Get descendant IDs (including the member itself) up to maxDepth generations
+     */
+    @Transactional(readOnly = true)
+    public List<UUID> getDescendantIds(UUID memberId, int maxDepth) {
+        return memberClosureRepository.findDescendantIds(memberId, maxDepth);
+    }
+
+    /**
+     * Get ancestor IDs (including the member itself) up to maxDepth generations
+     */
+    @Transactional(readOnly = true)
+    public List<UUID> getAncestorIds(UUID memberId, int maxDepth) {
+        return memberClosureRepository.findAncestorIds(memberId, maxDepth);
+    }
+
+    @Transactional(readOnly = true)
+    public List<UUID> getChildIds(UUID memberId) {
+        return memberClosureRepository.findChildIds(memberId);
+    }
+
+    // ===== Write hooks =====
+
+    @Transactional
+    public void onMemberCreated(UUID memberId) {
+        memberClosureRepository.flush();
+        memberClosureRepository.insertSelf(memberId);
+    }
+
+    @Transactional
+    public void onParentChildCreated(UUID parentId, UUID childId) {
+        memberClosureRepository.flush();
+        memberClosureRepository.link(parentId, childId);
+    }
+
+    /**
+     * Must be called after the relationship row has been deleted
+     */
+    @Transactional
+    public void onParentChildDeleted(UUID childId) {
+        memberClosureRepository.flush();
+        resyncSubtree(childId);
+    }
+
+    /**
+     * Must be called after the member has been deleted.
+     * Rows of the member itself are removed by ON DELETE CASCADE; paths through it are re-derived here.
+     */
+    @Transactional
+    public void onMemberDeleted(List<UUID> formerChildIds) {
+        memberClosureRepository.flush();
+        for (UUID childId : formerChildIds) {
+            resyncSubtree(childId);
+        }
+    }
+
+    /**
+     * Rebuild the whole closure from the relationships table
+     */
+    @Transactional
+    public int rebuild() {
+        log.info("Rebuilding member closure");
+        memberClosureRepository.flush();
+        memberClosureRepository.deleteAllRows();
+        int rows = memberClosureRepository.insertAllRows();
+        log.info("Member closure rebuilt with {} rows", rows);
+        return rows;
+    }
+
+    private void resyncSubtree(UUID rootId) {
+        memberClosureRepository.deleteRowsEnteringSubtree(rootId);
+        memberClosureRepository.rederiveRowsEnteringSubtree(rootId);
+    }
+}
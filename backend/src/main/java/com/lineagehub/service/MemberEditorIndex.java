@@ -0,0 +1,215 @@
+package com.lineagehub.service;
+
+import com.lineagehub.graph.KinshipGraph;
+import com.lineagehub.graph.KinshipGraphChangedEvent;
+import com.lineagehub.repository.UserRoleRepository;
+import com.lineagehub.repository.projection.BranchAssignmentView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Reverse authorization index: which BRANCH_ADMIN users can edit a given member.
+ * A member is in the subtree of a managed member R when R is the member itself or one of its ancestors,
+ * or the same for one of its spouses. The index maps each managed member to the users managing it, so the
+ * editors of a member are found by walking up from the member and its spouses, without computing any subtree.
+ * The managed-member map is loaded once and updated on role changes after commit; relationship changes need no
+ * maintenance since the walk reads the current graph.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MemberEditorIndex {
+
+    private final KinshipGraphService kinshipGraphService;
+    private final UserRoleRepository userRoleRepository;
+
+    // Managed member -> users managing it; replaced as a whole on change, null until first needed
+    private volatile Map<UUID, Set<UUID>> usersByManagedMember;
+
+    /**
+     * BRANCH_ADMIN users that can edit the member, each with the managed members whose subtree contains it
+     */
+    public Map<UUID, List<UUID>> getEditors(UUID memberId) {
+        Map<UUID, Set<UUID>> index = index();
+        return kinshipGraphService.read(g -> {
+            Map<UUID, List<UUID>> editors = new LinkedHashMap<>();
+            int node = g.indexOf(memberId);
+            if (!g.contains(node)) {
+                return editors;
+            }
+            BitSet roots = new BitSet();
+            collectSubtreeRoots(g, node, roots);
+            for (int root = roots.nextSetBit(0); root >= 0; root = roots.nextSetBit(root + 1)) {
+                UUID rootId = g.idOf(root);
+                for (UUID userId : index.getOrDefault(rootId, Set.of())) {
+                    editors.computeIfAbsent(userId, u -> new ArrayList<>()).add(rootId);
+                }
+            }
+            return editors;
+        });
+    }
+
+    /**
+     * Users whose editable members may have changed with a graph change, for targeted cache invalidation;
+     * null when the whole graph was reloaded
+     */
+    public Set<UUID> getUsersAffectedBy(KinshipGraphChangedEvent event) {
+        if (event.reloaded()) {
+            return null;
+        }
+        Map<UUID, Set<UUID>> index = index();
+        if (index.isEmpty()) {
+            return Set.of();
+        }
+        // The event holds the members touched before and after the change, so walking up from those still
+        // in the graph reaches every managed member whose subtree gained or lost someone
+        return kinshipGraphService.read(g -> {
+            BitSet roots = new BitSet();
+            BitSet nodes = event.nodes();
+            for (int node = nodes.nextSetBit(0); node >= 0; node = nodes.nextSetBit(node + 1)) {
+                if (g.contains(node)) {
+                    collectSubtreeRoots(g, node, roots);
+                }
+            }
+            Set<UUID> users = new HashSet<>();
+            for (int root = roots.nextSetBit(0); root >= 0; root = roots.nextSetBit(root + 1)) {
+                users.addAll(index.getOrDefault(g.idOf(root), Set.of()));
+            }
+            return users;
+        });
+    }
+
+    /**
+     * Check whether the index holds exactly the given managed members for a user
+     * (false while a role change of the user is not applied yet)
+     */
+    public boolean isIndexed(UUID userId, Collection<UUID> managedMemberIds) {
+        Set<UUID> indexed = new HashSet<>();
+        index().forEach((managedMemberId, userIds) -> {
+            if (userIds.contains(userId)) {
+                indexed.add(managedMemberId);
+            }
+        });
+        return indexed.equals(new HashSet<>(managedMemberIds));
+    }
+
+    // ===== Sync (called by write services inside their transaction) =====
+
+    public void onBranchAdded(UUID userId, UUID managedMemberId) {
+        afterCommit(index -> index.computeIfAbsent(managedMemberId, m -> new HashSet<>()).add(userId));
+    }
+
+    public void onBranchRemoved(UUID userId, UUID managedMemberId) {
+        afterCommit(index -> removeUser(index, managedMemberId, userId));
+    }
+
+    public void onUserRolesReplaced(UUID userId, Collection<UUID> managedMemberIds) {
+        List<UUID> roots = List.copyOf(managedMemberIds);
+        afterCommit(index -> {
+            for (UUID managedMemberId : new ArrayList<>(index.keySet())) {
+                removeUser(index, managedMemberId, userId);
+            }
+            for (UUID managedMemberId : roots) {
+                index.computeIfAbsent(managedMemberId, m -> new HashSet<>()).add(userId);
+            }
+        });
+    }
+
+    public void onUserDeleted(UUID userId) {
+        onUserRolesReplaced(userId, List.of());
+    }
+
+    /**
+     * Roles on a deleted member are removed with it (ON DELETE CASCADE)
+     */
+    public void onMemberDeleted(UUID memberId) {
+        afterCommit(index -> index.remove(memberId));
+    }
+
+    // ===== Internals =====
+
+    private synchronized Map<UUID, Set<UUID>> index() {
+        if (usersByManagedMember == null) {
+            Map<UUID, Set<UUID>> index = new HashMap<>();
+            for (BranchAssignmentView assignment : userRoleRepository.findAllBranchAssignments()) {
+                index.computeIfAbsent(assignment.getManagedMemberId(), m -> new HashSet<>()).add(assignment.getUserId());
+            }
+            usersByManagedMember = freeze(index);
+            log.info("Member editor index loaded: {} managed members", index.size());
+        }
+        return usersByManagedMember;
+    }
+
+    private void afterCommit(Consumer<Map<UUID, Set<UUID>>> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private synchronized void apply(Consumer<Map<UUID, Set<UUID>>> change) {
+        // Not loaded yet: the next load reads the committed change from the database.
+        // Changes are idempotent, so one already seen by a load can safely be applied again.
+        if (usersByManagedMember == null) {
+            return;
+        }
+        Map<UUID, Set<UUID>> index = new HashMap<>();
+        usersByManagedMember.forEach((managedMemberId, userIds) -> index.put(managedMemberId, new HashSet<>(userIds)));
+        change.accept(index);
+        usersByManagedMember = freeze(index);
+    }
+
+    private static void removeUser(Map<UUID, Set<UUID>> index, UUID managedMemberId, UUID userId) {
+        Set<UUID> userIds = index.get(managedMemberId);
+        if (userIds != null && userIds.remove(userId) && userIds.isEmpty()) {
+            index.remove(managedMemberId);
+        }
+    }
+
+    private static Map<UUID, Set<UUID>> freeze(Map<UUID, Set<UUID>> index) {
+        Map<UUID, Set<UUID>> frozen = new HashMap<>();
+        index.forEach((managedMemberId, userIds) -> frozen.put(managedMemberId, Set.copyOf(userIds)));
+        return Collections.unmodifiableMap(frozen);
+    }
+
+    /**
+     * Members whose subtree contains node: the ancestors of node and of its spouses, themselves included
+     */
+    private static void collectSubtreeRoots(KinshipGraph g, int node, BitSet roots) {
+        collectAncestors(g, node, roots);
+        for (int k = 0, c = g.spouseCount(node); k < c; k++) {
+            collectAncestors(g, g.spouseAt(node, k), roots);
+        }
+    }
+
+    private static void collectAncestors(KinshipGraph g, int node, BitSet ancestors) {
+        if (ancestors.get(node)) {
+            return;
+        }
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        ancestors.set(node);
+        queue.add(node);
+        while (!queue.isEmpty()) {
+            int current = queue.poll();
+            for (int k = 0, c = g.parentCount(current); k < c; k++) {
+                int parent = g.parentAt(current, k);
+                if (!ancestors.get(parent)) {
+                    ancestors.set(parent);
+                    queue.add(parent);
+                }
+            }
+        }
+    }
+}
@@ -11,50 +11,117 @@ import com.lineagehub.entity.enums.RelationshipType;
 import com.lineagehub.exception.BusinessException;
 import com.lineagehub.exception.ResourceNotFoundException;
 import com.lineagehub.exception.UnauthorizedException;
+import com.lineagehub.graph.KinshipGraph;
 import com.lineagehub.mapper.MemberMapper;
 import com.lineagehub.repository.MemberRepository;
 import com.lineagehub.repository.RelationshipRepository;
 import com.lineagehub.repository.UserRepository;
+import com.lineagehub.repository.projection.FamilyNodeView;
+import com.lineagehub.repository.projection.TreeNodeView;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MemberService {
 
+    private static final int MAX_SUBTREE_PAGE_SIZE = 2000;
+    private static final int MAX_FAMILY_PAGE_SIZE = 500;
+    private static final int MAX_NEIGHBORHOOD_RADIUS = 4;
+    private static final int MAX_NEIGHBORHOOD_NODES = 1000;
+    private static final UUID MIN_UUID = new UUID(0L, 0L);
+    private static final String SPOUSE_KIND = "SPOUSE";
+
     private final MemberRepository memberRepository;
     private final RelationshipRepository relationshipRepository;
     private final UserRepository userRepository;
     private final MemberMapper memberMapper;
     private final AuthorizationService authorizationService;
+    private final KinshipGraphService kinshipGraphService;
+    private final MemberClosureService memberClosureService;
+    private final DescendantStatsService descendantStatsService;
+    private final KinshipLabelService kinshipLabelService;
+    private final MemberEditorIndex memberEditorIndex;
 
     @Transactional(readOnly = true)
     public Page<MemberResponse> getMembers(String search, Integer generation, Gender gender, 
-                                           Boolean isBloodRelative, Boolean isDeceased, 
+                                           Boolean isBloodRelative, Boolean isDeceased, boolean editableOnly,
                                            Pageable pageable, UUID currentUserId) {
         log.info("Fetching members with filters");
         
         User currentUser = userRepository.findById(currentUserId)
                 .orElseThrow(() -> new ResourceNotFoundException("User", currentUserId));
         
+        // Editable only: no restriction for SUPER_ADMIN, nothing for USER, managed subtrees (in SQL) for BRANCH_ADMIN
+        UUID editableByUserId = null;
+        if (editableOnly && !currentUser.isSuperAdmin()) {
+            if (!currentUser.isBranchAdmin()) {
+                return Page.empty(pageable);
+            }
+            editableByUserId = currentUserId;
+        }
+        
         Page<Member> members = memberRepository.findByFilters(
-                search, generation, gender, isBloodRelative, isDeceased, pageable);
+                search, generation, gender, isBloodRelative, isDeceased, editableByUserId, pageable);
+        
+        // Evaluate canEdit, descendant counts and relations to the current user for the whole page at once
+        List<Member> content = members.getContent();
+        List<UUID> memberIds = content.stream().map(Member::getId).collect(Collectors.toList());
+        BitSet editable;
+        if (editableOnly) {
+            editable = new BitSet(memberIds.size());
+            editable.set(0, memberIds.size());
+        } else {
+            editable = authorizationService.canEditMembers(currentUser, memberIds);
+        }
+        Map<UUID, DescendantStatsService.DescendantStats> stats = descendantStatsService.getStats(memberIds);
+        Map<UUID, KinshipLabelService.Relation> relations = currentUser.getMemberId() != null
+                ? kinshipLabelService.getRelations(currentUser.getMemberId(), memberIds)
+                : Map.of();
+        
+        List<MemberResponse> responses = new ArrayList<>(content.size());
+        for (int i = 0; i < content.size(); i++) {
+            MemberResponse response = memberMapper.toResponse(content.get(i));
+            response.setCanEdit(editable.get(i));
+            DescendantStatsService.DescendantStats memberStats = stats.get(memberIds.get(i));
+            if (memberStats != null) {
+                response.setDescendantCount(memberStats.descendants());
+                response.setLivingDescendantCount(memberStats.livingDescendants());
+                response.setMaxDescendantDepth(memberStats.maxDepth());
+            }
+            KinshipLabelService.Relation relation = relations.get(memberIds.get(i));
+            if (relation != null) {
+                response.setRelationToMe(relation.term());
+                response.setRelationDistance(relation.distance());
+            }
+            responses.add(response);
+        }
         
-        return members.map(member -> {
-            MemberResponse response = memberMapper.toResponse(member);
-            response.setCanEdit(authorizationService.canEditMember(currentUser, member.getId()));
-            return response;
-        });
+        return new PageImpl<>(responses, pageable, members.getTotalElements());
     }
 
     @Transactional(readOnly = true)
@@ -67,6 +134,17 @@ public class MemberService {
         
         MemberDetailResponse response = memberMapper.toDetailResponse(member);
         response.setCanEdit(authorizationService.canEditMember(currentUser, member.getId()));
+        descendantStatsService.getStats(id).ifPresent(stats -> {
+            response.setDescendantCount(stats.descendants());
+            response.setLivingDescendantCount(stats.livingDescendants());
+            response.setMaxDescendantDepth(stats.maxDepth());
+        });
+        if (currentUser.getMemberId() != null) {
+            kinshipLabelService.getRelation(currentUser.getMemberId(), id).ifPresent(relation -> {
+                response.setRelationToMe(relation.term());
+                response.setRelationDistance(relation.distance());
+            });
+        }
         
         // Load relationships
         MemberRelationshipsResponse relationships = loadMemberRelationships(id);
@@ -104,6 +182,8 @@ public class MemberService {
         member.setCreatedBy(currentUser);
         
         Member savedMember = memberRepository.save(member);
+        memberClosureService.onMemberCreated(savedMember.getId());
+        kinshipGraphService.onMemberCreated(savedMember);
         
         // Create parent relationships
         if (request.getParentIds() != null) {
@@ -119,6 +199,8 @@ public class MemberService {
                         .build();
                 
                 relationshipRepository.save(relationship);
+                memberClosureService.onParentChildCreated(parentId, savedMember.getId());
+                kinshipGraphService.onParentChildCreated(parentId, savedMember.getId());
             }
         }
         
@@ -149,6 +231,7 @@ public class MemberService {
                 
                 relationshipRepository.save(rel1);
                 relationshipRepository.save(rel2);
+                kinshipGraphService.onSpouseCreated(savedMember.getId(), spouseId);
             }
         }
         
@@ -170,7 +253,7 @@ public class MemberService {
                 .orElseThrow(() -> new ResourceNotFoundException("Member", id));
         
         // Check authorization
-        if (!authorizationService.canEditMember(currentUser, id)) {
+        if (!authorizationService.canWriteMember(currentUser, id)) {
             throw new UnauthorizedException("Bạn không có quyền sửa member này");
         }
         
@@ -181,6 +264,7 @@ public class MemberService {
         memberMapper.updateEntityFromRequest(request, member);
         
         Member savedMember = memberRepository.save(member);
+        kinshipGraphService.onMemberUpdated(savedMember);
         log.info("Member updated successfully: {}", id);
         
         MemberResponse response = memberMapper.toResponse(savedMember);
@@ -199,7 +283,7 @@ public class MemberService {
                 .orElseThrow(() -> new ResourceNotFoundException("Member", id));
         
         // Check authorization
-        if (!authorizationService.canEditMember(currentUser, id)) {
+        if (!authorizationService.canWriteMember(currentUser, id)) {
             throw new UnauthorizedException("Bạn không có quyền xóa member này");
         }
         
@@ -215,10 +299,546 @@ public class MemberService {
             throw new UnauthorizedException("Chỉ Super Admin mới có thể force delete");
         }
         
+        List<UUID> childIds = memberClosureService.getChildIds(id);
         memberRepository.delete(member);
+        memberClosureService.onMemberDeleted(childIds);
+        kinshipGraphService.onMemberDeleted(id);
+        memberEditorIndex.onMemberDeleted(id);
         log.info("Member deleted successfully: {}", id);
     }
 
+    /**
+     * BRANCH_ADMIN users that can edit a member, from the reverse authorization index
+     */
+    @Transactional(readOnly = true)
+    public MemberEditorsResponse getEditors(UUID id) {
+        if (!memberRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Member", id);
+        }
+
+        Map<UUID, List<UUID>> editors = memberEditorIndex.getEditors(id);
+        List<MemberEditorResponse> branchAdmins = new ArrayList<>(editors.size());
+        for (User user : userRepository.findAllById(editors.keySet())) {
+            branchAdmins.add(MemberEditorResponse.builder()
+                    .userId(user.getId())
+                    .fullName(user.getFullName())
+                    .email(user.getEmail())
+                    .status(user.getStatus().name())
+                    .managedMemberIds(editors.get(user.getId()))
+                    .build());
+        }
+        branchAdmins.sort(Comparator.comparing(MemberEditorResponse::getFullName)
+                .thenComparing(MemberEditorResponse::getUserId));
+
+        return MemberEditorsResponse.builder()
+                .memberId(id)
+                .branchAdmins(branchAdmins)
+                .build();
+    }
+
+    /**
+     * Members of a subtree with their depth, one page per call.
+     * continuationToken comes from the previous page (null for the first page).
+     * The subtree is walked on the in-memory graph, sorting only the generations the page draws from,
+     * and the page's member columns are loaded in one query.
+     */
+    @Transactional(readOnly = true)
+    public SubtreeResponse getSubtree(UUID id, int maxDepth, boolean includeSpouses, int limit, String continuationToken) {
+        Member root = memberRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Member", id));
+
+        int pageSize = Math.min(Math.max(limit, 1), MAX_SUBTREE_PAGE_SIZE);
+        int afterDepth = -1;
+        UUID afterId = MIN_UUID;
+        if (continuationToken != null && !continuationToken.isBlank()) {
+            String[] cursor = decodeContinuationToken(continuationToken);
+            afterDepth = Integer.parseInt(cursor[0]);
+            afterId = UUID.fromString(cursor[1]);
+        }
+
+        int depthLimit = Math.max(0, maxDepth);
+        int cursorDepth = afterDepth;
+        UUID cursorId = afterId;
+        SubtreePage page = kinshipGraphService.read(g ->
+                subtreePage(g, id, depthLimit, includeSpouses, cursorDepth, cursorId, pageSize));
+
+        Map<UUID, TreeNodeView> columns = new HashMap<>();
+        try (Stream<TreeNodeView> rows = memberRepository.streamTreeNodesByIds(page.ids().toArray(UUID[]::new))) {
+            rows.forEach(row -> columns.put(row.getId(), row));
+        }
+
+        List<SubtreeMemberResponse> members = new ArrayList<>(page.ids().size());
+        for (int i = 0; i < page.ids().size(); i++) {
+            TreeNodeView row = columns.get(page.ids().get(i));
+            if (row == null) {
+                continue;
+            }
+            members.add(SubtreeMemberResponse.builder()
+                    .id(row.getId())
+                    .fullName(row.getFullName())
+                    .gender(row.getGender())
+                    .depth(page.depths().get(i))
+                    .build());
+        }
+
+        int last = page.ids().size() - 1;
+        return SubtreeResponse.builder()
+                .rootMember(memberMapper.toSummaryResponse(root))
+                .members(members)
+                .totalMembers(page.totalMembers())
+                .maxDepth(page.maxDepth())
+                .continuationToken(page.hasMore()
+                        ? encodeContinuationToken(page.depths().get(last), page.ids().get(last))
+                        : null)
+                .build();
+    }
+
+    /**
+     * One page of the subtree of root ordered by (depth, id), after the cursor. Children are followed from
+     * blood relatives only, spouses stay on the same depth. Generations before the cursor are only counted
+     * and generations after a full page only walked, so a page sorts only the generations it draws from.
+     */
+    private static SubtreePage subtreePage(KinshipGraph g, UUID rootId, int maxDepth, boolean includeSpouses,
+                                           int afterDepth, UUID afterId, int pageSize) {
+        List<UUID> ids = new ArrayList<>();
+        List<Integer> depths = new ArrayList<>();
+        int root = g.indexOf(rootId);
+        if (!g.contains(root)) {
+            // Created but not in the graph yet: the root alone
+            if (afterDepth < 0) {
+                ids.add(rootId);
+                depths.add(0);
+            }
+            return new SubtreePage(ids, depths, 1L, 0, false);
+        }
+
+        BitSet visited = new BitSet(g.capacity());
+        visited.set(root);
+        int[] level = {root};
+        int levelSize = 1;
+        long total = 0;
+        int deepest = 0;
+        boolean hasMore = false;
+        for (int depth = 0; levelSize > 0; depth++) {
+            if (includeSpouses) {
+                for (int i = 0; i < levelSize; i++) {
+                    for (int k = 0, c = g.spouseCount(level[i]); k < c; k++) {
+                        int spouse = g.spouseAt(level[i], k);
+                        if (!visited.get(spouse)) {
+                            visited.set(spouse);
+                            if (levelSize == level.length) {
+                                level = Arrays.copyOf(level, levelSize * 2);
+                            }
+                            level[levelSize++] = spouse;
+                        }
+                    }
+                }
+            }
+            total += levelSize;
+            deepest = depth;
+
+            if (!hasMore && depth >= afterDepth) {
+                List<UUID> levelIds = new ArrayList<>(levelSize);
+                for (int i = 0; i < levelSize; i++) {
+                    UUID memberId = g.idOf(level[i]);
+                    if (depth > afterDepth || memberId.compareTo(afterId) > 0) {
+                        levelIds.add(memberId);
+                    }
+                }
+                levelIds.sort(null);
+                for (UUID memberId : levelIds) {
+                    if (ids.size() == pageSize) {
+                        hasMore = true;
+                        break;
+                    }
+                    ids.add(memberId);
+                    depths.add(depth);
+                }
+            }
+
+            if (depth == maxDepth) {
+                break;
+            }
+            int[] next = new int[Math.max(16, levelSize)];
+            int nextSize = 0;
+            for (int i = 0; i < levelSize; i++) {
+                int member = level[i];
+                if (!g.isBloodRelative(member)) {
+                    continue;
+                }
+                for (int k = 0, c = g.childCount(member); k < c; k++) {
+                    int child = g.childAt(member, k);
+                    if (!visited.get(child)) {
+                        visited.set(child);
+                        if (nextSize == next.length) {
+                            next = Arrays.copyOf(next, nextSize * 2);
+                        }
+                        next[nextSize++] = child;
+                    }
+                }
+            }
+            level = next;
+            levelSize = nextSize;
+        }
+        return new SubtreePage(ids, depths, total, deepest, hasMore);
+    }
+
+    /**
+     * Direct children (paged, oldest first) and spouses of a member, each with its own counts,
+     * for expanding a tree node on demand
+     */
+    @Transactional(readOnly = true)
+    public MemberFamilyResponse getFamily(UUID id, int offset, int limit) {
+        if (!memberRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Member", id);
+        }
+
+        int pageSize = Math.min(Math.max(limit, 1), MAX_FAMILY_PAGE_SIZE);
+        int pageOffset = Math.max(offset, 0);
+
+        // One extra child tells whether another page follows
+        List<FamilyNodeView> rows = relationshipRepository.findFamilyPage(id, pageOffset, pageSize + 1);
+        List<FamilyNodeResponse> spouses = new ArrayList<>();
+        List<FamilyNodeResponse> children = new ArrayList<>();
+        for (FamilyNodeView row : rows) {
+            if (SPOUSE_KIND.equals(row.getKind())) {
+                spouses.add(toFamilyNode(row));
+            } else {
+                children.add(toFamilyNode(row));
+            }
+        }
+        boolean hasMore = children.size() > pageSize;
+        if (hasMore) {
+            children = children.subList(0, pageSize);
+        }
+
+        // Page past the last child: no row carries the total
+        long totalChildren = rows.isEmpty()
+                ? relationshipRepository.countByFromMemberIdAndRelationshipType(id, RelationshipType.PARENT_CHILD)
+                : rows.get(0).getTotalChildren();
+
+        return MemberFamilyResponse.builder()
+                .memberId(id)
+                .spouses(spouses)
+                .children(children)
+                .totalChildren(totalChildren)
+                .offset(pageOffset)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Full and half siblings, first and second cousins of a member.
+     * Walks the in-memory graph and loads member columns in one query.
+     */
+    @Transactional(readOnly = true)
+    public MemberCollateralsResponse getCollaterals(UUID id) {
+        if (!memberRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Member", id);
+        }
+
+        // Full siblings, half siblings, first and second cousins: relative -> common ancestors
+        List<Map<UUID, List<UUID>>> groups = kinshipGraphService.read(g -> collateralsOf(g, g.indexOf(id)));
+
+        Map<UUID, TreeNodeView> columns = new HashMap<>();
+        try (Stream<TreeNodeView> rows = memberRepository.streamTreeNodesByIds(groups.stream()
+                .flatMap(group -> group.keySet().stream())
+                .toArray(UUID[]::new))) {
+            rows.forEach(row -> columns.put(row.getId(), row));
+        }
+
+        return MemberCollateralsResponse.builder()
+                .memberId(id)
+                .fullSiblings(toCollaterals(groups.get(0), columns))
+                .halfSiblings(toCollaterals(groups.get(1), columns))
+                .firstCousins(toCollaterals(groups.get(2), columns))
+                .secondCousins(toCollaterals(groups.get(3), columns))
+                .build();
+    }
+
+    /**
+     * Members within the given number of parent, child and spouse steps of a member, with the edges between
+     * them, so that navigating to a neighbour needs no further request. One bounded traversal of the in-memory
+     * graph (closest first, stopped at maxNodes members) and one query for the member columns.
+     */
+    @Transactional(readOnly = true)
+    public MemberNeighborhoodResponse getNeighborhood(UUID id, int radius, int maxNodes) {
+        if (!memberRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Member", id);
+        }
+        int maxDistance = Math.min(Math.max(radius, 1), MAX_NEIGHBORHOOD_RADIUS);
+        int nodeCap = Math.min(Math.max(maxNodes, 1), MAX_NEIGHBORHOOD_NODES);
+
+        Neighborhood neighborhood = kinshipGraphService.read(g -> neighborhoodOf(g, g.indexOf(id), maxDistance, nodeCap));
+
+        Map<UUID, TreeNodeView> columns = new HashMap<>();
+        try (Stream<TreeNodeView> rows = memberRepository.streamTreeNodesByIds(neighborhood.ids())) {
+            rows.forEach(row -> columns.put(row.getId(), row));
+        }
+
+        // A member deleted since the traversal has no row: renumber the others
+        int[] positions = new int[neighborhood.ids().length];
+        List<NeighborMemberResponse> members = new ArrayList<>(positions.length);
+        for (int i = 0; i < positions.length; i++) {
+            TreeNodeView row = columns.get(neighborhood.ids()[i]);
+            positions[i] = row != null ? members.size() : -1;
+            if (row != null) {
+                members.add(NeighborMemberResponse.builder()
+                        .id(row.getId())
+                        .fullName(row.getFullName())
+                        .gender(row.getGender())
+                        .birthYear(row.getBirthYear())
+                        .deathYear(row.getDeathYear())
+                        .generation(row.getGeneration())
+                        .isBloodRelative(row.getIsBloodRelative())
+                        .isDeceased(row.getIsDeceased())
+                        .avatarUrl(row.getAvatarUrl())
+                        .distance(neighborhood.distances()[i])
+                        .hiddenRelatives(neighborhood.hiddenRelatives()[i])
+                        .build());
+            }
+        }
+
+        return MemberNeighborhoodResponse.builder()
+                .memberId(id)
+                .radius(maxDistance)
+                .truncated(neighborhood.truncated())
+                .members(members)
+                .parentChildEdges(toEdgeList(neighborhood.parentChildEdges(), positions))
+                .spouseEdges(toEdgeList(neighborhood.spouseEdges(), positions))
+                .build();
+    }
+
+    /**
+     * Breadth-first traversal from center over parent, child and spouse edges, up to maxDistance steps
+     * and maxNodes members. Edges are pairs of positions in ids, flattened.
+     */
+    private static Neighborhood neighborhoodOf(KinshipGraph g, int center, int maxDistance, int maxNodes) {
+        if (!g.contains(center)) {
+            return new Neighborhood(new UUID[0], new int[0], new int[0], new int[0], new int[0], false);
+        }
+
+        int[] order = new int[maxNodes];
+        int[] distances = new int[maxNodes];
+        Map<Integer, Integer> positions = new HashMap<>();
+        order[0] = center;
+        positions.put(center, 0);
+        int count = 1;
+        boolean truncated = false;
+        for (int head = 0; head < count && !truncated; head++) {
+            int node = order[head];
+            if (distances[head] == maxDistance) {
+                break;  // Breadth-first: every remaining member is at maxDistance too
+            }
+            for (int k = 0, c = relativeCount(g, node); k < c; k++) {
+                int next = relativeAt(g, node, k);
+                if (positions.containsKey(next)) {
+                    continue;
+                }
+                if (count == maxNodes) {
+                    truncated = true;
+                    break;
+                }
+                order[count] = next;
+                distances[count] = distances[head] + 1;
+                positions.put(next, count++);
+            }
+        }
+
+        UUID[] ids = new UUID[count];
+        int[] hiddenRelatives = new int[count];
+        int[] parentChildEdges = new int[2 * count];
+        int[] spouseEdges = new int[2 * count];
+        int parentChildCount = 0;
+        int spouseCount = 0;
+        for (int i = 0; i < count; i++) {
+            int node = order[i];
+            ids[i] = g.idOf(node);
+            int included = 0;
+            for (int k = 0, c = g.parentCount(node); k < c; k++) {
+                if (positions.containsKey(g.parentAt(node, k))) {
+                    included++;
+                }
+            }
+            for (int k = 0, c = g.childCount(node); k < c; k++) {
+                Integer child = positions.get(g.childAt(node, k));
+                if (child != null) {
+                    included++;
+                    if (parentChildCount + 2 > parentChildEdges.length) {
+                        parentChildEdges = Arrays.copyOf(parentChildEdges, parentChildEdges.length * 2);
+                    }
+                    parentChildEdges[parentChildCount++] = i;
+                    parentChildEdges[parentChildCount++] = child;
+                }
+            }
+            for (int k = 0, c = g.spouseCount(node); k < c; k++) {
+                Integer spouse = positions.get(g.spouseAt(node, k));
+                if (spouse != null) {
+                    included++;
+                    if (spouse > i) {
+                        if (spouseCount + 2 > spouseEdges.length) {
+                            spouseEdges = Arrays.copyOf(spouseEdges, spouseEdges.length * 2);
+                        }
+                        spouseEdges[spouseCount++] = i;
+                        spouseEdges[spouseCount++] = spouse;
+                    }
+                }
+            }
+            hiddenRelatives[i] = relativeCount(g, node) - included;
+        }
+
+        return new Neighborhood(ids, Arrays.copyOf(distances, count), hiddenRelatives,
+                Arrays.copyOf(parentChildEdges, parentChildCount), Arrays.copyOf(spouseEdges, spouseCount), truncated);
+    }
+
+    private static int relativeCount(KinshipGraph g, int node) {
+        return g.parentCount(node) + g.childCount(node) + g.spouseCount(node);
+    }
+
+    /**
+     * k-th relative of node: parents first, then children, then spouses
+     */
+    private static int relativeAt(KinshipGraph g, int node, int k) {
+        int parents = g.parentCount(node);
+        if (k < parents) {
+            return g.parentAt(node, k);
+        }
+        int children = g.childCount(node);
+        return k < parents + children ? g.childAt(node, k - parents) : g.spouseAt(node, k - parents - children);
+    }
+
+    private static List<int[]> toEdgeList(int[] edges, int[] positions) {
+        List<int[]> result = new ArrayList<>(edges.length / 2);
+        for (int e = 0; e < edges.length; e += 2) {
+            int from = positions[edges[e]];
+            int to = positions[edges[e + 1]];
+            if (from >= 0 && to >= 0) {
+                result.add(new int[]{from, to});
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Relatives sharing an ancestor 1, 2 and 3 generations up but none closer, oldest first, siblings split
+     * into full (same parents) and half. A relative reached through several ancestors (pedigree collapse)
+     * is kept at its closest level.
+     */
+    private static List<Map<UUID, List<UUID>>> collateralsOf(KinshipGraph g, int self) {
+        List<Map<UUID, List<UUID>>> groups = new ArrayList<>(4);
+        if (!g.contains(self)) {
+            for (int group = 0; group < 4; group++) {
+                groups.add(Map.of());
+            }
+            return groups;
+        }
+
+        Comparator<Integer> oldestFirst = Comparator
+                .comparingInt((Integer node) -> g.birthDay(node) != KinshipGraph.UNKNOWN_BIRTH_DAY
+                        ? g.birthDay(node)
+                        : Integer.MAX_VALUE)
+                .thenComparing(g::idOf);
+
+        Set<Integer> assigned = new HashSet<>();
+        assigned.add(self);
+        Set<Integer> ancestors = Set.of(self);
+        for (int level = 1; level <= 3; level++) {
+            ancestors = parentsOf(g, ancestors);
+            assigned.addAll(ancestors);
+
+            // Each relative of this level, with the ancestors it shares with the member
+            Map<Integer, List<Integer>> found = new HashMap<>();
+            for (int ancestor : ancestors) {
+                Set<Integer> generation = Set.of(ancestor);
+                for (int down = 0; down < level; down++) {
+                    generation = childrenOf(g, generation);
+                }
+                for (int relative : generation) {
+                    if (!assigned.contains(relative)) {
+                        found.computeIfAbsent(relative, r -> new ArrayList<>()).add(ancestor);
+                    }
+                }
+            }
+            assigned.addAll(found.keySet());
+
+            Map<UUID, List<UUID>> relatives = new LinkedHashMap<>();
+            Map<UUID, List<UUID>> halfSiblings = new LinkedHashMap<>();
+            for (int relative : found.keySet().stream().sorted(oldestFirst).toList()) {
+                List<Integer> common = found.get(relative);
+                boolean half = level == 1
+                        && (common.size() < g.parentCount(self) || g.parentCount(relative) != g.parentCount(self));
+                (half ? halfSiblings : relatives).put(g.idOf(relative),
+                        common.stream().sorted(oldestFirst).map(g::idOf).collect(Collectors.toList()));
+            }
+            groups.add(relatives);
+            if (level == 1) {
+                groups.add(halfSiblings);
+            }
+        }
+        return groups;
+    }
+
+    private static Set<Integer> parentsOf(KinshipGraph g, Set<Integer> nodes) {
+        Set<Integer> parents = new LinkedHashSet<>();
+        for (int node : nodes) {
+            for (int k = 0, c = g.parentCount(node); k < c; k++) {
+                parents.add(g.parentAt(node, k));
+            }
+        }
+        return parents;
+    }
+
+    private static Set<Integer> childrenOf(KinshipGraph g, Set<Integer> nodes) {
+        Set<Integer> children = new LinkedHashSet<>();
+        for (int node : nodes) {
+            for (int k = 0, c = g.childCount(node); k < c; k++) {
+                children.add(g.childAt(node, k));
+            }
+        }
+        return children;
+    }
+
+    private List<CollateralMemberResponse> toCollaterals(Map<UUID, List<UUID>> relatives, Map<UUID, TreeNodeView> columns) {
+        List<CollateralMemberResponse> result = new ArrayList<>(relatives.size());
+        relatives.forEach((relativeId, ancestorIds) -> {
+            TreeNodeView row = columns.get(relativeId);
+            if (row != null) {
+                result.add(toCollateral(row, ancestorIds));
+            }
+        });
+        return result;
+    }
+
+    private CollateralMemberResponse toCollateral(TreeNodeView row, List<UUID> commonAncestorIds) {
+        return CollateralMemberResponse.builder()
+                .id(row.getId())
+                .fullName(row.getFullName())
+                .gender(row.getGender())
+                .birthYear(row.getBirthYear())
+                .deathYear(row.getDeathYear())
+                .isBloodRelative(row.getIsBloodRelative())
+                .isDeceased(row.getIsDeceased())
+                .avatarUrl(row.getAvatarUrl())
+                .commonAncestorIds(commonAncestorIds)
+                .build();
+    }
+
+    private FamilyNodeResponse toFamilyNode(FamilyNodeView row) {
+        return FamilyNodeResponse.builder()
+                .id(row.getId())
+                .fullName(row.getFullName())
+                .gender(row.getGender())
+                .birthYear(row.getBirthYear())
+                .deathYear(row.getDeathYear())
+                .isBloodRelative(row.getIsBloodRelative())
+                .isDeceased(row.getIsDeceased())
+                .avatarUrl(row.getAvatarUrl())
+                .relationshipId(row.getRelationshipId())
+                .childCount(row.getChildCount())
+                .spouseCount(row.getSpouseCount())
+                .build();
+    }
+
     private MemberRelationshipsResponse loadMemberRelationships(UUID memberId) {
         // Get parents
         List<Relationship> parentRelations = relationshipRepository.findParentsByMemberId(memberId);
@@ -251,9 +871,33 @@ public class MemberService {
                 .build();
     }
 
+    private String encodeContinuationToken(int depth, UUID memberId) {
+        String cursor = depth + ":" + memberId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeContinuationToken(String token) {
+        try {
+            String[] cursor = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":", 2);
+            Integer.parseInt(cursor[0]);
+            UUID.fromString(cursor[1]);
+            return cursor;
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new BusinessException("Continuation token không hợp lệ");
+        }
+    }
+
     private void validateDates(LocalDate birthDate, LocalDate deathDate) {
         if (birthDate != null && deathDate != null && deathDate.isBefore(birthDate)) {
             throw new BusinessException("Ngày mất không thể trước ngày sinh");
         }
     }
+
+    private record SubtreePage(List<UUID> ids, List<Integer> depths, long totalMembers, int maxDepth,
+                               boolean hasMore) {
+    }
+
+    private record Neighborhood(UUID[] ids, int[] distances, int[] hiddenRelatives,
+                                int[] parentChildEdges, int[] spouseEdges, boolean truncated) {
+    }
 }
@@ -31,6 +31,8 @@ public class RelationshipService {
     private final UserRepository userRepository;
     private final RelationshipMapper relationshipMapper;
     private final AuthorizationService authorizationService;
+    private final KinshipGraphService kinshipGraphService;
+    private final MemberClosureService memberClosureService;
 
     @Transactional
     public RelationshipResponse createParentChildRelationship(CreateParentChildRequest request, UUID currentUserId) {
@@ -82,6 +84,8 @@ public class RelationshipService {
                 .build();
         
         Relationship savedRelationship = relationshipRepository.save(relationship);
+        memberClosureService.onParentChildCreated(parent.getId(), child.getId());
+        kinshipGraphService.onParentChildCreated(parent.getId(), child.getId());
         log.info("Parent-child relationship created successfully");
         
         RelationshipResponse response = relationshipMapper.toResponse(savedRelationship);
@@ -137,6 +141,7 @@ public class RelationshipService {
         
         Relationship savedRel1 = relationshipRepository.save(rel1);
         Relationship savedRel2 = relationshipRepository.save(rel2);
+        kinshipGraphService.onSpouseCreated(member1.getId(), member2.getId());
         
         log.info("Spouse relationship created successfully (bidirectional)");
         
@@ -163,7 +168,7 @@ public class RelationshipService {
                 .orElseThrow(() -> new ResourceNotFoundException("Relationship", id));
         
         // Check authorization
-        if (!authorizationService.canEditRelationship(currentUser, relationship)) {
+        if (!authorizationService.canWriteRelationship(currentUser, relationship)) {
             throw new UnauthorizedException("Bạn không có quyền xóa quan hệ này");
         }
         
@@ -183,41 +188,23 @@ public class RelationshipService {
         }
         
         relationshipRepository.delete(relationship);
+        
+        UUID fromMemberId = relationship.getFromMember().getId();
+        UUID toMemberId = relationship.getToMember().getId();
+        if (relationship.getRelationshipType() == RelationshipType.SPOUSE) {
+            kinshipGraphService.onSpouseDeleted(fromMemberId, toMemberId);
+        } else {
+            memberClosureService.onParentChildDeleted(toMemberId);
+            kinshipGraphService.onParentChildDeleted(fromMemberId, toMemberId);
+        }
         log.info("Relationship deleted successfully");
     }
 
     /**
      * Check if adding parent->child would create a cycle
-     * (i.e., child is an ancestor of parent)
+     * (i.e., child is an ancestor of parent) - single lookup on member_closure
      */
     private boolean wouldCreateCycle(UUID childId, UUID parentId) {
-        Set<UUID> visited = new HashSet<>();
-        Queue<UUID> queue = new LinkedList<>();
-        queue.add(childId);
-        
-        while (!queue.isEmpty()) {
-            UUID currentId = queue.poll();
-            
-            if (visited.contains(currentId)) {
-                continue;
-            }
-            
-            visited.add(currentId);
-            
-            // If we reach the parent while traversing child's children, it's a cycle
-            if (currentId.equals(parentId)) {
-                return true;
-            }
-            
-            // Add children to queue
-            List<Relationship> childRelationships = relationshipRepository
-                    .findByFromMemberIdAndRelationshipType(currentId, RelationshipType.PARENT_CHILD);
-            
-            for (Relationship rel : childRelationships) {
-                queue.add(rel.getToMember().getId());
-            }
-        }
-        
-        return false;
+        return memberClosureService.isAncestorOrSelf(childId, parentId);
     }
 }
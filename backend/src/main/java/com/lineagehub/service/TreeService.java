@@ -0,0 +1,788 @@
+package com.lineagehub.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lineagehub.dto.response.BranchSizeResponse;
+import com.lineagehub.dto.request.MemberPairRequest;
+import com.lineagehub.dto.request.MemberQueryRequest;
+import com.lineagehub.dto.response.CommonAncestorResponse;
+import com.lineagehub.dto.response.KinshipCoefficientResponse;
+import com.lineagehub.dto.response.MemberQueryItemResponse;
+import com.lineagehub.dto.response.MemberQueryResponse;
+import com.lineagehub.dto.response.PathStepResponse;
+import com.lineagehub.dto.response.PedigreeMemberResponse;
+import com.lineagehub.dto.response.PedigreeResponse;
+import com.lineagehub.dto.response.TreePathResponse;
+import com.lineagehub.entity.Member;
+import com.lineagehub.entity.User;
+import com.lineagehub.entity.enums.Gender;
+import com.lineagehub.entity.enums.RelationshipType;
+import com.lineagehub.exception.BusinessException;
+import com.lineagehub.exception.ResourceNotFoundException;
+import com.lineagehub.graph.KinshipGraph;
+import com.lineagehub.graph.KinshipLabeller;
+import com.lineagehub.graph.KinshipTerms;
+import com.lineagehub.graph.MemberQuery;
+import com.lineagehub.graph.TreeLayout;
+import com.lineagehub.mapper.MemberMapper;
+import com.lineagehub.repository.MemberRepository;
+import com.lineagehub.repository.UserRepository;
+import com.lineagehub.repository.projection.TreeNodeView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Family tree payload (nodes + edges + metadata) and relationship paths.
+ * Node and edge sets come from the in-memory kinship graph, member columns are streamed
+ * from one query and written to the response as they arrive.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TreeService {
+
+    private static final int MAX_PEDIGREE_GENERATIONS = 30;
+    private static final int MAX_LARGEST_BRANCHES = 100;
+    private static final int DEFAULT_QUERY_LIMIT = 500;
+    private static final int WRITE_CHUNK = 1000;
+
+    private final MemberRepository memberRepository;
+    private final MemberMapper memberMapper;
+    private final UserRepository userRepository;
+    private final KinshipGraphService kinshipGraphService;
+    private final AuthorizationService authorizationService;
+    private final DescendantStatsService descendantStatsService;
+    private final KinshipLabelService kinshipLabelService;
+    private final ObjectMapper objectMapper;
+    private final PlatformTransactionManager transactionManager;
+
+    // Layout of the graph version it was computed from
+    private volatile LayoutSnapshot layoutSnapshot;
+
+    /**
+     * Resolve members and edges of the tree
+     * rootMemberId = null: whole family tree (depth is ignored)
+     * Nodes carry their kinship term as seen from egoMemberId, by default the current user's own member
+     */
+    @Transactional(readOnly = true)
+    public TreeSelection selectTree(UUID rootMemberId, int depth, UUID egoMemberId, UUID currentUserId) {
+        if (rootMemberId != null && !memberRepository.existsById(rootMemberId)) {
+            throw new ResourceNotFoundException("Member", rootMemberId);
+        }
+        if (egoMemberId != null && !memberRepository.existsById(egoMemberId)) {
+            throw new ResourceNotFoundException("Member", egoMemberId);
+        }
+        User currentUser = userRepository.findById(currentUserId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", currentUserId));
+        BitSet editable = authorizationService.getEditableNodes(currentUser);
+
+        BitSet nodes = kinshipGraphService.read(g -> rootMemberId == null
+                ? g.memberNodes()
+                : g.subtree(g.indexOf(rootMemberId), Math.max(0, depth)));
+        return new TreeSelection(rootMemberId == null, nodes, editable,
+                labellingOf(egoMemberId != null ? egoMemberId : currentUser.getMemberId()), null);
+    }
+
+    /**
+     * Members of a generation band, optionally limited to a column range of the tree layout,
+     * with the edges between them and stubs for the edges leaving the window
+     */
+    @Transactional(readOnly = true)
+    public TreeSelection selectWindow(int fromGeneration, int toGeneration, Integer minColumn, Integer maxColumn,
+                                      UUID egoMemberId, UUID currentUserId) {
+        if (fromGeneration > toGeneration) {
+            throw new BusinessException("fromGeneration phải nhỏ hơn hoặc bằng toGeneration");
+        }
+        if (egoMemberId != null && !memberRepository.existsById(egoMemberId)) {
+            throw new ResourceNotFoundException("Member", egoMemberId);
+        }
+        User currentUser = userRepository.findById(currentUserId)
+                .orElseThrow(() -> new ResourceNotFoundException("User", currentUserId));
+        BitSet editable = authorizationService.getEditableNodes(currentUser);
+        List<UUID> bandIds = memberRepository.findIdsByGenerationBetween(fromGeneration, toGeneration);
+
+        int from = minColumn != null ? minColumn : 0;
+        int to = maxColumn != null ? maxColumn : Integer.MAX_VALUE;
+        return kinshipGraphService.read(g -> {
+            TreeLayout layout = layoutOf(g);
+            BitSet nodes = new BitSet(g.capacity());
+            for (UUID memberId : bandIds) {
+                // A member created but not yet in the graph has no node
+                int node = g.indexOf(memberId);
+                if (!g.contains(node)) {
+                    continue;
+                }
+                int column = layout.columnOf(node);
+                if (column >= from && column <= to) {
+                    nodes.set(node);
+                }
+            }
+            return new TreeSelection(false, nodes, editable, null, layout);
+        }).withRelations(labellingOf(egoMemberId != null ? egoMemberId : currentUser.getMemberId()));
+    }
+
+    /**
+     * Write the tree as JSON. Runs in its own read-only transaction
+     * (called from a StreamingResponseBody, outside the request thread).
+     * Works in chunks of WRITE_CHUNK members: member columns, edges and stubs are looked up per chunk
+     * (the graph under a short read lock, never held while writing), so memory does not grow with the tree.
+     */
+    public void writeTree(TreeSelection selection, OutputStream out) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.writeStartObject();
+
+                BitSet nodes = selection.nodes();
+                NodeWriter nodeWriter = new NodeWriter(json, selection);
+                json.writeArrayFieldStart("nodes");
+                if (selection.wholeTree()) {
+                    try (Stream<TreeNodeView> rows = memberRepository.streamAllTreeNodes()) {
+                        nodeWriter.writeAll(rows);
+                    }
+                } else {
+                    for (int from = nodes.nextSetBit(0); from >= 0; from = nodes.nextSetBit(from + WRITE_CHUNK)) {
+                        int start = from;
+                        UUID[] ids = kinshipGraphService.read(g -> idsOf(g, nodes, start, start + WRITE_CHUNK));
+                        if (ids.length > 0) {
+                            try (Stream<TreeNodeView> rows = memberRepository.streamTreeNodesByIds(ids)) {
+                                nodeWriter.writeAll(rows);
+                            }
+                        }
+                    }
+                }
+                json.writeEndArray();
+
+                int totalEdges = 0;
+                json.writeArrayFieldStart("edges");
+                for (int from = nodes.nextSetBit(0); from >= 0; from = nodes.nextSetBit(from + WRITE_CHUNK)) {
+                    int start = from;
+                    for (TreeEdge edge : kinshipGraphService.read(g -> edgesOf(g, nodes, start, start + WRITE_CHUNK))) {
+                        json.writeStartObject();
+                        json.writeStringField("id", "edge-" + ++totalEdges);
+                        json.writeStringField("source", edge.source().toString());
+                        json.writeStringField("target", edge.target().toString());
+                        json.writeStringField("type", edge.type().name());
+                        json.writeEndObject();
+                    }
+                }
+                json.writeEndArray();
+
+                if (selection.layout() != null) {
+                    json.writeArrayFieldStart("stubs");
+                    for (int from = nodes.nextSetBit(0); from >= 0; from = nodes.nextSetBit(from + WRITE_CHUNK)) {
+                        int start = from;
+                        for (EdgeStub stub : kinshipGraphService.read(g -> stubsOf(g, nodes, start, start + WRITE_CHUNK))) {
+                            json.writeStartObject();
+                            json.writeStringField("memberId", stub.memberId().toString());
+                            json.writeStringField("direction", stub.direction());
+                            json.writeNumberField("count", stub.count());
+                            json.writeEndObject();
+                        }
+                    }
+                    json.writeEndArray();
+                }
+
+                json.writeObjectFieldStart("metadata");
+                json.writeNumberField("totalNodes", nodeWriter.totalNodes);
+                json.writeNumberField("totalEdges", totalEdges);
+                json.writeObjectField("maxGeneration", nodeWriter.maxGeneration);
+                if (selection.layout() != null) {
+                    json.writeNumberField("layoutWidth", selection.layout().width());
+                }
+                json.writeEndObject();
+
+                json.writeEndObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Shortest relationship path between two members (parent, child and spouse edges)
+     */
+    @Transactional(readOnly = true)
+    public TreePathResponse findPath(UUID fromId, UUID toId, int maxDepth) {
+        if (!memberRepository.existsById(fromId)) {
+            throw new ResourceNotFoundException("Member", fromId);
+        }
+        if (!memberRepository.existsById(toId)) {
+            throw new ResourceNotFoundException("Member", toId);
+        }
+
+        record GraphPath(UUID[] memberIds, char[] steps) {
+        }
+        GraphPath graphPath = kinshipGraphService.read(g -> {
+            int[] nodes = g.shortestPath(g.indexOf(fromId), g.indexOf(toId), Math.max(0, maxDepth));
+            if (nodes == null) {
+                return null;
+            }
+            UUID[] memberIds = new UUID[nodes.length];
+            char[] steps = new char[nodes.length - 1];
+            for (int i = 0; i < nodes.length; i++) {
+                memberIds[i] = g.idOf(nodes[i]);
+                if (i > 0) {
+                    steps[i - 1] = g.step(nodes[i - 1], nodes[i]);
+                }
+            }
+            return new GraphPath(memberIds, steps);
+        });
+
+        if (graphPath == null) {
+            return pathNotFound(maxDepth);
+        }
+
+        Map<UUID, Member> members = new HashMap<>();
+        for (Member member : memberRepository.findAllByIds(Set.of(graphPath.memberIds()))) {
+            members.put(member.getId(), member);
+        }
+        // A member on the path deleted since the graph walk: the path no longer exists
+        if (members.size() < graphPath.memberIds().length) {
+            return pathNotFound(maxDepth);
+        }
+
+        UUID[] memberIds = graphPath.memberIds();
+        Gender[] genders = new Gender[memberIds.length];
+        int[] birthDays = new int[memberIds.length];
+        List<PathStepResponse> path = new ArrayList<>(memberIds.length);
+        for (int i = 0; i < memberIds.length; i++) {
+            Member member = members.get(memberIds[i]);
+            genders[i] = member.getGender();
+            birthDays[i] = member.getBirthDate() != null
+                    ? (int) member.getBirthDate().toEpochDay()
+                    : KinshipGraph.UNKNOWN_BIRTH_DAY;
+            path.add(PathStepResponse.builder()
+                    .memberId(member.getId())
+                    .memberName(member.getFullName())
+                    .relationship(i == 0 ? null : KinshipTerms.label(Arrays.copyOf(graphPath.steps(), i),
+                            Arrays.copyOf(genders, i + 1), Arrays.copyOf(birthDays, i + 1)))
+                    .build());
+        }
+
+        return TreePathResponse.builder()
+                .path(path)
+                .relationshipDescription(KinshipTerms.describe(
+                        path.get(0).getMemberName(), path.get(path.size() - 1).getMemberName(),
+                        graphPath.steps(), genders, birthDays))
+                .build();
+    }
+
+    private static TreePathResponse pathNotFound(int maxDepth) {
+        return TreePathResponse.builder()
+                .path(List.of())
+                .relationshipDescription(String.format("Không tìm thấy quan hệ trong phạm vi %d bậc", maxDepth))
+                .build();
+    }
+
+    /**
+     * Lowest common blood-line ancestor of two members
+     */
+    @Transactional(readOnly = true)
+    public CommonAncestorResponse findCommonAncestor(UUID memberId1, UUID memberId2) {
+        if (!memberRepository.existsById(memberId1)) {
+            throw new ResourceNotFoundException("Member", memberId1);
+        }
+        if (!memberRepository.existsById(memberId2)) {
+            throw new ResourceNotFoundException("Member", memberId2);
+        }
+
+        return kinshipGraphService.getCommonAncestor(memberId1, memberId2)
+                .map(common -> CommonAncestorResponse.builder()
+                        .ancestor(memberMapper.toSummaryResponse(memberRepository.findById(common.ancestorId())
+                                .orElseThrow(() -> new ResourceNotFoundException("Member", common.ancestorId()))))
+                        .generationsFromFirst(common.generationsFromFirst())
+                        .generationsFromSecond(common.generationsFromSecond())
+                        .build())
+                .orElseGet(() -> CommonAncestorResponse.builder().build());
+    }
+
+    /**
+     * Kinship coefficient of two members over the parent-child graph
+     */
+    public KinshipCoefficientResponse getKinshipCoefficient(UUID memberId1, UUID memberId2) {
+        return getKinshipCoefficients(List.of(new MemberPairRequest(memberId1, memberId2))).get(0);
+    }
+
+    /**
+     * Kinship coefficients of many pairs, in request order. Pairs share ancestors in practice,
+     * so they are evaluated together against one memo.
+     */
+    public List<KinshipCoefficientResponse> getKinshipCoefficients(List<MemberPairRequest> pairs) {
+        List<UUID> memberIds1 = pairs.stream().map(MemberPairRequest::getMemberId1).collect(Collectors.toList());
+        List<UUID> memberIds2 = pairs.stream().map(MemberPairRequest::getMemberId2).collect(Collectors.toList());
+        double[] coefficients = kinshipGraphService.getKinshipCoefficients(memberIds1, memberIds2);
+
+        List<KinshipCoefficientResponse> result = new ArrayList<>(pairs.size());
+        for (int i = 0; i < coefficients.length; i++) {
+            if (Double.isNaN(coefficients[i])) {
+                // The graph holds every member, so a miss is an unknown id
+                UUID missing = kinshipGraphService.indexOf(memberIds1.get(i)) < 0 ? memberIds1.get(i) : memberIds2.get(i);
+                throw new ResourceNotFoundException("Member", missing);
+            }
+            result.add(KinshipCoefficientResponse.builder()
+                    .memberId1(memberIds1.get(i))
+                    .memberId2(memberIds2.get(i))
+                    .kinshipCoefficient(coefficients[i])
+                    .relationshipCoefficient(2 * coefficients[i])
+                    .relatedByBlood(coefficients[i] > 0)
+                    .build());
+        }
+        return result;
+    }
+
+    /**
+     * Ancestors of a member up to the given number of generations, with the spouses of each ancestor.
+     * Walks the in-memory graph and loads member columns in one query.
+     */
+    @Transactional(readOnly = true)
+    public PedigreeResponse getPedigree(UUID memberId, int generations, boolean includeSpouses) {
+        if (!memberRepository.existsById(memberId)) {
+            throw new ResourceNotFoundException("Member", memberId);
+        }
+        int maxLevel = Math.min(Math.max(generations, 0), MAX_PEDIGREE_GENERATIONS);
+
+        record PedigreeNode(UUID id, int level, List<UUID> parentIds, List<UUID> spouseIds) {
+        }
+        List<PedigreeNode> nodes = kinshipGraphService.read(g -> {
+            int root = g.indexOf(memberId);
+            if (!g.contains(root)) {
+                return List.of(new PedigreeNode(memberId, 0, List.of(), List.of()));
+            }
+
+            // Walk up level by level; with pedigree collapse a member keeps its lowest level
+            Map<Integer, Integer> levels = new LinkedHashMap<>();
+            levels.put(root, 0);
+            List<Integer> frontier = List.of(root);
+            for (int level = 1; level <= maxLevel && !frontier.isEmpty(); level++) {
+                List<Integer> next = new ArrayList<>();
+                for (int node : frontier) {
+                    for (int k = 0; k < g.parentCount(node); k++) {
+                        int parent = g.parentAt(node, k);
+                        if (levels.putIfAbsent(parent, level) == null) {
+                            next.add(parent);
+                        }
+                    }
+                }
+                frontier = next;
+            }
+
+            if (includeSpouses) {
+                for (Map.Entry<Integer, Integer> entry : new ArrayList<>(levels.entrySet())) {
+                    if (entry.getValue() > 0) {
+                        for (int k = 0; k < g.spouseCount(entry.getKey()); k++) {
+                            levels.putIfAbsent(g.spouseAt(entry.getKey(), k), entry.getValue());
+                        }
+                    }
+                }
+            }
+
+            List<PedigreeNode> result = new ArrayList<>(levels.size());
+            levels.forEach((node, level) -> {
+                List<UUID> parentIds = new ArrayList<>(2);
+                for (int k = 0; k < g.parentCount(node); k++) {
+                    if (levels.containsKey(g.parentAt(node, k))) {
+                        parentIds.add(g.idOf(g.parentAt(node, k)));
+                    }
+                }
+                List<UUID> spouseIds = new ArrayList<>(1);
+                for (int k = 0; k < g.spouseCount(node); k++) {
+                    if (levels.containsKey(g.spouseAt(node, k))) {
+                        spouseIds.add(g.idOf(g.spouseAt(node, k)));
+                    }
+                }
+                result.add(new PedigreeNode(g.idOf(node), level, parentIds, spouseIds));
+            });
+            return result;
+        });
+
+        Map<UUID, TreeNodeView> columns = new HashMap<>();
+        try (Stream<TreeNodeView> rows = memberRepository.streamTreeNodesByIds(
+                nodes.stream().map(PedigreeNode::id).toArray(UUID[]::new))) {
+            rows.forEach(row -> columns.put(row.getId(), row));
+        }
+
+        List<PedigreeMemberResponse> members = new ArrayList<>(nodes.size());
+        for (PedigreeNode node : nodes) {
+            TreeNodeView row = columns.get(node.id());
+            if (row == null) {
+                continue;
+            }
+            members.add(PedigreeMemberResponse.builder()
+                    .id(node.id())
+                    .fullName(row.getFullName())
+                    .gender(row.getGender())
+                    .birthYear(row.getBirthYear())
+                    .deathYear(row.getDeathYear())
+                    .isDeceased(row.getIsDeceased())
+                    .avatarUrl(row.getAvatarUrl())
+                    .level(node.level())
+                    .parentIds(node.parentIds())
+                    .spouseIds(node.spouseIds())
+                    .build());
+        }
+
+        return PedigreeResponse.builder()
+                .rootMemberId(memberId)
+                .generations(maxLevel)
+                .members(members)
+                .build();
+    }
+
+    /**
+     * Structured query (start members, direction, depth range, predicates) evaluated on the in-memory graph;
+     * the matching members' columns are then loaded in one query
+     */
+    @Transactional(readOnly = true)
+    public MemberQueryResponse queryMembers(MemberQueryRequest request) {
+        MemberQuery.Direction direction = request.getDirection() != null
+                ? request.getDirection()
+                : MemberQuery.Direction.NONE;
+        List<UUID> startIds = request.getStartMemberIds() == null || request.getStartMemberIds().isEmpty()
+                ? null
+                : request.getStartMemberIds();
+        if (startIds == null && direction != MemberQuery.Direction.NONE) {
+            throw new BusinessException("Cần chọn thành viên bắt đầu khi truy vấn theo hướng " + direction);
+        }
+        if (startIds != null) {
+            for (UUID startId : startIds) {
+                if (kinshipGraphService.indexOf(startId) < 0) {
+                    throw new ResourceNotFoundException("Member", startId);
+                }
+            }
+        }
+        int minDepth = request.getMinDepth() != null
+                ? request.getMinDepth()
+                : direction == MemberQuery.Direction.NONE ? 0 : 1;
+        int maxDepth = request.getMaxDepth() != null
+                ? request.getMaxDepth()
+                : direction == MemberQuery.Direction.NONE ? 0 : MemberQuery.MAX_DEPTH;
+        if (minDepth > maxDepth) {
+            throw new BusinessException("minDepth phải nhỏ hơn hoặc bằng maxDepth");
+        }
+        int limit = request.getLimit() != null ? request.getLimit() : DEFAULT_QUERY_LIMIT;
+
+        MemberQuery query = new MemberQuery(startIds, direction, minDepth, maxDepth, new MemberQuery.Predicates(
+                request.getGender(),
+                request.getIsDeceased(),
+                request.getIsBloodRelative(),
+                request.getMinGeneration(),
+                request.getMaxGeneration(),
+                request.getBranchName(),
+                request.getBornFrom(),
+                request.getBornTo(),
+                request.getMinParents(),
+                request.getMaxParents(),
+                request.getMinChildren(),
+                request.getMaxChildren(),
+                request.getIsMarried()));
+
+        record QueryMatches(UUID[] ids, int[] depths, int totalMatches) {
+        }
+        long start = System.nanoTime();
+        QueryMatches matches = kinshipGraphService.read(g -> {
+            MemberQuery.Result result = query.run(g, limit);
+            UUID[] ids = new UUID[result.nodes().length];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = g.idOf(result.nodes()[i]);
+            }
+            return new QueryMatches(ids, result.depths(), result.totalMatches());
+        });
+        log.debug("Member query matched {} members in {} ms",
+                matches.totalMatches(), (System.nanoTime() - start) / 1_000_000);
+
+        Map<UUID, TreeNodeView> columns = new HashMap<>();
+        try (Stream<TreeNodeView> rows = memberRepository.streamTreeNodesByIds(matches.ids())) {
+            rows.forEach(row -> columns.put(row.getId(), row));
+        }
+
+        List<MemberQueryItemResponse> members = new ArrayList<>(matches.ids().length);
+        for (int i = 0; i < matches.ids().length; i++) {
+            TreeNodeView row = columns.get(matches.ids()[i]);
+            if (row == null) {
+                continue;
+            }
+            members.add(MemberQueryItemResponse.builder()
+                    .id(row.getId())
+                    .fullName(row.getFullName())
+                    .gender(row.getGender())
+                    .birthYear(row.getBirthYear())
+                    .deathYear(row.getDeathYear())
+                    .generation(row.getGeneration())
+                    .branchName(row.getBranchName())
+                    .isBloodRelative(row.getIsBloodRelative())
+                    .isDeceased(row.getIsDeceased())
+                    .avatarUrl(row.getAvatarUrl())
+                    .depth(matches.depths()[i])
+                    .build());
+        }
+
+        return MemberQueryResponse.builder()
+                .totalMatches(matches.totalMatches())
+                .truncated(matches.totalMatches() > matches.ids().length)
+                .members(members)
+                .build();
+    }
+
+    /**
+     * Members with the most descendants, largest first
+     */
+    @Transactional(readOnly = true)
+    public List<BranchSizeResponse> getLargestBranches(int limit) {
+        List<DescendantStatsService.Branch> branches = descendantStatsService.getLargestBranches(
+                Math.min(Math.max(limit, 1), MAX_LARGEST_BRANCHES));
+
+        Map<UUID, Member> members = new HashMap<>();
+        for (Member member : memberRepository.findAllByIds(branches.stream()
+                .map(DescendantStatsService.Branch::memberId)
+                .collect(Collectors.toSet()))) {
+            members.put(member.getId(), member);
+        }
+
+        List<BranchSizeResponse> result = new ArrayList<>(branches.size());
+        for (DescendantStatsService.Branch branch : branches) {
+            Member member = members.get(branch.memberId());
+            if (member != null) {
+                result.add(BranchSizeResponse.builder()
+                        .member(memberMapper.toSummaryResponse(member))
+                        .descendantCount(branch.stats().descendants())
+                        .livingDescendantCount(branch.stats().livingDescendants())
+                        .maxDescendantDepth(branch.stats().maxDepth())
+                        .build());
+            }
+        }
+        return result;
+    }
+
+    private void writeNode(JsonGenerator json, TreeNodeView node, boolean canEdit,
+                           DescendantStatsService.DescendantStats stats, String term, Integer distance,
+                           boolean withRelation, Integer column) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("id", node.getId().toString());
+        json.writeStringField("fullName", node.getFullName());
+        json.writeStringField("gender", node.getGender());
+        json.writeObjectField("birthYear", node.getBirthYear());
+        json.writeObjectField("deathYear", node.getDeathYear());
+        json.writeStringField("avatarUrl", node.getAvatarUrl());
+        json.writeObjectField("generation", node.getGeneration());
+        json.writeObjectField("isBloodRelative", node.getIsBloodRelative());
+        json.writeStringField("branchName", node.getBranchName());
+        json.writeObjectField("isDeceased", node.getIsDeceased());
+        json.writeBooleanField("canEdit", canEdit);
+        json.writeObjectField("descendantCount", stats != null ? stats.descendants() : null);
+        json.writeObjectField("livingDescendantCount", stats != null ? stats.livingDescendants() : null);
+        json.writeObjectField("maxDescendantDepth", stats != null ? stats.maxDepth() : null);
+        if (withRelation) {
+            json.writeStringField("kinshipTerm", term);
+            json.writeObjectField("relationDistance", distance);
+        }
+        if (column != null) {
+            json.writeNumberField("column", column);
+        }
+        json.writeEndObject();
+    }
+
+    private KinshipLabeller.Labelling labellingOf(UUID egoMemberId) {
+        return egoMemberId != null ? kinshipLabelService.getLabelling(egoMemberId) : null;
+    }
+
+    private TreeLayout layoutOf(KinshipGraph g) {
+        // Called under the graph read lock, so the version matches the graph being read
+        long version = kinshipGraphService.getVersion();
+        LayoutSnapshot snapshot = layoutSnapshot;
+        if (snapshot == null || snapshot.version() != version) {
+            snapshot = new LayoutSnapshot(version, TreeLayout.compute(g));
+            layoutSnapshot = snapshot;
+        }
+        return snapshot.layout();
+    }
+
+    /**
+     * Ids of the selected members with a dense id in [from, to)
+     */
+    private static UUID[] idsOf(KinshipGraph g, BitSet nodes, int from, int to) {
+        List<UUID> ids = new ArrayList<>();
+        for (int node = nodes.nextSetBit(from); node >= 0 && node < to; node = nodes.nextSetBit(node + 1)) {
+            if (g.contains(node)) {
+                ids.add(g.idOf(node));
+            }
+        }
+        return ids.toArray(UUID[]::new);
+    }
+
+    /**
+     * Edges between selected members, from the members with a dense id in [from, to);
+     * a spouse edge is listed once, from its lower end
+     */
+    private static List<TreeEdge> edgesOf(KinshipGraph g, BitSet nodes, int from, int to) {
+        List<TreeEdge> edges = new ArrayList<>();
+        for (int node = nodes.nextSetBit(from); node >= 0 && node < to; node = nodes.nextSetBit(node + 1)) {
+            if (!g.contains(node)) {
+                continue;
+            }
+            for (int k = 0; k < g.childCount(node); k++) {
+                int child = g.childAt(node, k);
+                if (nodes.get(child)) {
+                    edges.add(new TreeEdge(g.idOf(node), g.idOf(child), RelationshipType.PARENT_CHILD));
+                }
+            }
+            for (int k = 0; k < g.spouseCount(node); k++) {
+                int spouse = g.spouseAt(node, k);
+                if (spouse > node && nodes.get(spouse)) {
+                    edges.add(new TreeEdge(g.idOf(node), g.idOf(spouse), RelationshipType.SPOUSE));
+                }
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * Stubs for the edges leaving the selection, of the members with a dense id in [from, to)
+     */
+    private static List<EdgeStub> stubsOf(KinshipGraph g, BitSet nodes, int from, int to) {
+        List<EdgeStub> stubs = new ArrayList<>();
+        for (int node = nodes.nextSetBit(from); node >= 0 && node < to; node = nodes.nextSetBit(node + 1)) {
+            if (!g.contains(node)) {
+                continue;
+            }
+            UUID memberId = g.idOf(node);
+
+            int hiddenParents = 0;
+            for (int k = 0; k < g.parentCount(node); k++) {
+                if (!nodes.get(g.parentAt(node, k))) {
+                    hiddenParents++;
+                }
+            }
+            int hiddenChildren = 0;
+            for (int k = 0; k < g.childCount(node); k++) {
+                if (!nodes.get(g.childAt(node, k))) {
+                    hiddenChildren++;
+                }
+            }
+            int hiddenSpouses = 0;
+            for (int k = 0; k < g.spouseCount(node); k++) {
+                if (!nodes.get(g.spouseAt(node, k))) {
+                    hiddenSpouses++;
+                }
+            }
+
+            if (hiddenParents > 0) {
+                stubs.add(new EdgeStub(memberId, "PARENT", hiddenParents));
+            }
+            if (hiddenChildren > 0) {
+                stubs.add(new EdgeStub(memberId, "CHILD", hiddenChildren));
+            }
+            if (hiddenSpouses > 0) {
+                stubs.add(new EdgeStub(memberId, "SPOUSE", hiddenSpouses));
+            }
+        }
+        return stubs;
+    }
+
+    /**
+     * Writes member rows a chunk at a time: their dense ids are resolved under one read lock per chunk,
+     * then edit rights, descendant stats, kinship terms and layout columns are looked up by dense id
+     */
+    private final class NodeWriter {
+
+        private final JsonGenerator json;
+        private final TreeSelection selection;
+        private final List<TreeNodeView> chunk = new ArrayList<>(WRITE_CHUNK);
+        private int totalNodes;
+        private Integer maxGeneration;
+
+        NodeWriter(JsonGenerator json, TreeSelection selection) {
+            this.json = json;
+            this.selection = selection;
+        }
+
+        void writeAll(Stream<TreeNodeView> rows) throws IOException {
+            Iterator<TreeNodeView> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == WRITE_CHUNK) {
+                    flush();
+                }
+            }
+            flush();
+        }
+
+        private void flush() throws IOException {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            int[] nodes = kinshipGraphService.read(g -> {
+                int[] result = new int[chunk.size()];
+                for (int i = 0; i < result.length; i++) {
+                    result[i] = g.indexOf(chunk.get(i).getId());
+                }
+                return result;
+            });
+
+            KinshipLabeller.Labelling labelling = selection.relations();
+            for (int i = 0; i < nodes.length; i++) {
+                TreeNodeView row = chunk.get(i);
+                int node = nodes[i];
+                // A member created but not yet in the graph has no node
+                String term = labelling != null ? labelling.labelOf(node) : null;
+                int column = selection.layout() != null ? selection.layout().columnOf(node) : -1;
+                writeNode(json, row, selection.canEdit(node),
+                        node >= 0 ? descendantStatsService.getStats(node) : null,
+                        term, term != null ? labelling.distanceOf(node) : null,
+                        labelling != null,
+                        column >= 0 ? column : null);
+                totalNodes++;
+                if (row.getGeneration() != null && (maxGeneration == null || row.getGeneration() > maxGeneration)) {
+                    maxGeneration = row.getGeneration();
+                }
+            }
+            chunk.clear();
+        }
+    }
+
+    /**
+     * Members and edges of a tree: the selected dense ids, as of the graph version they were selected from.
+     * wholeTree: every member row is written, including members created since.
+     * editable = null: current user can edit every member.
+     * relations is set when an ego member is given, layout for generation-window queries only.
+     * The bitsets and the labelling are shared and never modified.
+     */
+    public record TreeSelection(boolean wholeTree,
+                                BitSet nodes,
+                                BitSet editable,
+                                KinshipLabeller.Labelling relations,
+                                TreeLayout layout) {
+
+        public boolean canEdit(int node) {
+            return editable == null || node >= 0 && editable.get(node);
+        }
+
+        public TreeSelection withRelations(KinshipLabeller.Labelling labelling) {
+            return new TreeSelection(wholeTree, nodes, editable, labelling, layout);
+        }
+    }
+
+    private record TreeEdge(UUID source, UUID target, RelationshipType type) {
+    }
+
+    /**
+     * count relatives of memberId outside the window; direction is PARENT, CHILD or SPOUSE
+     */
+    public record EdgeStub(UUID memberId, String direction, int count) {
+    }
+
+    private record LayoutSnapshot(long version, TreeLayout layout) {
+    }
+}
@@ -31,6 +31,8 @@ public class UserRoleService {
     private final UserRepository userRepository;
     private final MemberRepository memberRepository;
     private final UserRoleMapper userRoleMapper;
+    private final EditableMemberCache editableMemberCache;
+    private final MemberEditorIndex memberEditorIndex;
 
     @Transactional(readOnly = true)
     public List<UserRoleResponse> getUserRoles(UUID userId) {
@@ -86,6 +88,10 @@ public class UserRoleService {
                 .build();
         
         UserRole savedRole = userRoleRepository.save(userRole);
+        editableMemberCache.invalidate(userId);
+        if (request.getRole() == Role.BRANCH_ADMIN) {
+            memberEditorIndex.onBranchAdded(userId, request.getManagedMemberId());
+        }
         log.info("Role {} added successfully to user: {}", request.getRole(), userId);
         
         return userRoleMapper.toResponse(savedRole);
@@ -127,6 +133,11 @@ public class UserRoleService {
                 .collect(Collectors.toList());
         
         List<UserRole> savedRoles = userRoleRepository.saveAll(newRoles);
+        editableMemberCache.invalidate(userId);
+        memberEditorIndex.onUserRolesReplaced(userId, savedRoles.stream()
+                .filter(r -> r.getRole() == Role.BRANCH_ADMIN && r.getManagedMember() != null)
+                .map(r -> r.getManagedMember().getId())
+                .collect(Collectors.toList()));
         log.info("Updated {} roles for user: {}", savedRoles.size(), userId);
         
         return savedRoles.stream()
@@ -153,6 +164,10 @@ public class UserRoleService {
         }
         
         userRoleRepository.delete(userRole);
+        editableMemberCache.invalidate(userId);
+        if (userRole.getRole() == Role.BRANCH_ADMIN && userRole.getManagedMember() != null) {
+            memberEditorIndex.onBranchRemoved(userId, userRole.getManagedMember().getId());
+        }
         log.info("Role deleted successfully");
     }
 
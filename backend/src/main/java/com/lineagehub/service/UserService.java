@@ -1,10 +1,13 @@
 package com.lineagehub.service;
 
 import com.lineagehub.dto.response.UserResponse;
+import com.lineagehub.entity.Member;
 import com.lineagehub.entity.User;
 import com.lineagehub.entity.enums.UserStatus;
+import com.lineagehub.exception.BusinessException;
 import com.lineagehub.exception.ResourceNotFoundException;
 import com.lineagehub.mapper.UserMapper;
+import com.lineagehub.repository.MemberRepository;
 import com.lineagehub.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,7 +24,10 @@ import java.util.UUID;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final MemberRepository memberRepository;
     private final UserMapper userMapper;
+    private final EditableMemberCache editableMemberCache;
+    private final MemberEditorIndex memberEditorIndex;
 
     @Transactional(readOnly = true)
     public Page<UserResponse> getAllUsers(UserStatus status, String search, Pageable pageable) {
@@ -81,6 +87,32 @@ public class UserService {
         return userMapper.toResponse(savedUser);
     }
 
+    /**
+     * Link a user to their own member record (memberId = null removes the link)
+     */
+    @Transactional
+    public UserResponse linkMember(UUID id, UUID memberId) {
+        log.info("Linking user {} to member {}", id, memberId);
+        
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User", id));
+        
+        Member member = null;
+        if (memberId != null) {
+            member = memberRepository.findById(memberId)
+                    .orElseThrow(() -> new ResourceNotFoundException("Member", memberId));
+            if (userRepository.isMemberLinkedToOtherUser(memberId, id)) {
+                throw new BusinessException("Thành viên đã được liên kết với một tài khoản khác");
+            }
+        }
+        
+        user.setMember(member);
+        User savedUser = userRepository.save(user);
+        
+        log.info("User {} linked to member {}", id, memberId);
+        return userMapper.toResponse(savedUser);
+    }
+
     @Transactional
     public void deleteUser(UUID id) {
         log.info("Deleting user with ID: {}", id);
@@ -89,6 +121,8 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User", id));
         
         userRepository.delete(user);
+        editableMemberCache.invalidate(id);
+        memberEditorIndex.onUserDeleted(id);
         log.info("User deleted successfully: {}", id);
     }
 }
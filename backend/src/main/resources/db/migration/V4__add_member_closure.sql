@@ -0,0 +1,33 @@
+-- Migration V4: Ancestor/descendant closure table for PARENT_CHILD relationships
+-- One row per (ancestor, descendant) pair, depth = shortest number of generations between them.
+-- Every member has a self row (depth 0). Maintained by MemberClosureService on relationship writes.
+
+CREATE TABLE member_closure (
+    ancestor_id     UUID NOT NULL REFERENCES members(id) ON DELETE CASCADE,
+    descendant_id   UUID NOT NULL REFERENCES members(id) ON DELETE CASCADE,
+    depth           INTEGER NOT NULL,
+    
+    CONSTRAINT pk_member_closure PRIMARY KEY (ancestor_id, descendant_id),
+    CONSTRAINT chk_member_closure_depth CHECK (depth >= 0)
+);
+
+CREATE INDEX idx_member_closure_descendant ON member_closure(descendant_id, depth);
+CREATE INDEX idx_member_closure_ancestor_depth ON member_closure(ancestor_id, depth);
+
+-- Build closure for existing data
+INSERT INTO member_closure (ancestor_id, descendant_id, depth)
+WITH RECURSIVE paths AS (
+    SELECT m.id AS ancestor_id, m.id AS descendant_id, 0 AS depth
+    FROM members m
+    
+    UNION
+    
+    SELECT p.ancestor_id, r.to_member_id, p.depth + 1
+    FROM paths p
+    INNER JOIN relationships r ON r.from_member_id = p.descendant_id
+    WHERE r.relationship_type = 'PARENT_CHILD'
+    AND p.depth < 1000
+)
+SELECT ancestor_id, descendant_id, MIN(depth)
+FROM paths
+GROUP BY ancestor_id, descendant_id;
@@ -0,0 +1,6 @@
+-- Migration V5: Link a user account to the member record of that person
+-- A member can be linked to at most one user; deleting the member only removes the link.
+
+ALTER TABLE users ADD COLUMN member_id UUID REFERENCES members(id) ON DELETE SET NULL;
+
+CREATE UNIQUE INDEX idx_users_member ON users(member_id) WHERE member_id IS NOT NULL;
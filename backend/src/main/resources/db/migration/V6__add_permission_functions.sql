@@ -0,0 +1,60 @@
+-- Migration V6: Permission checks evaluated in the database
+-- Same rules as AuthorizationService: SUPER_ADMIN edits everything; a BRANCH_ADMIN edits the subtree of each
+-- managed member (its descendants in member_closure, themselves and their spouses). Relationship rule: both
+-- ends in one managed subtree, except the PARENT_CHILD edge into that subtree's managed member.
+-- The closure table replaces the recursive walk; EXISTS stops at the first matching role.
+
+CREATE OR REPLACE FUNCTION is_in_managed_subtree(p_root_id UUID, p_member_id UUID)
+RETURNS BOOLEAN
+LANGUAGE sql
+STABLE
+AS $$
+    SELECT EXISTS (
+        SELECT 1 FROM member_closure c
+        WHERE c.ancestor_id = p_root_id AND c.descendant_id = p_member_id
+    )
+    OR EXISTS (
+        SELECT 1 FROM relationships r
+        INNER JOIN member_closure c ON c.descendant_id = r.to_member_id
+        WHERE r.from_member_id = p_member_id
+        AND r.relationship_type = 'SPOUSE'
+        AND c.ancestor_id = p_root_id
+    )
+$$;
+
+CREATE OR REPLACE FUNCTION can_edit_member(p_user_id UUID, p_member_id UUID)
+RETURNS BOOLEAN
+LANGUAGE sql
+STABLE
+AS $$
+    SELECT EXISTS (
+        SELECT 1 FROM user_roles ur
+        WHERE ur.user_id = p_user_id AND ur.role = 'SUPER_ADMIN'
+    )
+    OR EXISTS (
+        SELECT 1 FROM user_roles ur
+        WHERE ur.user_id = p_user_id
+        AND ur.role = 'BRANCH_ADMIN'
+        AND is_in_managed_subtree(ur.managed_member_id, p_member_id)
+    )
+$$;
+
+CREATE OR REPLACE FUNCTION can_edit_relationship(p_user_id UUID, p_from_member_id UUID, p_to_member_id UUID,
+                                                 p_relationship_type VARCHAR)
+RETURNS BOOLEAN
+LANGUAGE sql
+STABLE
+AS $$
+    SELECT EXISTS (
+        SELECT 1 FROM user_roles ur
+        WHERE ur.user_id = p_user_id AND ur.role = 'SUPER_ADMIN'
+    )
+    OR EXISTS (
+        SELECT 1 FROM user_roles ur
+        WHERE ur.user_id = p_user_id
+        AND ur.role = 'BRANCH_ADMIN'
+        AND NOT (p_relationship_type = 'PARENT_CHILD' AND p_to_member_id = ur.managed_member_id)
+        AND is_in_managed_subtree(ur.managed_member_id, p_from_member_id)
+        AND is_in_managed_subtree(ur.managed_member_id, p_to_member_id)
+    )
+$$;
@@ -0,0 +1,178 @@
+package com.lineagehub.benchmark;
+
+import com.lineagehub.service.MemberClosureService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Benchmark of the cycle check run before creating a PARENT_CHILD relationship.
+ * For each tree size a synthetic tree is seeded (members, relationships and closure rows) inside a
+ * transaction that is rolled back at the end, so the database is left untouched.
+ * Compares the closure lookup used by RelationshipService with the former per-node descendant walk.
+ *
+ * Lives in the test sources so that it is not packaged. Run with:
+ * SPRING_PROFILES_ACTIVE=dev,benchmark mvn spring-boot:run -Dspring-boot.run.useTestClasspath=true
+ */
+@Component
+@Profile("benchmark")
+@RequiredArgsConstructor
+@Slf4j
+public class CycleCheckBenchmark implements CommandLineRunner {
+
+    private static final String BRANCH_TAG = "cycle-benchmark";
+    private static final int BRANCHING = 3;
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 200;
+    // The descendant walk issues one query per node: only measured on small trees
+    private static final int WALK_MAX_SIZE = 10_000;
+
+    private final MemberClosureService memberClosureService;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${benchmark.cycle-check.sizes:1000,10000,100000}")
+    private List<Integer> sizes;
+
+    @Override
+    public void run(String... args) {
+        log.info("Cycle check benchmark (tree branching {}, {} iterations per case)", BRANCHING, ITERATIONS);
+
+        for (int size : sizes) {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.executeWithoutResult(status -> {
+                try {
+                    runSize(size);
+                } finally {
+                    status.setRollbackOnly();
+                }
+            });
+        }
+    }
+
+    private void runSize(int size) {
+        seed(size);
+
+        // Worst case of the former check: attaching the deepest leaf as parent of the root
+        UUID root = memberId(size, 0);
+        UUID deepestLeaf = memberId(size, size - 1);
+        UUID otherLeaf = memberId(size, (size - 1) / BRANCHING * BRANCHING - 1);
+        int depth = depthOf(size - 1);
+
+        double closureHit = measure(() -> memberClosureService.isAncestorOrSelf(root, deepestLeaf));
+        double closureMiss = measure(() -> memberClosureService.isAncestorOrSelf(deepestLeaf, otherLeaf));
+        Object walkHit = size <= WALK_MAX_SIZE
+                ? round(measureOnce(() -> descendantWalk(root, deepestLeaf)))
+                : "-";
+
+        log.info("{} members, depth {}: closure hit {} us, closure miss {} us, descendant walk hit {} us",
+                size, depth, round(closureHit), round(closureMiss), walkHit);
+    }
+
+    /**
+     * Complete tree where member i is the child of member (i - 1) / BRANCHING
+     */
+    private void seed(int size) {
+        jdbcTemplate.update("""
+                INSERT INTO members (id, full_name, gender, is_blood_relative, branch_name)
+                SELECT CAST(md5(? || '-' || i) AS uuid), 'Benchmark ' || i, 'MALE', TRUE, ?
+                FROM generate_series(0, ? - 1) AS i
+                """, prefix(size), BRANCH_TAG, size);
+
+        jdbcTemplate.update("""
+                INSERT INTO relationships (from_member_id, to_member_id, relationship_type)
+                SELECT CAST(md5(? || '-' || ((i - 1) / ?)) AS uuid), CAST(md5(? || '-' || i) AS uuid), 'PARENT_CHILD'
+                FROM generate_series(1, ? - 1) AS i
+                """, prefix(size), BRANCHING, prefix(size), size);
+
+        jdbcTemplate.update("""
+                INSERT INTO member_closure (ancestor_id, descendant_id, depth)
+                WITH RECURSIVE paths AS (
+                    SELECT m.id AS ancestor_id, m.id AS descendant_id, 0 AS depth
+                    FROM members m
+                    WHERE m.branch_name = ?
+
+                    UNION ALL
+
+                    SELECT p.ancestor_id, r.to_member_id, p.depth + 1
+                    FROM paths p
+                    INNER JOIN relationships r ON r.from_member_id = p.descendant_id
+                    WHERE r.relationship_type = 'PARENT_CHILD'
+                )
+                SELECT ancestor_id, descendant_id, depth FROM paths
+                """, BRANCH_TAG);
+
+        jdbcTemplate.execute("ANALYZE member_closure");
+    }
+
+    /**
+     * Former RelationshipService.wouldCreateCycle: BFS over descendants, one query per node
+     */
+    private boolean descendantWalk(UUID childId, UUID parentId) {
+        Set<UUID> visited = new HashSet<>();
+        Queue<UUID> queue = new ArrayDeque<>();
+        queue.add(childId);
+        while (!queue.isEmpty()) {
+            UUID current = queue.poll();
+            if (!visited.add(current)) {
+                continue;
+            }
+            if (current.equals(parentId)) {
+                return true;
+            }
+            queue.addAll(jdbcTemplate.queryForList(
+                    "SELECT to_member_id FROM relationships WHERE from_member_id = ? AND relationship_type = 'PARENT_CHILD'",
+                    UUID.class, current));
+        }
+        return false;
+    }
+
+    /**
+     * Average duration of a check in microseconds
+     */
+    private double measure(Runnable check) {
+        for (int i = 0; i < WARMUP; i++) {
+            check.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            check.run();
+        }
+        return (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+    }
+
+    private double measureOnce(Runnable check) {
+        long start = System.nanoTime();
+        check.run();
+        return (System.nanoTime() - start) / 1_000.0;
+    }
+
+    private static double round(double micros) {
+        return Math.round(micros * 10) / 10.0;
+    }
+
+    private UUID memberId(int size, int index) {
+        return jdbcTemplate.queryForObject("SELECT CAST(md5(? || '-' || ?) AS uuid)", UUID.class, prefix(size), index);
+    }
+
+    private String prefix(int size) {
+        return BRANCH_TAG + "-" + size;
+    }
+
+    private int depthOf(int index) {
+        int depth = 0;
+        while (index > 0) {
+            index = (index - 1) / BRANCHING;
+            depth++;
+        }
+        return depth;
+    }
+}
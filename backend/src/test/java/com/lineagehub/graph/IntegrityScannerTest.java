@@ -0,0 +1,121 @@
+package com.lineagehub.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntegrityScannerTest {
+
+    private static final int NONE = IntegrityScanner.NONE;
+
+    @Test
+    void cycleWithoutTheMembersLeadingInOrOut() {
+        // 0 -> 1 -> 2 -> 0, plus 4 -> 0 leading in and 2 -> 3 leading out
+        Graph graph = new Graph(5)
+                .parentChild(0, 1).parentChild(1, 2).parentChild(2, 0)
+                .parentChild(4, 0).parentChild(2, 3);
+
+        List<IntegrityScanner.Finding> cycles = graph.findings(IntegrityScanner.AnomalyType.PARENT_CHILD_CYCLE);
+        assertThat(cycles).hasSize(1);
+        assertThat(sorted(cycles.get(0).members())).containsExactly(0, 1, 2);
+        assertThat(cycles.get(0).value1()).isEqualTo(3);
+    }
+
+    @Test
+    void membersBetweenTwoCyclesAreKept() {
+        // Cycles 0 <-> 1 and 2 <-> 3 joined by 1 -> 4 -> 2; 5 hangs below the second cycle
+        Graph graph = new Graph(6)
+                .parentChild(0, 1).parentChild(1, 0)
+                .parentChild(2, 3).parentChild(3, 2)
+                .parentChild(1, 4).parentChild(4, 2)
+                .parentChild(3, 5);
+
+        List<IntegrityScanner.Finding> cycles = graph.findings(IntegrityScanner.AnomalyType.PARENT_CHILD_CYCLE);
+        assertThat(cycles).hasSize(1);
+        assertThat(sorted(cycles.get(0).members())).containsExactly(0, 1, 2, 3, 4);
+    }
+
+    @Test
+    void pedigreeCollapseIsNotACycle() {
+        // 0 -> 1, 0 -> 2, 1 -> 3, 2 -> 3
+        Graph graph = new Graph(4)
+                .parentChild(0, 1).parentChild(0, 2).parentChild(1, 3).parentChild(2, 3);
+
+        assertThat(graph.findings(IntegrityScanner.AnomalyType.PARENT_CHILD_CYCLE)).isEmpty();
+    }
+
+    @Test
+    void generationFollowsTheBloodRelativeParent() {
+        // Child 2 of blood father 0 (generation 3) and in-law mother 1 (generation 5)
+        Graph graph = new Graph(3).generations(3, 5, 4).inLaw(1)
+                .parentChild(0, 2).parentChild(1, 2);
+        assertThat(graph.findings(IntegrityScanner.AnomalyType.GENERATION_MISMATCH)).isEmpty();
+
+        graph = new Graph(3).generations(3, 5, 6).inLaw(1)
+                .parentChild(1, 2).parentChild(0, 2);
+        List<IntegrityScanner.Finding> mismatches = graph.findings(IntegrityScanner.AnomalyType.GENERATION_MISMATCH);
+        assertThat(mismatches).hasSize(1);
+        assertThat(mismatches.get(0).members()).containsExactly(2, 0);
+    }
+
+    @Test
+    void generationOfEitherParentWhenNoneIsABloodRelative() {
+        Graph graph = new Graph(3).generations(3, 5, 6).inLaw(0).inLaw(1)
+                .parentChild(0, 2).parentChild(1, 2);
+        assertThat(graph.findings(IntegrityScanner.AnomalyType.GENERATION_MISMATCH)).isEmpty();
+    }
+
+    private static int[] sorted(int[] members) {
+        int[] copy = members.clone();
+        Arrays.sort(copy);
+        return copy;
+    }
+
+    /**
+     * Members 0..n-1 without birth dates, all blood relatives unless marked as in-laws
+     */
+    private static final class Graph {
+        private final int memberCount;
+        private final int[] generations;
+        private final boolean[] bloodRelative;
+        private final List<int[]> edges = new ArrayList<>();
+
+        Graph(int memberCount) {
+            this.memberCount = memberCount;
+            generations = new int[memberCount];
+            Arrays.fill(generations, NONE);
+            bloodRelative = new boolean[memberCount];
+            Arrays.fill(bloodRelative, true);
+        }
+
+        Graph parentChild(int parent, int child) {
+            edges.add(new int[]{parent, child});
+            return this;
+        }
+
+        Graph generations(int... values) {
+            System.arraycopy(values, 0, generations, 0, values.length);
+            return this;
+        }
+
+        Graph inLaw(int member) {
+            bloodRelative[member] = false;
+            return this;
+        }
+
+        List<IntegrityScanner.Finding> findings(IntegrityScanner.AnomalyType type) {
+            int[] birthDays = new int[memberCount];
+            Arrays.fill(birthDays, NONE);
+            int[] edgeFrom = edges.stream().mapToInt(e -> e[0]).toArray();
+            int[] edgeTo = edges.stream().mapToInt(e -> e[1]).toArray();
+            IntegrityScanner.Result result = new IntegrityScanner(memberCount, birthDays, generations, bloodRelative,
+                    edgeFrom, edgeTo, new boolean[edges.size()]).scan(ForkJoinPool.commonPool());
+            return result.findings().stream().filter(f -> f.type() == type).toList();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.lineagehub.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class KinshipCoefficientsTest {
+
+    private static final double EPSILON = 1e-12;
+
+    private final KinshipGraph g = new KinshipGraph();
+
+    @Test
+    void selfAndUnrelated() {
+        UUID a = UUID.randomUUID(), b = UUID.randomUUID();
+        g.addMember(a);
+        g.addMember(b);
+
+        assertThat(coefficient(a, a)).isCloseTo(0.5, within(EPSILON));
+        assertThat(coefficient(a, b)).isZero();
+        assertThat(new KinshipCoefficients(g).coefficient(node(a), -1)).isZero();
+    }
+
+    @Test
+    void parentChildAndFullSiblings() {
+        UUID father = UUID.randomUUID(), mother = UUID.randomUUID();
+        UUID a = child(father, mother), b = child(father, mother);
+
+        assertThat(coefficient(father, a)).isCloseTo(0.25, within(EPSILON));
+        assertThat(coefficient(a, b)).isCloseTo(0.25, within(EPSILON));
+        assertThat(coefficient(father, mother)).isZero();
+    }
+
+    @Test
+    void halfSiblingsAndFirstCousins() {
+        UUID grandfather = UUID.randomUUID(), grandmother = UUID.randomUUID();
+        UUID a = child(grandfather, grandmother), b = child(grandfather, grandmother);
+        UUID c = child(a, UUID.randomUUID()), d = child(b, UUID.randomUUID());
+        UUID half = child(grandfather, UUID.randomUUID());
+
+        assertThat(coefficient(c, d)).isCloseTo(0.0625, within(EPSILON));
+        assertThat(coefficient(a, half)).isCloseTo(0.125, within(EPSILON));
+    }
+
+    @Test
+    void pedigreeCollapse() {
+        // Two brothers marry two sisters: their children are double first cousins
+        UUID g1 = UUID.randomUUID(), g2 = UUID.randomUUID(), h1 = UUID.randomUUID(), h2 = UUID.randomUUID();
+        UUID brother1 = child(g1, g2), brother2 = child(g1, g2);
+        UUID sister1 = child(h1, h2), sister2 = child(h1, h2);
+        UUID c = child(brother1, sister1), d = child(brother2, sister2);
+        assertThat(coefficient(c, d)).isCloseTo(0.125, within(EPSILON));
+
+        // A child of the double first cousins is inbred: phi(e, e) = (1 + phi(c, d)) / 2
+        UUID e = child(c, d);
+        assertThat(coefficient(e, e)).isCloseTo(0.5625, within(EPSILON));
+        assertThat(coefficient(e, g1)).isCloseTo(0.125, within(EPSILON));
+    }
+
+    private UUID child(UUID father, UUID mother) {
+        UUID child = UUID.randomUUID();
+        g.addParentChild(father, child);
+        g.addParentChild(mother, child);
+        return child;
+    }
+
+    private double coefficient(UUID a, UUID b) {
+        return new KinshipCoefficients(g).coefficient(node(a), node(b));
+    }
+
+    private int node(UUID memberId) {
+        return g.indexOf(memberId);
+    }
+}
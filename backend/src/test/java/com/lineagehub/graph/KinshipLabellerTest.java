@@ -0,0 +1,171 @@
+package com.lineagehub.graph;
+
+import com.lineagehub.entity.enums.Gender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KinshipLabellerTest {
+
+    private final KinshipGraph g = new KinshipGraph();
+
+    private UUID ego, father, mother, paternalGrandfather, maternalGrandmother;
+    private UUID olderUncle, youngerUncle, youngerAunt, youngerUncleWife, youngerAuntHusband;
+    private UUID maternalUncle, maternalUncleWife, maternalAunt;
+    private UUID olderCousin, olderFemaleCousin, youngerCousin;
+    private UUID olderBrother, olderBrotherWife, olderSister, olderSisterHusband, youngerBrother, youngerBrotherWife;
+    private UUID nephew, wife, wifeFather, wifeOlderBrother;
+
+    @BeforeEach
+    void buildFamily() {
+        paternalGrandfather = member(Gender.MALE, 1930);
+        UUID paternalGrandmother = member(Gender.FEMALE, 1932);
+        UUID maternalGrandfather = member(Gender.MALE, 1933);
+        maternalGrandmother = member(Gender.FEMALE, 1935);
+
+        father = child(paternalGrandfather, paternalGrandmother, Gender.MALE, 1960);
+        olderUncle = child(paternalGrandfather, paternalGrandmother, Gender.MALE, 1955);
+        youngerUncle = child(paternalGrandfather, paternalGrandmother, Gender.MALE, 1965);
+        youngerAunt = child(paternalGrandfather, paternalGrandmother, Gender.FEMALE, 1967);
+        youngerUncleWife = spouse(youngerUncle, Gender.FEMALE);
+        youngerAuntHusband = spouse(youngerAunt, Gender.MALE);
+
+        mother = child(maternalGrandfather, maternalGrandmother, Gender.FEMALE, 1962);
+        maternalUncle = child(maternalGrandfather, maternalGrandmother, Gender.MALE, 1964);
+        maternalAunt = child(maternalGrandfather, maternalGrandmother, Gender.FEMALE, 1966);
+        maternalUncleWife = spouse(maternalUncle, Gender.FEMALE);
+        g.addSpouse(father, mother);
+
+        // Cousins follow the seniority of their parent's branch, not their own birth date
+        UUID olderUncleWife = spouse(olderUncle, Gender.FEMALE);
+        olderCousin = child(olderUncle, olderUncleWife, Gender.MALE, 1995);
+        olderFemaleCousin = child(olderUncle, olderUncleWife, Gender.FEMALE, 1996);
+        youngerCousin = child(youngerUncle, youngerUncleWife, Gender.MALE, 1980);
+
+        ego = child(father, mother, Gender.MALE, 1988);
+        olderBrother = child(father, mother, Gender.MALE, 1985);
+        olderSister = child(father, mother, Gender.FEMALE, 1983);
+        youngerBrother = child(father, mother, Gender.MALE, 1990);
+        olderBrotherWife = spouse(olderBrother, Gender.FEMALE);
+        olderSisterHusband = spouse(olderSister, Gender.MALE);
+        youngerBrotherWife = spouse(youngerBrother, Gender.FEMALE);
+        nephew = child(olderBrother, olderBrotherWife, Gender.MALE, 2010);
+
+        wifeFather = member(Gender.MALE, 1958);
+        UUID wifeMother = member(Gender.FEMALE, 1960);
+        wife = child(wifeFather, wifeMother, Gender.FEMALE, 1990);
+        wifeOlderBrother = child(wifeFather, wifeMother, Gender.MALE, 1986);
+        g.addSpouse(ego, wife);
+    }
+
+    @Test
+    void directLine() {
+        KinshipLabeller.Labelling labelling = label();
+
+        assertThat(labelling.labelOf(node(ego))).isEqualTo("bản thân");
+        assertThat(labelling.labelOf(node(father))).isEqualTo("cha");
+        assertThat(labelling.labelOf(node(mother))).isEqualTo("mẹ");
+        assertThat(labelling.labelOf(node(paternalGrandfather))).isEqualTo("ông nội");
+        assertThat(labelling.labelOf(node(maternalGrandmother))).isEqualTo("bà ngoại");
+        assertThat(labelling.labelOf(node(nephew))).isEqualTo("cháu");
+        assertThat(labelling.distanceOf(node(paternalGrandfather))).isEqualTo(2);
+    }
+
+    @Test
+    void parentsSiblingsBySideAndSeniority() {
+        KinshipLabeller.Labelling labelling = label();
+
+        assertThat(labelling.labelOf(node(olderUncle))).isEqualTo("bác");
+        assertThat(labelling.labelOf(node(youngerUncle))).isEqualTo("chú");
+        assertThat(labelling.labelOf(node(youngerAunt))).isEqualTo("cô");
+        assertThat(labelling.labelOf(node(maternalUncle))).isEqualTo("cậu");
+        assertThat(labelling.labelOf(node(maternalAunt))).isEqualTo("dì");
+    }
+
+    @Test
+    void siblingsAndCousins() {
+        KinshipLabeller.Labelling labelling = label();
+
+        assertThat(labelling.labelOf(node(olderBrother))).isEqualTo("anh");
+        assertThat(labelling.labelOf(node(olderSister))).isEqualTo("chị");
+        assertThat(labelling.labelOf(node(youngerBrother))).isEqualTo("em trai");
+        assertThat(labelling.labelOf(node(olderCousin))).isEqualTo("anh họ");
+        assertThat(labelling.labelOf(node(olderFemaleCousin))).isEqualTo("chị họ");
+        assertThat(labelling.labelOf(node(youngerCousin))).isEqualTo("em họ");
+        assertThat(labelling.distanceOf(node(olderCousin))).isEqualTo(4);
+    }
+
+    @Test
+    void spousesOfBloodRelatives() {
+        KinshipLabeller.Labelling labelling = label();
+
+        assertThat(labelling.labelOf(node(wife))).isEqualTo("vợ");
+        assertThat(labelling.labelOf(node(olderBrotherWife))).isEqualTo("chị dâu");
+        assertThat(labelling.labelOf(node(olderSisterHusband))).isEqualTo("anh rể");
+        assertThat(labelling.labelOf(node(youngerBrotherWife))).isEqualTo("em dâu");
+        assertThat(labelling.labelOf(node(youngerUncleWife))).isEqualTo("thím");
+        assertThat(labelling.labelOf(node(youngerAuntHusband))).isEqualTo("chú");
+        assertThat(labelling.labelOf(node(maternalUncleWife))).isEqualTo("mợ");
+    }
+
+    @Test
+    void spouseFamily() {
+        KinshipLabeller.Labelling labelling = label();
+
+        assertThat(labelling.labelOf(node(wifeFather))).isEqualTo("bố vợ");
+        assertThat(labelling.labelOf(node(wifeOlderBrother))).isEqualTo("anh vợ");
+
+        // Seen from the wife, the same members are her husband's family
+        KinshipLabeller.Labelling fromWife = KinshipLabeller.label(g, node(wife));
+        assertThat(fromWife.labelOf(node(ego))).isEqualTo("chồng");
+        assertThat(fromWife.labelOf(node(father))).isEqualTo("bố chồng");
+        assertThat(fromWife.labelOf(node(olderBrother))).isEqualTo("anh chồng");
+        assertThat(fromWife.labelOf(node(youngerBrother))).isEqualTo("em chồng");
+    }
+
+    @Test
+    void unrelatedMember() {
+        UUID stranger = member(Gender.MALE, 1990);
+        KinshipLabeller.Labelling labelling = label();
+
+        assertThat(labelling.labelOf(node(stranger))).isNull();
+        assertThat(labelling.distanceOf(node(stranger))).isEqualTo(-1);
+        assertThat(labelling.related().get(node(stranger))).isFalse();
+    }
+
+    private KinshipLabeller.Labelling label() {
+        return KinshipLabeller.label(g, node(ego));
+    }
+
+    private UUID member(Gender gender, int birthYear) {
+        UUID id = UUID.randomUUID();
+        g.addMember(id);
+        g.setGender(id, gender);
+        g.setBirthDay(id, (int) LocalDate.of(birthYear, 1, 1).toEpochDay());
+        return id;
+    }
+
+    private UUID child(UUID father, UUID mother, Gender gender, int birthYear) {
+        UUID child = member(gender, birthYear);
+        g.addParentChild(father, child);
+        g.addParentChild(mother, child);
+        return child;
+    }
+
+    private UUID spouse(UUID memberId, Gender gender) {
+        UUID spouse = UUID.randomUUID();
+        g.addMember(spouse);
+        g.setGender(spouse, gender);
+        g.setBloodRelative(spouse, false);
+        g.addSpouse(memberId, spouse);
+        return spouse;
+    }
+
+    private int node(UUID memberId) {
+        return g.indexOf(memberId);
+    }
+}
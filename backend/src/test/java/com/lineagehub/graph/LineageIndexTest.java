@@ -0,0 +1,88 @@
+package com.lineagehub.graph;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class LineageIndexTest {
+
+    private final KinshipGraph g = new KinshipGraph();
+
+    @Test
+    void lowestCommonAncestorOnSmallTree() {
+        // root -> a, b; a -> c, d; b -> e; x (in-law, married to a) is also a parent of c
+        UUID root = UUID.randomUUID(), a = UUID.randomUUID(), b = UUID.randomUUID();
+        UUID c = UUID.randomUUID(), d = UUID.randomUUID(), e = UUID.randomUUID();
+        UUID x = UUID.randomUUID(), other = UUID.randomUUID();
+        g.addParentChild(root, a);
+        g.addParentChild(root, b);
+        g.addParentChild(x, c);
+        g.addParentChild(a, c);
+        g.addParentChild(a, d);
+        g.addParentChild(b, e);
+        g.addSpouse(a, x);
+        g.setBloodRelative(x, false);
+        g.addMember(other);
+        g.buildLineageIndex();
+
+        assertThat(g.lineageParent(node(c))).isEqualTo(node(a));
+        assertThat(g.lineageDepth(node(c))).isEqualTo(2);
+        assertThat(g.lowestCommonAncestor(node(c), node(d))).isEqualTo(node(a));
+        assertThat(g.lowestCommonAncestor(node(c), node(e))).isEqualTo(node(root));
+        assertThat(g.lowestCommonAncestor(node(c), node(a))).isEqualTo(node(a));
+        assertThat(g.lowestCommonAncestor(node(c), node(c))).isEqualTo(node(c));
+        assertThat(g.lowestCommonAncestor(node(c), node(other))).isEqualTo(-1);
+
+        // Maintained incrementally after the build
+        UUID f = UUID.randomUUID();
+        g.addParentChild(d, f);
+        assertThat(g.lineageDepth(node(f))).isEqualTo(3);
+        assertThat(g.lowestCommonAncestor(node(f), node(c))).isEqualTo(node(a));
+        assertThat(g.lowestCommonAncestor(node(f), node(e))).isEqualTo(node(root));
+    }
+
+    @Test
+    void parentCycleInDataIsCutOnBuild() {
+        // n1 -> n2 -> n3 -> n1, and n3 -> n4
+        UUID n1 = UUID.randomUUID(), n2 = UUID.randomUUID(), n3 = UUID.randomUUID(), n4 = UUID.randomUUID();
+        g.addParentChild(n1, n2);
+        g.addParentChild(n2, n3);
+        g.addParentChild(n3, n1);
+        g.addParentChild(n3, n4);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            g.buildLineageIndex();
+
+            int root = g.lineageRoot(node(n4));
+            assertThat(root).isIn(node(n1), node(n2), node(n3));
+            assertThat(g.lineageParent(root)).isEqualTo(-1);
+            assertThat(g.lowestCommonAncestor(node(n3), node(n4))).isEqualTo(node(n3));
+            assertThat(g.lowestCommonAncestor(node(n1), node(n2))).isIn(node(n1), node(n2));
+            assertThat(g.lowestCommonAncestor(node(n4), node(n1))).isIn(node(n1), node(n2), node(n3));
+        });
+    }
+
+    @Test
+    void parentCycleCreatedAfterBuildIsCut() {
+        UUID a = UUID.randomUUID(), b = UUID.randomUUID(), c = UUID.randomUUID();
+        g.addParentChild(a, b);
+        g.addParentChild(b, c);
+        g.buildLineageIndex();
+
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            g.addParentChild(c, a);
+
+            assertThat(g.lineageParent(node(a))).isEqualTo(-1);
+            assertThat(g.lineageDepth(node(c))).isEqualTo(2);
+            assertThat(g.lowestCommonAncestor(node(a), node(c))).isEqualTo(node(a));
+        });
+    }
+
+    private int node(UUID memberId) {
+        return g.indexOf(memberId);
+    }
+}
@@ -0,0 +1,189 @@
+package com.lineagehub.service;
+
+import com.lineagehub.graph.KinshipGraph;
+import com.lineagehub.graph.KinshipGraphChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Applies each kind of graph change the way KinshipGraphService does and checks the updated stats against
+ * a full computation on the same graph
+ */
+class DescendantStatsServiceTest {
+
+    private final KinshipGraph g = new KinshipGraph();
+    private final KinshipGraphService kinshipGraphService = mock(KinshipGraphService.class);
+    private long version;
+
+    private DescendantStatsService service;
+    private UUID grandfather, grandmother, a, b, c;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(kinshipGraphService.read(any()))
+                .thenAnswer(invocation -> invocation.getArgument(0, Function.class).apply(g));
+        when(kinshipGraphService.getVersion()).thenAnswer(invocation -> version);
+
+        // grandfather -> a; grandfather, grandmother -> b; a, b -> c: c is reached through both its parents
+        grandfather = UUID.randomUUID();
+        grandmother = UUID.randomUUID();
+        a = UUID.randomUUID();
+        b = UUID.randomUUID();
+        c = UUID.randomUUID();
+        g.addParentChild(grandfather, a);
+        g.addParentChild(grandfather, b);
+        g.addParentChild(grandmother, b);
+        g.addParentChild(a, c);
+        g.addParentChild(b, c);
+
+        service = new DescendantStatsService(kinshipGraphService);
+        assertThat(service.getStats(node(grandfather)).descendants()).isEqualTo(3);
+    }
+
+    @Test
+    void newMemberAndLeafLinks() {
+        UUID x = UUID.randomUUID();
+        apply(List.of(x), graph -> graph.addMember(x));
+        assertMatchesFullComputation();
+
+        apply(List.of(a, x), graph -> graph.addParentChild(a, x));
+        assertMatchesFullComputation();
+
+        // The grandfather already reaches x through a: only the grandmother gains it
+        apply(List.of(b, x), graph -> graph.addParentChild(b, x));
+        assertMatchesFullComputation();
+        assertThat(service.getStats(node(grandfather)).descendants()).isEqualTo(4);
+        assertThat(service.getStats(node(grandmother)).descendants()).isEqualTo(3);
+
+        // Still reached through b after the unlink
+        apply(List.of(a, x), graph -> graph.removeParentChild(a, x));
+        assertMatchesFullComputation();
+        assertThat(service.getStats(node(grandfather)).descendants()).isEqualTo(4);
+    }
+
+    @Test
+    void childReachedThroughBothParentsUnlinked() {
+        apply(List.of(b, c), graph -> graph.removeParentChild(b, c));
+        assertMatchesFullComputation();
+        assertThat(service.getStats(node(grandfather)).descendants()).isEqualTo(3);
+        assertThat(service.getStats(node(grandmother)).descendants()).isEqualTo(1);
+
+        apply(List.of(b, c), graph -> graph.addParentChild(b, c));
+        assertMatchesFullComputation();
+    }
+
+    @Test
+    void deathDateSetAndCleared() {
+        apply(List.of(c), graph -> graph.setDeceased(c, true));
+        assertMatchesFullComputation();
+        assertThat(service.getStats(node(grandfather)).livingDescendants()).isEqualTo(2);
+
+        apply(List.of(b), graph -> graph.setDeceased(b, true));
+        assertMatchesFullComputation();
+
+        apply(List.of(c), graph -> graph.setDeceased(c, false));
+        assertMatchesFullComputation();
+    }
+
+    @Test
+    void deletedLeafAndDeletedParent() {
+        UUID x = UUID.randomUUID();
+        apply(List.of(a, x), graph -> graph.addParentChild(a, x));
+        apply(List.of(b, x), graph -> graph.addParentChild(b, x));
+        assertMatchesFullComputation();
+
+        delete(x);
+        assertMatchesFullComputation();
+        assertThat(service.getStats(node(grandmother)).descendants()).isEqualTo(2);
+
+        // Not a leaf: recounted
+        delete(b);
+        assertMatchesFullComputation();
+    }
+
+    @Test
+    void linkAboveExistingDescendants() {
+        // a already has descendants: recounted rather than applied as a delta
+        apply(List.of(grandmother, a), graph -> graph.addParentChild(grandmother, a));
+        assertMatchesFullComputation();
+        assertThat(service.getStats(node(grandmother)).descendants()).isEqualTo(3);
+    }
+
+    @Test
+    void changesAppliedBeforeTheirEventsAreDelivered() {
+        UUID x = UUID.randomUUID();
+        UUID y = UUID.randomUUID();
+        KinshipGraphChangedEvent first = change(List.of(a, x), graph -> graph.addParentChild(a, x));
+        KinshipGraphChangedEvent second = change(List.of(x, y), graph -> graph.addParentChild(x, y));
+
+        service.onGraphChanged(first);
+        service.onGraphChanged(second);
+        assertMatchesFullComputation();
+        assertThat(service.getStats(node(grandfather)).descendants()).isEqualTo(5);
+    }
+
+    private void delete(UUID memberId) {
+        // Former relatives are affected too, as collected by KinshipGraphService.onMemberDeleted
+        List<UUID> affected = new ArrayList<>(List.of(memberId));
+        apply(affected, graph -> {
+            int node = graph.indexOf(memberId);
+            for (int k = 0; k < graph.parentCount(node); k++) {
+                affected.add(graph.idOf(graph.parentAt(node, k)));
+            }
+            for (int k = 0; k < graph.childCount(node); k++) {
+                affected.add(graph.idOf(graph.childAt(node, k)));
+            }
+            graph.removeMember(memberId);
+        });
+    }
+
+    private void apply(List<UUID> memberIds, Consumer<KinshipGraph> mutation) {
+        service.onGraphChanged(change(memberIds, mutation));
+    }
+
+    /**
+     * Apply a change to the graph and build its event, nodes being those touched before and after it
+     */
+    private KinshipGraphChangedEvent change(List<UUID> memberIds, Consumer<KinshipGraph> mutation) {
+        BitSet nodes = new BitSet();
+        collectNodes(memberIds, nodes);
+        mutation.accept(g);
+        collectNodes(memberIds, nodes);
+        return new KinshipGraphChangedEvent(memberIds, nodes, ++version, false);
+    }
+
+    private void collectNodes(List<UUID> memberIds, BitSet nodes) {
+        for (UUID memberId : memberIds) {
+            int node = g.indexOf(memberId);
+            if (node >= 0) {
+                nodes.set(node);
+            }
+        }
+    }
+
+    private void assertMatchesFullComputation() {
+        DescendantStatsService recomputed = new DescendantStatsService(kinshipGraphService);
+        for (int node = 0; node < g.capacity(); node++) {
+            if (g.contains(node)) {
+                assertThat(service.getStats(node)).as("member %d", node).isEqualTo(recomputed.getStats(node));
+            }
+        }
+    }
+
+    private int node(UUID memberId) {
+        return g.indexOf(memberId);
+    }
+}
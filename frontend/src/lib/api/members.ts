@@ -6,6 +6,10 @@ import type {
   UpdateMemberRequest,
   PaginatedResponse,
   SubtreeData,
+  MemberFamily,
+  MemberCollaterals,
+  MemberEditors,
+  MemberNeighborhood,
 } from '@/lib/types';
 
 export interface GetMembersParams {
@@ -16,6 +20,7 @@ export interface GetMembersParams {
   search?: string;
   isDeceased?: boolean;
   isBloodRelative?: boolean;
+  editableOnly?: boolean;
   rootMemberId?: string;
 }
 
@@ -45,6 +50,18 @@ export const membersApi = {
     });
   },
 
-  getSubtree: (id: string, params?: { maxDepth?: number; includeSpouses?: boolean }) =>
+  getSubtree: (id: string, params?: { maxDepth?: number; includeSpouses?: boolean; limit?: number; continuationToken?: string }) =>
     apiClient.get<SubtreeData>(`/members/${id}/subtree`, { params }),
+
+  getFamily: (id: string, params?: { offset?: number; limit?: number }) =>
+    apiClient.get<MemberFamily>(`/members/${id}/family`, { params }),
+
+  getNeighborhood: (id: string, params?: { radius?: number; maxNodes?: number }) =>
+    apiClient.get<MemberNeighborhood>(`/members/${id}/neighborhood`, { params }),
+
+  getCollaterals: (id: string) =>
+    apiClient.get<MemberCollaterals>(`/members/${id}/collaterals`),
+
+  getEditors: (id: string) =>
+    apiClient.get<MemberEditors>(`/members/${id}/editors`),
 };
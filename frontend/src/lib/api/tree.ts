@@ -1,15 +1,30 @@
 import apiClient from './client';
-import type { TreeData } from '@/lib/types';
+import type { MemberQuery, MemberQueryResult, TreeData, TreeWindowData } from '@/lib/types';
 
 export interface GetTreeParams {
   rootMemberId?: string;
   depth?: number;
+  egoMemberId?: string;
+}
+
+export interface GetTreeWindowParams {
+  fromGeneration: number;
+  toGeneration: number;
+  minColumn?: number;
+  maxColumn?: number;
+  egoMemberId?: string;
 }
 
 export const treeApi = {
   getTree: (params?: GetTreeParams) =>
     apiClient.get<TreeData>('/tree', { params }),
 
+  getWindow: (params: GetTreeWindowParams) =>
+    apiClient.get<TreeWindowData>('/tree/window', { params }),
+
   getPath: (fromId: string, toId: string) =>
     apiClient.get('/tree/path', { params: { fromId, toId } }),
+
+  queryMembers: (query: MemberQuery) =>
+    apiClient.post<MemberQueryResult>('/tree/query', query),
 };
@@ -37,6 +37,9 @@ export const usersApi = {
   delete: (id: string) =>
     apiClient.delete(`/users/${id}`),
 
+  linkMember: (id: string, memberId: string | null) =>
+    apiClient.put<User>(`/users/${id}/member`, { memberId }),
+
   // User Roles
   getRoles: (userId: string) =>
     apiClient.get<{ userId: string; userEmail: string; roles: UserRole[] }>(
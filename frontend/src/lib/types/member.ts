@@ -15,6 +15,11 @@ export interface Member {
   generation: number;
   isDeceased: boolean;
   canEdit: boolean;
+  descendantCount: number | null;
+  livingDescendantCount: number | null;
+  maxDescendantDepth: number | null;
+  relationToMe?: string | null;
+  relationDistance?: number | null;
 }
 
 export interface MemberDetail extends Member {
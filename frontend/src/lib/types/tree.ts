@@ -1,3 +1,5 @@
+import type { Gender } from './member';
+
 export interface TreeNode {
   id: string;
   fullName: string;
@@ -10,6 +12,11 @@ export interface TreeNode {
   branchName: string | null;
   isDeceased: boolean;
   canEdit: boolean;
+  descendantCount: number | null;
+  livingDescendantCount: number | null;
+  maxDescendantDepth: number | null;
+  kinshipTerm?: string | null;         // present when egoMemberId is given
+  relationDistance?: number | null;
 }
 
 export interface TreeEdge {
@@ -29,6 +36,21 @@ export interface TreeData {
   };
 }
 
+export interface TreeStub {
+  memberId: string;
+  direction: 'PARENT' | 'CHILD' | 'SPOUSE';
+  count: number;
+}
+
+export interface TreeWindowData {
+  nodes: Array<TreeNode & { column: number }>;
+  edges: TreeEdge[];
+  stubs: TreeStub[];
+  metadata: TreeData['metadata'] & {
+    layoutWidth: number;
+  };
+}
+
 export interface SubtreeData {
   rootMember: {
     id: string;
@@ -42,4 +64,127 @@ export interface SubtreeData {
   }>;
   totalMembers: number;
   maxDepth: number;
+  continuationToken: string | null;
+}
+
+export interface FamilyNode {
+  id: string;
+  fullName: string;
+  gender: string;
+  birthYear: number | null;
+  deathYear: number | null;
+  isBloodRelative: boolean;
+  isDeceased: boolean;
+  avatarUrl: string | null;
+  relationshipId: string;
+  childCount: number;
+  spouseCount: number;
+}
+
+export interface MemberFamily {
+  memberId: string;
+  spouses: FamilyNode[];
+  children: FamilyNode[];
+  totalChildren: number;
+  offset: number;
+  hasMore: boolean;
+}
+
+export interface CollateralMember {
+  id: string;
+  fullName: string;
+  gender: string;
+  birthYear: number | null;
+  deathYear: number | null;
+  isBloodRelative: boolean;
+  isDeceased: boolean;
+  avatarUrl: string | null;
+  commonAncestorIds: string[];
+}
+
+export interface MemberCollaterals {
+  memberId: string;
+  fullSiblings: CollateralMember[];
+  halfSiblings: CollateralMember[];
+  firstCousins: CollateralMember[];
+  secondCousins: CollateralMember[];
+}
+
+export interface MemberEditor {
+  userId: string;
+  fullName: string;
+  email: string;
+  status: string;
+  managedMemberIds: string[];
+}
+
+export interface MemberEditors {
+  memberId: string;
+  branchAdmins: MemberEditor[];
+}
+
+export type MemberQueryDirection = 'NONE' | 'DESCENDANTS' | 'ANCESTORS' | 'SPOUSES';
+
+export interface MemberQuery {
+  startMemberIds?: string[];
+  direction?: MemberQueryDirection;
+  minDepth?: number;
+  maxDepth?: number;
+  gender?: Gender;
+  isDeceased?: boolean;
+  isBloodRelative?: boolean;
+  minGeneration?: number;
+  maxGeneration?: number;
+  branchName?: string;
+  bornFrom?: number;
+  bornTo?: number;
+  minParents?: number;
+  maxParents?: number;
+  minChildren?: number;
+  maxChildren?: number;
+  isMarried?: boolean;
+  limit?: number;
+}
+
+export interface MemberQueryItem {
+  id: string;
+  fullName: string;
+  gender: string;
+  birthYear: number | null;
+  deathYear: number | null;
+  generation: number | null;
+  branchName: string | null;
+  isBloodRelative: boolean;
+  isDeceased: boolean;
+  avatarUrl: string | null;
+  depth: number;
+}
+
+export interface MemberQueryResult {
+  totalMatches: number;
+  truncated: boolean;
+  members: MemberQueryItem[];
+}
+
+export interface NeighborMember {
+  id: string;
+  fullName: string;
+  gender: string;
+  birthYear: number | null;
+  deathYear: number | null;
+  generation: number | null;
+  isBloodRelative: boolean;
+  isDeceased: boolean;
+  avatarUrl: string | null;
+  distance: number;
+  hiddenRelatives: number;             // parents, children and spouses not included
+}
+
+export interface MemberNeighborhood {
+  memberId: string;
+  radius: number;
+  truncated: boolean;
+  members: NeighborMember[];           // closest first, center at index 0
+  parentChildEdges: [number, number][]; // [parent index, child index] into members
+  spouseEdges: [number, number][];
 }
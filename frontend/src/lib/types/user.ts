@@ -20,6 +20,7 @@ export interface User {
   email: string;
   fullName: string;
   status: UserStatus;
+  memberId?: string | null;
   roles: UserRole[];
   createdAt?: string;
   permissions?: {